@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Runs the platform vs virtual thread comparison at 1k/5k/10k concurrent connections.
+#
+# Requires Java 21+, k6 and the application jar (./gradlew bootJar). The upstream is a
+# local WireMock with a fixed delay so results measure thread capacity, not the internet.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+APP_JAR=${APP_JAR:-$(ls build/libs/audition-api-*.jar | grep -v plain | head -1)}
+WIREMOCK_VERSION=${WIREMOCK_VERSION:-2.35.0}
+WIREMOCK_JAR=${WIREMOCK_JAR:-build/wiremock-jre8-standalone-${WIREMOCK_VERSION}.jar}
+UPSTREAM_DELAY_MS=${UPSTREAM_DELAY_MS:-200}
+DURATION=${DURATION:-60s}
+RESULTS=${RESULTS:-build/threading-comparison.csv}
+
+if [ ! -f "$WIREMOCK_JAR" ]; then
+  curl -sSfL -o "$WIREMOCK_JAR" \
+    "https://repo1.maven.org/maven2/com/github/tomakehurst/wiremock-jre8-standalone/${WIREMOCK_VERSION}/wiremock-jre8-standalone-${WIREMOCK_VERSION}.jar"
+fi
+
+java -jar "$WIREMOCK_JAR" --port 9999 --no-request-journal --container-threads 2000 --async-response-enabled true \
+  > build/wiremock.log 2>&1 &
+WIREMOCK_PID=$!
+trap 'kill $WIREMOCK_PID 2>/dev/null || true' EXIT
+until curl -s localhost:9999/__admin/mappings > /dev/null; do sleep 1; done
+curl -s -X POST localhost:9999/__admin/mappings -d "{
+  \"request\": {\"method\": \"GET\", \"urlPathPattern\": \"/posts/[0-9]+\"},
+  \"response\": {\"status\": 200, \"fixedDelayMilliseconds\": ${UPSTREAM_DELAY_MS},
+    \"headers\": {\"Content-Type\": \"application/json\"},
+    \"body\": \"{\\\"userId\\\":1,\\\"id\\\":1,\\\"title\\\":\\\"t\\\",\\\"body\\\":\\\"b\\\"}\"}}" > /dev/null
+
+echo "mode,connections,requests_per_second,p50_ms,p95_ms,p99_ms,error_percent" > "$RESULTS"
+for mode in platform virtual; do
+  VIRTUAL_THREADS_ENABLED=$([ "$mode" = virtual ] && echo true || echo false) \
+  JSONPLACEHOLDER_BASE_URL=http://localhost:9999 \
+  HTTP_CLIENT_MAX_CONNECTIONS=2000 HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE=2000 \
+  TOMCAT_MAX_CONNECTIONS=12000 \
+    java -jar "$APP_JAR" > "build/app-$mode.log" 2>&1 &
+  APP_PID=$!
+  until curl -s localhost:8080/api/v1/actuator/health > /dev/null; do sleep 1; done
+
+  for vus in 1000 5000 10000; do
+    k6 run --quiet -e MODE="$mode" -e VUS="$vus" -e DURATION="$DURATION" \
+      load-test/threading-comparison.js >> "$RESULTS"
+  done
+
+  kill $APP_PID
+  wait $APP_PID 2>/dev/null || true
+done
+
+column -s, -t < "$RESULTS"
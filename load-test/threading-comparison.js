@@ -0,0 +1,41 @@
+// k6 scenario for comparing platform and virtual request threads.
+//
+// Every iteration asks for a random post, so requests miss the cache and each
+// one holds a request thread for the full upstream round trip.
+//
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1 -e VUS=1000 -e DURATION=60s threading-comparison.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080/api/v1';
+
+export const options = {
+  scenarios: {
+    concurrent: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 1000),
+      duration: __ENV.DURATION || '60s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+  const id = Math.floor(Math.random() * 1000000000) + 1;
+  const response = http.get(`${baseUrl}/posts/${id}`, { tags: { name: 'posts-by-id' } });
+  check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+  const duration = data.metrics.http_req_duration.values;
+  const line = [
+    __ENV.MODE || 'unknown',
+    __ENV.VUS || 1000,
+    data.metrics.http_reqs.values.rate.toFixed(1),
+    duration['p(50)'].toFixed(1),
+    duration['p(95)'].toFixed(1),
+    duration['p(99)'].toFixed(1),
+    (data.metrics.http_req_failed.values.rate * 100).toFixed(2),
+  ].join(',');
+  return { stdout: line + '\n' };
+}
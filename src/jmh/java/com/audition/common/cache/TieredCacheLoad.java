@@ -0,0 +1,184 @@
+package com.audition.common.cache;
+
+import com.audition.model.AuditionComment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Sustained load against the comments cache, on-heap only against a small
+ * on-heap tier in front of an off-heap tier (TieredCache).
+ *
+ * Both hold the comments of every post: the on-heap cache keeps all of them as
+ * objects, the tiered cache keeps 2% on-heap and all of them as JSON off-heap.
+ * Worker threads read comments by post id for a fixed time, 80% of reads going
+ * to 10% of the posts; a miss builds the comments as an upstream load would and
+ * puts them. Reported per mode:
+ * - throughput and the share of reads answered from the cache
+ * - GC pauses (count, total, p99, max) from GC notifications during the run
+ * - live heap after GC (average and maximum over the run's collections) and
+ *   direct memory in use
+ *
+ * Run with ./gradlew tieredCacheLoad [-Pposts=N] [-Pseconds=S] [-Pthreads=T];
+ * each mode runs in the same JVM after a full GC, on-heap first.
+ *
+ * @author Farhan Rayani
+ */
+public final class TieredCacheLoad {
+
+    private static final int COMMENTS_PER_POST = 5;
+    private static final int COMMENTERS = 500;
+
+    private final int posts;
+    private final Duration duration;
+    private final int threads;
+    private final List<Long> pausesMillis = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> liveAfterGc = Collections.synchronizedList(new ArrayList<>());
+
+    private TieredCacheLoad(final int posts, final Duration duration, final int threads) {
+        this.posts = posts;
+        this.duration = duration;
+        this.threads = threads;
+        final NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                final GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                pausesMillis.add(info.getGcInfo().getDuration());
+                liveAfterGc.add(info.getGcInfo().getMemoryUsageAfterGc().values().stream()
+                        .mapToLong(MemoryUsage::getUsed).sum());
+            }
+        };
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int posts = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        final int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        final TieredCacheLoad load = new TieredCacheLoad(posts, Duration.ofSeconds(seconds), threads);
+        final ObjectMapper objectMapper = new ObjectMapper();
+        System.out.printf(Locale.ROOT, "%,d posts x %d comments, %d threads, %ds per mode, max heap %,d MB%n",
+                posts, COMMENTS_PER_POST, threads, seconds, Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf(Locale.ROOT, "%-8s %12s %7s %6s %9s %7s %7s %12s %12s %12s%n", "mode", "reads/s", "cached",
+                "GCs", "pause ms", "p99 ms", "max ms", "avg live MB", "max live MB", "direct MB");
+        load.run("on-heap", () -> new CaffeineCache("comments", Caffeine.newBuilder()
+                .maximumSize(posts).build()));
+        load.run("tiered", () -> new TieredCache("comments", Caffeine.newBuilder()
+                .maximumSize(Math.max(1, posts / 50))
+                .expireAfter(TieredCache.onHeapExpiry(Duration.ofHours(1))).build(), true,
+                new OffHeapStore(Math.min(Integer.MAX_VALUE, (long) posts * COMMENTS_PER_POST * 200)), objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, AuditionComment.class),
+                Duration.ofHours(1), value -> value));
+    }
+
+    private void run(final String mode, final Supplier<Cache> cacheFactory) throws Exception {
+        Cache cache = cacheFactory.get();
+        for (int id = 0; id < posts; id++) {
+            cache.put(id, comments(id));
+        }
+        fullGc();
+        pausesMillis.clear();
+        liveAfterGc.clear();
+
+        final ExecutorService workers = Executors.newFixedThreadPool(threads);
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final Cache shared = cache;
+            results.add(workers.submit(() -> work(shared, deadline)));
+        }
+        long reads = 0;
+        long hits = 0;
+        for (final Future<long[]> result : results) {
+            reads += result.get()[0];
+            hits += result.get()[1];
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+
+        final List<Long> pauses = new ArrayList<>(pausesMillis);
+        Collections.sort(pauses);
+        final long totalPause = pauses.stream().mapToLong(Long::longValue).sum();
+        final long p99 = pauses.isEmpty() ? 0 : pauses.get((int) Math.ceil(pauses.size() * 0.99) - 1);
+        final long maxPause = pauses.isEmpty() ? 0 : pauses.get(pauses.size() - 1);
+        final List<Long> live = new ArrayList<>(liveAfterGc);
+        final double avgLive = live.stream().mapToLong(Long::longValue).average().orElse(Double.NaN);
+        final long maxLive = live.stream().mapToLong(Long::longValue).max().orElse(0);
+        System.out.printf(Locale.ROOT, "%-8s %,12d %6.1f%% %6d %9d %7d %7d %,12.0f %,12d %,12d%n", mode,
+                reads / duration.toSeconds(), 100.0 * hits / reads, pauses.size(), totalPause, p99, maxPause,
+                avgLive / (1 << 20), maxLive >> 20, directMemory() >> 20);
+        cache.clear();
+        cache = null;
+        fullGc();
+    }
+
+    private long[] work(final Cache cache, final long deadline) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int hot = Math.max(1, posts / 10);
+        long reads = 0;
+        long hits = 0;
+        while ((reads & 1023) != 0 || System.nanoTime() < deadline) {
+            final int id = random.nextInt(10) < 8 ? random.nextInt(hot) : random.nextInt(posts);
+            if (cache.get(id) != null) {
+                hits++;
+            } else {
+                cache.put(id, comments(id));
+            }
+            reads++;
+        }
+        return new long[] {reads, hits};
+    }
+
+    private static List<AuditionComment> comments(final int postId) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final List<AuditionComment> comments = new ArrayList<>(COMMENTS_PER_POST);
+        for (int c = 0; c < COMMENTS_PER_POST; c++) {
+            final int commenter = random.nextInt(COMMENTERS);
+            comments.add(AuditionComment.builder()
+                    .postId(postId)
+                    .id(postId * COMMENTS_PER_POST + c)
+                    .name("commenter " + commenter)
+                    .email("commenter" + commenter + "@example.org")
+                    .body("comment " + c + " on post " + postId + " " + Long.toHexString(random.nextLong())
+                            + " with some text to make the body about as long as a real one")
+                    .build());
+        }
+        return List.copyOf(comments);
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static void fullGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+    }
+}
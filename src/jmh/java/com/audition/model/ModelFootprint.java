@@ -0,0 +1,155 @@
+package com.audition.model;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Heap footprint of the cached models: the immutable, deduplicated
+ * representation against the mutable beans it replaced.
+ *
+ * Both are loaded the way the caches hold them:
+ * - the posts list, parsed once (the posts snapshot)
+ * - the same post instances again (the posts cache, which single-post lookups
+ *   fill from the loaded snapshot)
+ * - the comments of every post (the comments cache), written by a fixed pool of
+ *   commenters so names and emails repeat across posts
+ *
+ * Retained heap is the used heap after a full GC with the data held, minus the
+ * used heap before; the best of a few rounds is reported. Run with
+ * ./gradlew modelFootprint [-Pposts=N].
+ *
+ * @author Farhan Rayani
+ */
+public final class ModelFootprint {
+
+    private static final int COMMENTS_PER_POST = 5;
+    private static final int COMMENTERS = 500;
+    private static final int ROUNDS = 3;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final String postsJson;
+    private final List<String> commentsJson = new ArrayList<>();
+
+    private ModelFootprint(final int posts) throws Exception {
+        final Random random = new Random(42);
+        final List<Object> allPosts = new ArrayList<>(posts);
+        for (int i = 1; i <= posts; i++) {
+            final LegacyPost post = new LegacyPost();
+            post.userId = (i - 1) / 10 + 1;
+            post.id = i;
+            post.title = sentence(random, 4 + random.nextInt(6));
+            post.body = sentence(random, 20 + random.nextInt(15));
+            allPosts.add(post);
+            final List<LegacyComment> comments = new ArrayList<>(COMMENTS_PER_POST);
+            for (int c = 0; c < COMMENTS_PER_POST; c++) {
+                final int commenter = random.nextInt(COMMENTERS);
+                final LegacyComment comment = new LegacyComment();
+                comment.postId = i;
+                comment.id = (i - 1) * COMMENTS_PER_POST + c + 1;
+                comment.name = "commenter " + commenter;
+                comment.email = "commenter" + commenter + "@example.org";
+                comment.body = sentence(random, 10 + random.nextInt(10));
+                comments.add(comment);
+            }
+            commentsJson.add(mapper.writeValueAsString(comments));
+        }
+        postsJson = mapper.writeValueAsString(allPosts);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int posts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final ModelFootprint footprint = new ModelFootprint(posts);
+        final long legacy = footprint.retained(() -> footprint.load(LegacyPost.class, LegacyComment.class));
+        final long current = footprint.retained(() -> footprint.load(AuditionPost.class, AuditionComment.class));
+        System.out.printf(Locale.ROOT, "%,d posts, %d comments each%n", posts, COMMENTS_PER_POST);
+        System.out.printf(Locale.ROOT, "%-24s %,14d bytes  %,8d per post%n", "mutable beans", legacy, legacy / posts);
+        System.out.printf(Locale.ROOT, "%-24s %,14d bytes  %,8d per post%n", "immutable, deduplicated", current,
+                current / posts);
+        System.out.printf(Locale.ROOT, "%-24s %13.1f%%%n", "saved", 100.0 * (legacy - current) / legacy);
+    }
+
+    private <P, C> Object load(final Class<P> postType, final Class<C> commentType) {
+        try {
+            final Object[] held = new Object[3];
+            final List<Object> snapshot =
+                    Arrays.asList(mapper.readValue(postsJson, mapper.getTypeFactory().constructArrayType(postType)));
+            held[0] = snapshot;
+            held[1] = new ArrayList<>(snapshot);
+            final List<List<C>> comments = new ArrayList<>(commentsJson.size());
+            for (final String json : commentsJson) {
+                final Object[] array = mapper.readValue(json, mapper.getTypeFactory().constructArrayType(commentType));
+                @SuppressWarnings("unchecked") final List<C> list = (List<C>) Arrays.asList(array);
+                comments.add(list);
+            }
+            held[2] = comments;
+            return held;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long retained(final Supplier<Object> loader) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = usedAfterGc();
+            final Object held = loader.get();
+            final long after = usedAfterGc();
+            Reference.reachabilityFence(held);
+            best = Math.min(best, after - before);
+        }
+        return best;
+    }
+
+    private static long usedAfterGc() {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String sentence(final Random random, final int words) {
+        final StringBuilder sentence = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sentence.append(' ');
+            }
+            for (int c = 3 + random.nextInt(6); c > 0; c--) {
+                sentence.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * AuditionPost as it was before: a mutable bean holding its own strings.
+     */
+    public static class LegacyPost {
+        public int userId;
+        public int id;
+        public String title;
+        public String body;
+        public List<LegacyComment> comments;
+    }
+
+    /**
+     * AuditionComment as it was before.
+     */
+    public static class LegacyComment {
+        public int postId;
+        public int id;
+        public String name;
+        public String email;
+        public String body;
+    }
+}
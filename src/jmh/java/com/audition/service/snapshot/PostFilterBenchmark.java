@@ -0,0 +1,126 @@
+package com.audition.service.snapshot;
+
+import com.audition.model.AuditionPost;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Title and userId filtering: PostSnapshot indexes against the per-request linear scan.
+ *
+ * Titles are lorem-style sentences drawn from a fixed vocabulary, like the
+ * jsonplaceholder data, with ten posts per user. Queries:
+ * - title - one vocabulary word, in roughly 1% of the titles
+ * - userAndTitle - the same word restricted to one user
+ * - shortTitle - a two-character needle, below the trigram length
+ *
+ * Run with ./gradlew jmh; results land in build/results/jmh.
+ *
+ * @author Farhan Rayani
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostFilterBenchmark {
+
+    private static final int POSTS_PER_USER = 10;
+    private static final int VOCABULARY = 400;
+    private static final String SHORT_QUERY = "D3";
+
+    @Param({"100", "10000", "1000000"})
+    private int posts;
+
+    private List<AuditionPost> list;
+    private PostSnapshot snapshot;
+    private int userId;
+    private String titleQuery;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "word" + i + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26));
+        }
+        list = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            final StringBuilder title = new StringBuilder();
+            for (int w = 3 + random.nextInt(5); w > 0; w--) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            final AuditionPost post = AuditionPost.builder()
+                    .id(i + 1)
+                    .userId(i / POSTS_PER_USER + 1)
+                    .title(title.toString().trim())
+                    .build();
+            list.add(post);
+        }
+        snapshot = PostSnapshot.of(list);
+        userId = posts / POSTS_PER_USER / 2 + 1;
+        titleQuery = words[17].toUpperCase();
+    }
+
+    @Benchmark
+    public List<AuditionPost> titleLinearScan() {
+        return linearScan(list, null, titleQuery);
+    }
+
+    @Benchmark
+    public List<AuditionPost> titleIndexed() {
+        return snapshot.filter(null, titleQuery);
+    }
+
+    @Benchmark
+    public List<AuditionPost> userAndTitleLinearScan() {
+        return linearScan(list, userId, titleQuery);
+    }
+
+    @Benchmark
+    public List<AuditionPost> userAndTitleIndexed() {
+        return snapshot.filter(userId, titleQuery);
+    }
+
+    @Benchmark
+    public List<AuditionPost> shortTitleLinearScan() {
+        return linearScan(list, null, SHORT_QUERY);
+    }
+
+    @Benchmark
+    public List<AuditionPost> shortTitleIndexed() {
+        return snapshot.filter(null, SHORT_QUERY);
+    }
+
+    /**
+     * The filter as it ran before the snapshot indexes: one pass per filter,
+     * lowercasing every title on every request.
+     */
+    private static List<AuditionPost> linearScan(final List<AuditionPost> posts, final Integer userId,
+                                                 final String titleFilter) {
+        List<AuditionPost> result = posts;
+        if (userId != null) {
+            final List<AuditionPost> byUser = new ArrayList<>();
+            for (final AuditionPost post : result) {
+                if (post.getUserId() == userId) {
+                    byUser.add(post);
+                }
+            }
+            result = byUser;
+        }
+        final List<AuditionPost> byTitle = new ArrayList<>();
+        for (final AuditionPost post : result) {
+            if (post.getTitle() != null && post.getTitle().toLowerCase().contains(titleFilter.toLowerCase())) {
+                byTitle.add(post);
+            }
+        }
+        return byTitle;
+    }
+}
@@ -0,0 +1,90 @@
+package com.audition.common.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts Caffeine evictions per cache and cause.
+ *
+ * cache.evictions from the cache statistics lumps evictions for size and for
+ * expiry together; telling them apart shows whether a cache is too small or its
+ * TTL too short. Each cache gets an eviction listener from {@link #listener(String)}.
+ *
+ * Meters, tagged with the owner's tags:
+ * - audition.cache.evictions{cache, cause} - cause is size, expired or collected
+ *
+ * Caches may be registered before or after the binder is bound.
+ *
+ * @author Farhan Rayani
+ */
+public final class CacheEvictions implements MeterBinder {
+
+    private static final RemovalCause[] CAUSES = {RemovalCause.SIZE, RemovalCause.EXPIRED, RemovalCause.COLLECTED};
+
+    private final Tags tags;
+    private final Map<String, Map<RemovalCause, LongAdder>> counts = new LinkedHashMap<>();
+    private final List<MeterRegistry> registries = new ArrayList<>();
+
+    public CacheEvictions(final Tags tags) {
+        this.tags = tags;
+    }
+
+    /**
+     * Creates the eviction listener for a cache and registers its counters.
+     *
+     * @param cache cache name
+     * @return the listener to pass to Caffeine.evictionListener
+     */
+    public synchronized RemovalListener<Object, Object> listener(final String cache) {
+        final Map<RemovalCause, LongAdder> byCause = counts.computeIfAbsent(cache, name -> {
+            final Map<RemovalCause, LongAdder> created = new EnumMap<>(RemovalCause.class);
+            for (final RemovalCause cause : CAUSES) {
+                created.put(cause, new LongAdder());
+            }
+            registries.forEach(registry -> register(registry, name, created));
+            return created;
+        });
+        return (key, value, cause) -> {
+            final LongAdder count = byCause.get(cause);
+            if (count != null) {
+                count.increment();
+            }
+        };
+    }
+
+    /**
+     * Returns the evictions counted so far.
+     *
+     * @param cache cache name
+     * @param cause removal cause
+     * @return the count, 0 for an unknown cache
+     */
+    public synchronized long count(final String cache, final RemovalCause cause) {
+        final Map<RemovalCause, LongAdder> byCause = counts.get(cache);
+        return byCause == null || !byCause.containsKey(cause) ? 0 : byCause.get(cause).sum();
+    }
+
+    @Override
+    public synchronized void bindTo(final MeterRegistry registry) {
+        registries.add(registry);
+        counts.forEach((cache, byCause) -> register(registry, cache, byCause));
+    }
+
+    private void register(final MeterRegistry registry, final String cache, final Map<RemovalCause, LongAdder> byCause) {
+        byCause.forEach((cause, count) -> FunctionCounter.builder("audition.cache.evictions", count, LongAdder::sum)
+                .description("Cache entries evicted, by cause")
+                .tags(tags).tag("cache", cache).tag("cause", cause.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+}
@@ -0,0 +1,82 @@
+package com.audition.common.cache;
+
+import java.util.Locale;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Tracks whether the current servlet request was answered from cache.
+ *
+ * A lookup answered from cache records a hit; a call to the upstream on behalf
+ * of a cache records a miss. One miss makes the whole request a miss, since its
+ * latency then includes an upstream call. The outcome tags the
+ * http.server.requests histogram, so cache-hit and cache-miss latency can be
+ * told apart per endpoint.
+ *
+ * Recording outside a request (e.g. from a background refresh) is a no-op.
+ *
+ * @author Farhan Rayani
+ */
+public final class CacheOutcomes {
+
+    /**
+     * Request attribute holding the {@link Outcome} of the request.
+     */
+    public static final String REQUEST_ATTRIBUTE = CacheOutcomes.class.getName() + ".outcome";
+
+    private CacheOutcomes() {
+    }
+
+    /**
+     * Records a lookup answered from cache.
+     */
+    public static void hit() {
+        record(Outcome.HIT);
+    }
+
+    /**
+     * Records a lookup that had to go to the upstream.
+     */
+    public static void miss() {
+        record(Outcome.MISS);
+    }
+
+    /**
+     * Returns the outcome stored in a request attribute.
+     *
+     * @param attribute the value of {@link #REQUEST_ATTRIBUTE}, may be null
+     * @return the outcome, NONE if no cache was consulted
+     */
+    public static Outcome of(final Object attribute) {
+        return attribute instanceof Outcome outcome ? outcome : Outcome.NONE;
+    }
+
+    private static void record(final Outcome outcome) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        final Outcome current = of(attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+        if (current != Outcome.MISS) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, outcome, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Cache outcome of a request.
+     */
+    public enum Outcome {
+        NONE,
+        HIT,
+        MISS;
+
+        /**
+         * Returns the tag value.
+         *
+         * @return the lower-case name
+         */
+        public String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.audition.common.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * A cached lookup run on another thread on behalf of the current request.
+ *
+ * The lookup does not share the request's attributes: it records its cache
+ * outcome and stale data (see CacheOutcomes and StaleResponses) in attributes
+ * of its own, so its caching conditions see only what it served. They are
+ * carried over to the request by {@link #join()}, on the request thread, so
+ * the request is never written from two threads. An abandoned lookup is never
+ * carried over; it may finish after the request without touching it.
+ *
+ * @param <T> result type
+ * @author Farhan Rayani
+ */
+public final class ForkedLookup<T> {
+
+    private final Attributes attributes = new Attributes();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<T> result;
+
+    private ForkedLookup(final Supplier<T> lookup, final Executor executor) {
+        this.result = CompletableFuture.supplyAsync(() -> claimed.compareAndSet(false, true) ? run(lookup) : null,
+                executor);
+    }
+
+    /**
+     * Starts the lookup on the executor.
+     *
+     * @param lookup the lookup, typically a call through a caching proxy
+     * @param executor executor to run it on
+     * @param <T> result type
+     * @return the forked lookup
+     */
+    public static <T> ForkedLookup<T> supplyAsync(final Supplier<T> lookup, final Executor executor) {
+        return new ForkedLookup<>(lookup, executor);
+    }
+
+    /**
+     * Waits for the lookup and records its cache outcome and stale data on the
+     * current request.
+     *
+     * @return the result of the lookup
+     * @throws RuntimeException the exception the lookup failed with
+     */
+    public T join() {
+        try {
+            return result.join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            attributes.recordOnCurrentRequest();
+        }
+    }
+
+    /**
+     * Gives up on the lookup without waiting: it is skipped if it has not started,
+     * and what it records is dropped.
+     */
+    public void abandon() {
+        claimed.set(true);
+    }
+
+    private T run(final Supplier<T> lookup) {
+        final RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            return lookup.get();
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+
+    /**
+     * Request-scoped attributes of the lookup alone; it has no session.
+     */
+    private static final class Attributes implements RequestAttributes {
+
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        void recordOnCurrentRequest() {
+            switch (CacheOutcomes.of(values.get(CacheOutcomes.REQUEST_ATTRIBUTE))) {
+                case HIT -> CacheOutcomes.hit();
+                case MISS -> CacheOutcomes.miss();
+                default -> { }
+            }
+            if (values.get(StaleResponses.REQUEST_ATTRIBUTE) instanceof Duration age) {
+                StaleResponses.record(age);
+            }
+        }
+
+        @Override
+        public Object getAttribute(final String name, final int scope) {
+            return scope == SCOPE_REQUEST ? values.get(name) : null;
+        }
+
+        @Override
+        public void setAttribute(final String name, final Object value, final int scope) {
+            if (scope == SCOPE_REQUEST) {
+                values.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(final String name, final int scope) {
+            if (scope == SCOPE_REQUEST) {
+                values.remove(name);
+            }
+        }
+
+        @Override
+        public String[] getAttributeNames(final int scope) {
+            return scope == SCOPE_REQUEST ? values.keySet().toArray(String[]::new) : new String[0];
+        }
+
+        @Override
+        public void registerDestructionCallback(final String name, final Runnable callback, final int scope) {
+            // Nothing is destroyed with the lookup's attributes
+        }
+
+        @Override
+        public Object resolveReference(final String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            throw new UnsupportedOperationException("A forked lookup has no session");
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            throw new UnsupportedOperationException("A forked lookup has no session");
+        }
+    }
+}
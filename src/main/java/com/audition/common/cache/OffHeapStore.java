@@ -0,0 +1,257 @@
+package com.audition.common.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Byte store in one direct buffer, outside the Java heap.
+ *
+ * Values are appended to the buffer as a ring: when it is full, the oldest
+ * values are overwritten and dropped (FIFO eviction), so the store never
+ * allocates after construction and the garbage collector sees only the small
+ * on-heap index of keys and locations. A value that would cross the end of the
+ * buffer starts again at the beginning, leaving the tail unused for that lap.
+ * Replacing a key appends the new value; the old bytes are reclaimed when the
+ * ring passes over them.
+ *
+ * Reads copy the value out of the buffer under a shared lock; writes, removals
+ * and evictions take the exclusive lock. A value larger than the whole buffer is
+ * not stored. Every write gets a new version, so a caller holding a copy can tell
+ * whether the key still holds that write or was removed or replaced since.
+ *
+ * The buffer counts against -XX:MaxDirectMemorySize, which defaults to the
+ * maximum heap size.
+ *
+ * @author Farhan Rayani
+ */
+public final class OffHeapStore {
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final Map<Object, Location> index = new HashMap<>();
+    private final ArrayDeque<Location> order = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder evictions = new LongAdder();
+    private long head;
+    private long liveBytes;
+    private long writes;
+
+    /**
+     * Allocates the store.
+     *
+     * @param capacity size of the direct buffer in bytes, at most Integer.MAX_VALUE
+     */
+    public OffHeapStore(final long capacity) {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap capacity must be between 1 byte and 2GB: " + capacity);
+        }
+        this.capacity = (int) capacity;
+        this.buffer = ByteBuffer.allocateDirect(this.capacity);
+    }
+
+    /**
+     * Stores a value, replacing any value of the key.
+     *
+     * @param key the key
+     * @param value the bytes to store
+     * @param writtenAt caller-defined write time, returned with the value
+     * @return false if the value is larger than the store and was not kept
+     */
+    public boolean put(final Object key, final byte[] value, final long writtenAt) {
+        lock.writeLock().lock();
+        try {
+            drop(index.remove(key));
+            if (value.length > capacity) {
+                return false;
+            }
+            int offset = (int) (head % capacity);
+            if (offset + value.length > capacity) {
+                head += capacity - offset;
+                offset = 0;
+            }
+            final long end = head + value.length;
+            // Everything starting before end - capacity is about to be overwritten
+            while (!order.isEmpty() && order.peekFirst().position() < end - capacity) {
+                final Location overwritten = order.pollFirst();
+                if (index.remove(overwritten.key(), overwritten)) {
+                    liveBytes -= overwritten.length();
+                    evictions.increment();
+                }
+            }
+            buffer.put(offset, value);
+            final Location location = new Location(key, head, value.length, writtenAt, ++writes);
+            index.put(key, location);
+            order.addLast(location);
+            liveBytes += value.length;
+            head = end;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the value of a key.
+     *
+     * @param key the key
+     * @return the value, its write time and version, or null if the key is not stored
+     */
+    public Entry get(final Object key) {
+        lock.readLock().lock();
+        try {
+            final Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            final byte[] value = new byte[location.length()];
+            buffer.get((int) (location.position() % capacity), value);
+            return new Entry(value, location.writtenAt(), location.version());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the value of a key.
+     *
+     * @param key the key
+     * @return true if a value was removed
+     */
+    public boolean remove(final Object key) {
+        lock.writeLock().lock();
+        try {
+            final Location location = index.remove(key);
+            drop(location);
+            return location != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether a key still holds the value of a given write.
+     *
+     * @param key the key
+     * @param version the version of an entry read from this store
+     * @return false if the key was removed, replaced or evicted since
+     */
+    public boolean holds(final Object key, final long version) {
+        lock.readLock().lock();
+        try {
+            final Location location = index.get(key);
+            return location != null && location.version() == version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the value of a key if it is still the value of a given write.
+     *
+     * @param key the key
+     * @param version the version of an entry read from this store
+     * @return true if a value was removed
+     */
+    public boolean remove(final Object key, final long version) {
+        lock.writeLock().lock();
+        try {
+            final Location location = index.get(key);
+            if (location == null || location.version() != version) {
+                return false;
+            }
+            index.remove(key);
+            drop(location);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            order.clear();
+            liveBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored values.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the bytes held by stored values, excluding replaced and removed ones
+     * not yet overwritten.
+     *
+     * @return the live bytes
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the buffer.
+     *
+     * @return the capacity in bytes
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns how many values were dropped to make room for newer ones.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void drop(final Location location) {
+        if (location != null) {
+            liveBytes -= location.length(); // Its bytes stay in the ring until overwritten
+        }
+    }
+
+    /**
+     * A stored value.
+     *
+     * @param value copy of the stored bytes
+     * @param writtenAt the write time given to put
+     * @param version identifies the write, see holds
+     */
+    public record Entry(byte[] value, long writtenAt, long version) {
+    }
+
+    /**
+     * Where a value sits in the ring; position counts bytes written since creation.
+     */
+    private record Location(Object key, long position, int length, long writtenAt, long version) {
+    }
+}
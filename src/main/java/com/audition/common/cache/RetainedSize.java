@@ -0,0 +1,102 @@
+package com.audition.common.cache;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.Collection;
+
+/**
+ * Estimates the heap retained by cached keys and values, for byte-weighted eviction.
+ *
+ * The estimate assumes a 64-bit JVM with compressed oops and compact strings:
+ * - 12 byte object headers, 4 byte references, sizes aligned to 8 bytes
+ * - a String is its object plus a byte[] with one byte per Latin-1 character
+ *   (two per character otherwise)
+ * - every cache entry adds a fixed overhead for the Caffeine node
+ *
+ * It is meant to bound heap use predictably, not to be exact; values of
+ * unknown types count as one small object, and strings shared with other
+ * entries (see the model's string pool) are counted in full for each entry.
+ *
+ * @author Farhan Rayani
+ */
+public final class RetainedSize {
+
+    static final int ENTRY_OVERHEAD = 64;
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int INT = 4;
+    private static final int LONG = 8;
+    private static final int UNKNOWN = 16;
+
+    private RetainedSize() {
+    }
+
+    /**
+     * Caffeine weigher: the estimated bytes retained by one entry.
+     *
+     * @param key the cache key
+     * @param value the cached value
+     * @return the weight, at least 1
+     */
+    public static int weigh(final Object key, final Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + of(key) + of(value));
+    }
+
+    /**
+     * Estimates the bytes retained by a value and everything it references.
+     *
+     * @param value the value
+     * @return the estimate in bytes, 0 for null
+     */
+    public static long of(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return of(string);
+        }
+        if (value instanceof TieredCache.OnHeap onHeap) {
+            return align(HEADER + REFERENCE + LONG) + of(onHeap.value());
+        }
+        if (value instanceof AuditionPost post) {
+            return align(HEADER + 2 * INT + 3 * REFERENCE)
+                    + of(post.getTitle()) + of(post.getBody()) + of(post.getComments());
+        }
+        if (value instanceof AuditionComment comment) {
+            return align(HEADER + 2 * INT + 3 * REFERENCE)
+                    + of(comment.getName()) + of(comment.getEmail()) + of(comment.getBody());
+        }
+        if (value instanceof Collection<?> collection) {
+            // Array-backed list (List.copyOf, Arrays.asList): the list object plus an exactly sized array
+            long size = align(HEADER + REFERENCE) + align(HEADER + INT + collection.size() * REFERENCE);
+            for (final Object element : collection) {
+                size += of(element);
+            }
+            return size;
+        }
+        return UNKNOWN;
+    }
+
+    private static long of(final String string) {
+        if (string == null) {
+            return 0;
+        }
+        final int bytesPerChar = isLatin1(string) ? 1 : 2;
+        // String: header, hash, coder, hashIsZero, value reference; then the byte[]
+        return align(HEADER + INT + 2 + REFERENCE) + align(HEADER + INT + (long) string.length() * bytesPerChar);
+    }
+
+    private static boolean isLatin1(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long align(final long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,112 @@
+package com.audition.common.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Marks data served from the last-known-good store as stale.
+ *
+ * A fallback that answers from the store records the age of the data it served.
+ * The age is kept in two places:
+ * - the current servlet request, so the response carries Warning and Age headers
+ * - the innermost {@link #track(Supplier)} scope on the current thread, so a caller
+ *   that caches the result (e.g. the posts snapshot) can tell stale data from fresh
+ *
+ * Both are no-ops when absent, so recording from a background thread is safe.
+ *
+ * @author Farhan Rayani
+ */
+public final class StaleResponses {
+
+    /**
+     * Request attribute holding the age of the oldest stale data served for the request.
+     */
+    public static final String REQUEST_ATTRIBUTE = StaleResponses.class.getName() + ".age";
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private StaleResponses() {
+    }
+
+    /**
+     * Records that data of the given age was served instead of a fresh upstream response.
+     *
+     * @param age time since the data was fetched from the upstream
+     */
+    public static void record(final Duration age) {
+        final Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.age = older(scope.age, age);
+        }
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            final Duration current = (Duration) attributes.getAttribute(REQUEST_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            attributes.setAttribute(REQUEST_ATTRIBUTE, older(current, age), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Returns the age of stale data served so far for the current servlet request.
+     *
+     * @return the age, or empty if everything was fresh or there is no request
+     */
+    public static Optional<Duration> ofCurrentRequest() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? Optional.empty()
+                : Optional.ofNullable((Duration) attributes.getAttribute(REQUEST_ATTRIBUTE,
+                        RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * Runs the call and reports whether any of the data it returned was stale.
+     *
+     * @param call the call to run on this thread
+     * @param <T> result type
+     * @return the result and the age of the stale data it contains, if any
+     */
+    public static <T> Tracked<T> track(final Supplier<T> call) {
+        final Scope previous = SCOPE.get();
+        final Scope scope = new Scope();
+        SCOPE.set(scope);
+        try {
+            return new Tracked<>(call.get(), scope.age);
+        } finally {
+            if (previous == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(previous);
+                previous.age = older(previous.age, scope.age);
+            }
+        }
+    }
+
+    private static Duration older(final Duration current, final Duration candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate == null || current.compareTo(candidate) >= 0 ? current : candidate;
+    }
+
+    /**
+     * Result of a tracked call.
+     *
+     * @param value the value returned by the call
+     * @param staleAge age of the stale data in it, or null if it was fresh
+     * @param <T> result type
+     */
+    public record Tracked<T>(T value, Duration staleAge) {
+
+        public boolean isStale() {
+            return staleAge != null;
+        }
+    }
+
+    private static final class Scope {
+
+        private Duration age;
+    }
+}
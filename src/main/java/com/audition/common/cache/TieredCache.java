@@ -0,0 +1,293 @@
+package com.audition.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+
+/**
+ * Spring cache with a small on-heap Caffeine tier (L1) in front of an
+ * off-heap tier (L2).
+ *
+ * Every put is written to both tiers; the L2 keeps the JSON of the value in an
+ * OffHeapStore with its own FIFO eviction. A lookup missing the L1 is answered
+ * from the L2 if the value there is younger than the cache's expire-after-write,
+ * deserialized once and put back into the L1, so the hottest keys are held as
+ * objects and the long tail only as bytes outside the heap. Promoted values
+ * pass through a hook, which lets them get their ETag and stored JSON like
+ * values loaded from the upstream. Evictions and clears apply to both tiers;
+ * expire-after-access applies to the L1 only.
+ *
+ * The L1 keeps each value with the deadline of its write and must be built with
+ * {@link #onHeapExpiry(Duration)}: a read extends an entry by expire-after-access
+ * but never past that deadline, and a promoted value keeps only the rest of its
+ * time, so no value is served longer than expire-after-write after it was put.
+ * Puts, evictions and clears change the L2 before the L1, and a promotion is
+ * installed only if the L2 still holds the write it was read from, so a
+ * promotion racing them cannot bring back a removed or replaced value.
+ *
+ * An off-heap hit costs a JSON parse and allocates the copy, so the tier trades
+ * hit latency and young-generation garbage for a much smaller live heap; it
+ * pays off when the cached data would not otherwise fit the heap.
+ *
+ * Hits in either tier are recorded on the current request like those of the
+ * plain caches.
+ *
+ * @author Farhan Rayani
+ */
+public class TieredCache extends CaffeineCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TieredCache.class);
+
+    private final OffHeapStore offHeap;
+    private final ObjectMapper objectMapper;
+    private final JavaType valueType;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final UnaryOperator<Object> promoted;
+    private final LongAdder offHeapHits = new LongAdder();
+    private final LongAdder offHeapMisses = new LongAdder();
+
+    /**
+     * Creates the cache.
+     *
+     * @param name cache name
+     * @param cache the on-heap tier
+     * @param allowNullValues whether null values are cached (never in the off-heap tier)
+     * @param offHeap the off-heap tier
+     * @param objectMapper serializes values for the off-heap tier
+     * @param valueType type of the cached values
+     * @param timeToLive age after which an off-heap value is no longer served
+     * @param promoted applied to each value read back from the off-heap tier
+     */
+    public TieredCache(final String name, final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                       final boolean allowNullValues, final OffHeapStore offHeap, final ObjectMapper objectMapper,
+                       final JavaType valueType, final Duration timeToLive, final UnaryOperator<Object> promoted) {
+        this(name, cache, allowNullValues, offHeap, objectMapper, valueType, timeToLive, promoted, System::nanoTime);
+    }
+
+    TieredCache(final String name, final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                final boolean allowNullValues, final OffHeapStore offHeap, final ObjectMapper objectMapper,
+                final JavaType valueType, final Duration timeToLive, final UnaryOperator<Object> promoted,
+                final LongSupplier nanoClock) {
+        super(name, cache, allowNullValues);
+        if (cache.policy().expireVariably().isEmpty()) {
+            throw new IllegalArgumentException("The on-heap tier of cache " + name
+                    + " must be built with TieredCache.onHeapExpiry");
+        }
+        this.offHeap = offHeap;
+        this.objectMapper = objectMapper;
+        this.valueType = valueType;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.promoted = promoted;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the expiry the L1 of a TieredCache is built with. The L1 must use the
+     * cache's clock as its ticker (System.nanoTime, Caffeine's default).
+     *
+     * @param expireAfterAccess idle time after which an L1 entry expires
+     * @return the expiry, reading the deadlines of the values this cache stores
+     */
+    public static Expiry<Object, Object> onHeapExpiry(final Duration expireAfterAccess) {
+        return new OnHeapExpiry(expireAfterAccess.toNanos());
+    }
+
+    @Override
+    protected Object lookup(final Object key) {
+        final Object value = super.lookup(key);
+        if (value != null) {
+            CacheOutcomes.hit();
+            return value;
+        }
+        final Object fromOffHeap = promote(key);
+        if (fromOffHeap == null) {
+            offHeapMisses.increment();
+            return null;
+        }
+        offHeapHits.increment();
+        CacheOutcomes.hit();
+        return fromOffHeap;
+    }
+
+    /**
+     * Reads the key back from the L2 into the L1, with the rest of its time.
+     *
+     * @return the stored L1 value, or null if the L2 has no live value for the key
+     */
+    private Object promote(final Object key) {
+        final OffHeapStore.Entry entry = offHeap.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final long expiresAt = entry.writtenAt() + timeToLiveNanos;
+        if (expiresAt - nanoClock.getAsLong() <= 0) {
+            offHeap.remove(key, entry.version());
+            return null;
+        }
+        final Object value;
+        try {
+            value = promoted.apply(objectMapper.readValue(entry.value(), valueType));
+        } catch (final IOException e) {
+            LOG.warn("Dropping unreadable off-heap entry {} of cache {}: {}", key, getName(), e.toString());
+            offHeap.remove(key, entry.version());
+            return null;
+        }
+        final OnHeap stored = new OnHeap(value, expiresAt);
+        // A value put meanwhile wins; one evicted or replaced meanwhile is not brought back
+        return getNativeCache().asMap().computeIfAbsent(key,
+                absent -> offHeap.holds(key, entry.version()) ? stored : null);
+    }
+
+    @Override
+    protected Object toStoreValue(final Object userValue) {
+        return new OnHeap(super.toStoreValue(userValue), nanoClock.getAsLong() + timeToLiveNanos);
+    }
+
+    @Override
+    protected Object fromStoreValue(final Object storeValue) {
+        return super.fromStoreValue(storeValue instanceof OnHeap onHeap ? onHeap.value() : storeValue);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        offHeapPut(key, value);
+        super.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            offHeapPut(key, value);
+        }
+        return existing;
+    }
+
+    private void offHeapPut(final Object key, final Object value) {
+        if (value == null || value instanceof NullValue) {
+            offHeap.remove(key);
+            return;
+        }
+        try {
+            offHeap.put(key, objectMapper.writeValueAsBytes(value), nanoClock.getAsLong());
+        } catch (final IOException e) {
+            LOG.warn("Not keeping entry {} of cache {} off-heap: {}", key, getName(), e.toString());
+            offHeap.remove(key);
+        }
+    }
+
+    @Override
+    public void evict(final Object key) {
+        offHeap.remove(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final boolean fromOffHeap = offHeap.remove(key);
+        return super.evictIfPresent(key) || fromOffHeap;
+    }
+
+    @Override
+    public void clear() {
+        offHeap.clear();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        final boolean offHeapNotEmpty = offHeap.size() > 0;
+        offHeap.clear();
+        return super.invalidate() || offHeapNotEmpty;
+    }
+
+    /**
+     * Returns the off-heap tier.
+     *
+     * @return the store behind the on-heap tier
+     */
+    public OffHeapStore getOffHeapStore() {
+        return offHeap;
+    }
+
+    /**
+     * Binds the off-heap tier's meters, tagged with the cache name and the given tags.
+     *
+     * @param registry the registry
+     * @param tags further tags, such as cacheManager
+     */
+    public void bindTo(final MeterRegistry registry, final Tags tags) {
+        final Tags cacheTags = tags.and("cache", getName());
+        FunctionCounter.builder("audition.cache.offheap.gets", offHeapHits, LongAdder::sum)
+                .description("Lookups that missed the on-heap tier, by off-heap result")
+                .tags(cacheTags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("audition.cache.offheap.gets", offHeapMisses, LongAdder::sum)
+                .description("Lookups that missed the on-heap tier, by off-heap result")
+                .tags(cacheTags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("audition.cache.offheap.evictions", offHeap, OffHeapStore::evictionCount)
+                .description("Off-heap entries overwritten to make room for newer ones")
+                .tags(cacheTags)
+                .register(registry);
+        Gauge.builder("audition.cache.offheap.size", offHeap, OffHeapStore::size)
+                .description("Entries in the off-heap tier")
+                .tags(cacheTags)
+                .register(registry);
+        Gauge.builder("audition.cache.offheap.used", offHeap, OffHeapStore::usedBytes)
+                .description("Bytes held by live entries of the off-heap tier")
+                .baseUnit("bytes")
+                .tags(cacheTags)
+                .register(registry);
+        Gauge.builder("audition.cache.offheap.capacity", offHeap, OffHeapStore::capacity)
+                .description("Size of the off-heap tier's buffer")
+                .baseUnit("bytes")
+                .tags(cacheTags)
+                .register(registry);
+    }
+
+    /**
+     * A value in the L1, with the deadline of the write it comes from.
+     */
+    record OnHeap(Object value, long expiresAt) {
+    }
+
+    /**
+     * Expires an L1 entry expire-after-access after it was last written or read,
+     * but never after the deadline of its write.
+     */
+    private record OnHeapExpiry(long accessNanos) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(final Object key, final Object value, final long currentTime) {
+            final long left = value instanceof OnHeap onHeap ? onHeap.expiresAt() - currentTime : accessNanos;
+            return Math.max(0, Math.min(accessNanos, left));
+        }
+
+        @Override
+        public long expireAfterUpdate(final Object key, final Object value, final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final Object key, final Object value, final long currentTime,
+                                    final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+    }
+}
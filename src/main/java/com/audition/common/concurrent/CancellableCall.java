@@ -0,0 +1,95 @@
+package com.audition.common.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * CompletableFuture whose cancellation reaches the work behind it.
+ *
+ * A plain CompletableFuture from supplyAsync only flips its own state when
+ * cancelled; the task keeps running and the HTTP request stays open. A
+ * CancellableCall also interrupts the worker thread and runs every abort
+ * action registered while the task was executing. HTTP client engines
+ * register their in-flight request via {@link #onCancel(Runnable)} so a
+ * timed-out call releases its connection immediately.
+ *
+ * @param <T> result type
+ * @author Farhan Rayani
+ */
+public final class CancellableCall<T> extends CompletableFuture<T> {
+
+    private static final ThreadLocal<CancellableCall<?>> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> abortActions = new CopyOnWriteArrayList<>();
+    private volatile FutureTask<Void> task;
+
+    private CancellableCall() {
+        super();
+    }
+
+    /**
+     * Runs the supplier on the executor.
+     *
+     * @param supplier the blocking call
+     * @param executor executor to run it on
+     * @param <T> result type
+     * @return a future that aborts the call when cancelled
+     */
+    public static <T> CancellableCall<T> supplyAsync(final Supplier<T> supplier, final Executor executor) {
+        final CancellableCall<T> call = new CancellableCall<>();
+        final FutureTask<Void> futureTask = new FutureTask<>(() -> {
+            call.run(supplier);
+            return null;
+        });
+        call.task = futureTask;
+        executor.execute(futureTask);
+        return call;
+    }
+
+    /**
+     * Registers an action that aborts work started by the current thread, if the
+     * thread is running a CancellableCall. No-op otherwise.
+     *
+     * @param abortAction action run when the call is cancelled
+     */
+    public static void onCancel(final Runnable abortAction) {
+        final CancellableCall<?> current = CURRENT.get();
+        if (current != null) {
+            current.abortActions.add(abortAction);
+            if (current.isCancelled()) {
+                abortAction.run();
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            abortActions.forEach(Runnable::run);
+            final FutureTask<Void> futureTask = task;
+            if (futureTask != null) {
+                futureTask.cancel(true);
+            }
+        }
+        return cancelled;
+    }
+
+    private void run(final Supplier<T> supplier) {
+        if (isDone()) {
+            return;
+        }
+        CURRENT.set(this);
+        try {
+            complete(supplier.get());
+        } catch (final RuntimeException | Error e) {
+            completeExceptionally(e);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.audition.common.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to Java 21 virtual threads from code compiled for Java 17.
+ *
+ * The Thread.Builder API is looked up reflectively, so the application keeps
+ * running on Java 17 and only uses virtual threads when the runtime has them.
+ *
+ * @author Farhan Rayani
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Tells whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21 or later
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Creates a factory for virtual threads named prefix0, prefix1, ...
+     *
+     * @param namePrefix thread name prefix
+     * @return the factory, or empty when the runtime has no virtual threads
+     */
+    public static Optional<ThreadFactory> threadFactory(final String namePrefix) {
+        if (!isSupported()) {
+            return Optional.empty();
+        }
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Method name = builderType.getMethod("name", String.class, long.class);
+            final Object named = name.invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(named));
+        } catch (final ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task.
+     *
+     * @param namePrefix thread name prefix
+     * @return the executor, or empty when the runtime has no virtual threads
+     */
+    public static Optional<Executor> threadPerTaskExecutor(final String namePrefix) {
+        return threadFactory(namePrefix).map(factory -> task -> factory.newThread(task).start());
+    }
+}
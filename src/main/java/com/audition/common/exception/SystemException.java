@@ -13,7 +13,8 @@ import lombok.Getter;
  * - Cause chaining
  *
  * Used throughout the application for consistent error handling and
- * logging purposes.
+ * logging purposes. Expected, high-volume errors (e.g. a negative cache hit)
+ * can be created without a stack trace via withoutStackTrace.
  *
  * @author Farhan Rayani
  */
@@ -74,4 +75,26 @@ public class SystemException extends RuntimeException {
         this.title = title;
         this.detail = detail;
     }
+
+    private SystemException(final String detail, final String title, final Integer errorCode,
+                            final boolean writableStackTrace) {
+        super(detail, null, false, writableStackTrace);
+        this.statusCode = errorCode;
+        this.title = title;
+        this.detail = detail;
+    }
+
+    /**
+     * Creates an exception that skips filling in the stack trace, for errors that
+     * are answered locally and carry no diagnostic value beyond their message.
+     *
+     * @param detail error detail
+     * @param title error title
+     * @param errorCode HTTP status code
+     * @return the exception
+     */
+    public static SystemException withoutStackTrace(final String detail, final String title,
+                                                    final Integer errorCode) {
+        return new SystemException(detail, title, errorCode, false);
+    }
 }
@@ -0,0 +1,120 @@
+package com.audition.configuration;
+
+import com.audition.common.concurrent.VirtualThreads;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration for upstream calls that run off the request thread.
+ *
+ * The upstream executor is bounded in threads and queue depth so blocking
+ * HTTP I/O can never grow without limit or spill onto shared JVM pools.
+ * When the queue is full the submitting thread runs the task itself, which
+ * applies back-pressure instead of failing the request.
+ *
+ * The Mapped Diagnostic Context of the submitting thread is copied to the
+ * worker so trace and span IDs stay on every log line.
+ *
+ * Spring Boot binds the executor.* meters (active threads, queue depth,
+ * completed tasks) under name=upstream; rejections are counted here as
+ * audition.upstream.executor.rejected. With virtual threads enabled on a
+ * Java 21+ runtime the pool creates virtual workers instead of platform threads.
+ *
+ * @author Farhan Rayani
+ */
+
+@Configuration
+public class AsyncConfiguration {
+
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncConfiguration.class);
+    private static final String THREAD_NAME_PREFIX = "upstream-";
+
+    @Bean
+    public CountingCallerRunsPolicy upstreamRejectionPolicy() {
+        return new CountingCallerRunsPolicy();
+    }
+
+    @Bean(name = UPSTREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor upstreamExecutor(final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        final JsonPlaceholderProperties.Executor settings = jsonPlaceholderProperties.getExecutor();
+
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        if (settings.isVirtualThreads()) {
+            VirtualThreads.threadFactory(THREAD_NAME_PREFIX).ifPresentOrElse(executor::setThreadFactory,
+                    () -> LOG.warn("Virtual threads need Java 21+, running upstream executor on platform threads"));
+        }
+        executor.setCorePoolSize(settings.getCoreSize());
+        executor.setMaxPoolSize(settings.getMaxSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) settings.getKeepAlive().toSeconds());
+        executor.setTaskDecorator(mdcPropagatingDecorator());
+        executor.setRejectedExecutionHandler(upstreamRejectionPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    static TaskDecorator mdcPropagatingDecorator() {
+        return task -> {
+            final Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                final Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                } else {
+                    MDC.clear();
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Runs rejected tasks on the submitting thread and counts how often that happens.
+     */
+    public static class CountingCallerRunsPolicy implements RejectedExecutionHandler, MeterBinder {
+
+        private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+        private final LongAdder rejected = new LongAdder();
+
+        @Override
+        public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        }
+
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+
+        @Override
+        public void bindTo(final MeterRegistry registry) {
+            FunctionCounter.builder("audition.upstream.executor.rejected", rejected, LongAdder::sum)
+                    .description("Upstream tasks rejected by a saturated executor and run by the caller")
+                    .register(registry);
+        }
+    }
+}
@@ -1,28 +1,65 @@
 package com.audition.configuration;
 
+import com.audition.common.cache.CacheEvictions;
+import com.audition.common.cache.CacheOutcomes;
+import com.audition.common.cache.OffHeapStore;
+import com.audition.common.cache.RetainedSize;
+import com.audition.common.cache.TieredCache;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.SerializedResponses;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
  * Caching configuration using Caffeine cache implementation.
  *
- * This configuration sets up in-memory caching with the following specifications:
- * - Maximum 1000 entries per cache
+ * Each cache gets its own Caffeine specification from audition.caching (see
+ * CachingProperties); by default:
+ * - Maximum 1000 entries per cache, or a maximum of estimated retained bytes
+ *   when max-weight is set for the cache
  * - Expire after write: 5 minutes
  * - Expire after access: 2 minutes
  * - Statistics recording enabled for monitoring
+ * - Evictions counted per cache and cause (audition.cache.evictions)
+ *
+ * The caches are bound to Micrometer here (cache.* meters tagged with cache and
+ * cacheManager=servlet, like the other Caffeine caches in the application)
+ * rather than by Spring Boot's cache metrics, whose tag keys differ and would
+ * clash in Prometheus. Every hit is also recorded on the current request
+ * (CacheOutcomes), which tags the http.server.requests histogram.
  *
  * Predefined cache names:
- * - posts - for all posts data
- * - posts-with-comments - for posts with embedded comments
- * - comments - for standalone comments
+ * - posts - for single posts by id
+ * - comments - for comments by post id
+ *
+ * A post with its comments is composed from these two, not cached separately.
+ *
+ * A cache with off-heap set becomes a TieredCache: its Caffeine cache is the
+ * on-heap tier in front of an OffHeapStore of that size, which holds the values
+ * as JSON (written with the application ObjectMapper) and exports the
+ * audition.cache.offheap.* meters. Its on-heap tier expires entries per value,
+ * so a value read back from off-heap keeps only the rest of its
+ * expire-after-write.
+ *
+ * The all-posts snapshot is not one of these caches; the services keep it in a
+ * PostSnapshotCache, refreshed ahead of expiry per audition.caching.posts.
  *
  * @author Farhan Rayani
  */
@@ -30,27 +67,133 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 @EnableCaching
 @EnableScheduling
+@EnableConfigurationProperties(CachingProperties.class)
 public class CacheConfiguration {
 
+    public static final List<String> CACHE_NAMES = List.of("posts", "comments");
+
+    private static final Tags METER_TAGS = Tags.of("cacheManager", "servlet");
+
+    private final CachingProperties cachingProperties;
+    private final ObjectMapper objectMapper;
+    private final SerializedResponses serializedResponses;
+
+    public CacheConfiguration(final CachingProperties cachingProperties, final ObjectMapper objectMapper,
+                              final SerializedResponses serializedResponses) {
+        this.cachingProperties = cachingProperties;
+        this.objectMapper = objectMapper;
+        this.serializedResponses = serializedResponses;
+    }
+
+    @Bean
+    public CacheEvictions cacheEvictions() {
+        return new CacheEvictions(METER_TAGS);
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(final CacheManager cacheManager) {
+        return registry -> CACHE_NAMES.forEach(name -> {
+            final Cache cache = cacheManager.getCache(name);
+            CaffeineCacheMetrics.monitor(registry, ((CaffeineCache) cache).getNativeCache(), name, METER_TAGS);
+            if (cache instanceof TieredCache tiered) {
+                tiered.bindTo(registry, METER_TAGS);
+            }
+        });
+    }
+
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-
-        // Configure Caffeine cache with TTL and maximum size
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000) // Maximum 1000 entries per cache
-                .expireAfterWrite(5, TimeUnit.MINUTES) // Expire after 5 minutes
-                .expireAfterAccess(2, TimeUnit.MINUTES) // Expire after 2 minutes of no access
-                .recordStats() // Enable cache statistics for monitoring
-        );
-
-        // Define cache names
-        cacheManager.setCacheNames(java.util.List.of(
-                "posts",
-                "posts-with-comments",
-                "comments"
-        ));
+        final CacheEvictions evictions = cacheEvictions();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            // Configure each cache with its own size, weight and TTL settings
+            @Override
+            protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(
+                    final String name) {
+                final CachingProperties.CacheSpec spec = cachingProperties.cache(name);
+                return (hasOffHeap(spec) ? onHeapTier(spec) : caffeine(spec))
+                        .evictionListener(evictions.listener(name))
+                        .build();
+            }
+
+            @Override
+            protected Cache adaptCaffeineCache(final String name,
+                                               final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                final CachingProperties.CacheSpec spec = cachingProperties.cache(name);
+                if (hasOffHeap(spec)) {
+                    // Values read back from off-heap get an ETag and stored JSON like fresh ones
+                    final OffHeapStore offHeap = new OffHeapStore(spec.getOffHeap().toBytes());
+                    return new TieredCache(name, cache, isAllowNullValues(), offHeap, objectMapper,
+                            valueType(objectMapper.getTypeFactory(), name), spec.getExpireAfterWrite(),
+                            serializedResponses::register);
+                }
+                return new OutcomeRecordingCache(name, cache, isAllowNullValues());
+            }
+        };
+
+        // Define cache names; no other caches are created on demand
+        cacheManager.setCacheNames(CACHE_NAMES);
 
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    private static JavaType valueType(final TypeFactory types, final String cacheName) {
+        return "comments".equals(cacheName) ? types.constructCollectionType(List.class, AuditionComment.class)
+                : types.constructType(AuditionPost.class);
+    }
+
+    /**
+     * Caffeine settings shared by the Spring caches and the reactive AsyncCaches.
+     *
+     * @param spec the cache's effective settings
+     * @return a new builder with the size or weight, TTL and statistics settings
+     */
+    public static Caffeine<Object, Object> caffeine(final CachingProperties.CacheSpec spec) {
+        return bounded(spec)
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                .expireAfterAccess(spec.getExpireAfterAccess())
+                .recordStats(); // Enable cache statistics for monitoring
+    }
+
+    /**
+     * Settings of the on-heap tier of a TieredCache: the same bound, with the
+     * expire-after-write deadline kept per value by the TieredCache.
+     */
+    private static Caffeine<Object, Object> onHeapTier(final CachingProperties.CacheSpec spec) {
+        return bounded(spec)
+                .expireAfter(TieredCache.onHeapExpiry(spec.getExpireAfterAccess()))
+                .recordStats();
+    }
+
+    private static Caffeine<Object, Object> bounded(final CachingProperties.CacheSpec spec) {
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaxWeight() != null) {
+            return builder.maximumWeight(spec.getMaxWeight().toBytes()).weigher(RetainedSize::weigh);
+        }
+        return builder.maximumSize(spec.getMaxSize());
+    }
+
+    private static boolean hasOffHeap(final CachingProperties.CacheSpec spec) {
+        return spec.getOffHeap() != null && spec.getOffHeap().toBytes() > 0;
+    }
+
+    /**
+     * Records each lookup answered from cache as a hit of the current request; the
+     * miss is recorded by the caller when it goes to the upstream.
+     */
+    private static final class OutcomeRecordingCache extends CaffeineCache {
+
+        OutcomeRecordingCache(final String name, final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                              final boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object lookup(final Object key) {
+            final Object value = super.lookup(key);
+            if (value != null) {
+                CacheOutcomes.hit();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.audition.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache settings bound from audition.caching.
+ *
+ * ttl-minutes, max-size and expire-after-access are the defaults for the posts
+ * and comments caches (blocking and reactive alike). The caches block overrides
+ * them per cache name:
+ * - max-size - maximum number of entries
+ * - max-weight - maximum estimated retained bytes (e.g. 16MB); when set it
+ *   replaces max-size and entries are weighed by RetainedSize
+ * - expire-after-write, expire-after-access - TTLs
+ * - off-heap - size of an off-heap second tier behind the cache (e.g. 512MB);
+ *   values are kept there as JSON and the on-heap tier can be made small
+ *
+ * The posts block controls the all-posts snapshot, which is served
+ * stale-while-revalidate instead of being evicted on a fixed schedule:
+ * - soft-ttl - age after which the next read triggers one background reload
+ *   while callers keep getting the current snapshot
+ * - hard-ttl - age after which the snapshot is dropped and the next read
+ *   waits for the upstream; also bounds how long a snapshot is served while
+ *   reloads keep failing
+ *
+ * The comments block picks how per-post comments are loaded:
+ * - strategy - per-post (one upstream call per post on a cache miss) or bulk
+ *   (the full comments collection downloaded in one call and indexed by post)
+ * - refresh-interval - how often the bulk download is repeated
+ * - bulk-max-size - a bulk download with more comments than this is not kept,
+ *   and lookups fall back to per-post calls; bounds the heap a large dataset takes
+ *
+ * The warmup block preloads the caches once the application has started,
+ * while the readiness probe reports OUT_OF_SERVICE:
+ * - enabled - run the warm-up at all
+ * - comments - also load the comments of every post (one bulk download with
+ *   the bulk strategy)
+ * - parallelism - threads loading per-post comments concurrently
+ * - timeout - after it the warm-up is abandoned and the application reports
+ *   ready with whatever was loaded
+ *
+ * The persistence block keeps the posts and bulk comments snapshots in a local
+ * file, so a restart serves data before the upstream answers:
+ * - enabled - write the file and restore from it at startup
+ * - file - location of the file
+ * - write-interval - how often the current snapshots are written
+ *
+ * The last-known-good block sizes the store the upstream fallbacks answer from
+ * while the jsonplaceholder circuit breaker is open; its retention is
+ * deliberately much longer than any cache TTL.
+ *
+ * The not-found block bounds the negative cache of upstream 404s; its TTL is
+ * short so a resource created upstream becomes visible quickly.
+ *
+ * The responses block keeps what is derived from the serialized JSON of cached
+ * values:
+ * - etag - strong ETags for conditional GETs (If-None-Match answered with 304)
+ * - enabled - store and serve the UTF-8 bytes, so unfiltered cache hits skip Jackson
+ * - gzip - also keep a gzipped copy for clients that accept it
+ * - gzip-min-size - smaller bodies are only kept uncompressed
+ *
+ * @author Farhan Rayani
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audition.caching")
+public class CachingProperties {
+
+    private long ttlMinutes = 5;
+
+    private long maxSize = 1000;
+
+    private Duration expireAfterAccess = Duration.ofMinutes(2);
+
+    private final Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    private final Posts posts = new Posts();
+
+    private final Comments comments = new Comments();
+
+    private final Warmup warmup = new Warmup();
+
+    private final Persistence persistence = new Persistence();
+
+    private final LastKnownGood lastKnownGood = new LastKnownGood();
+
+    private final NotFound notFound = new NotFound();
+
+    private final Responses responses = new Responses();
+
+    /**
+     * Returns the settings for a cache, with unset values taken from the defaults.
+     *
+     * @param name cache name
+     * @return the effective settings
+     */
+    public CacheSpec cache(final String name) {
+        final CacheSpec configured = caches.getOrDefault(name, new CacheSpec());
+        final CacheSpec effective = new CacheSpec();
+        effective.setMaxWeight(configured.getMaxWeight());
+        effective.setOffHeap(configured.getOffHeap());
+        effective.setMaxSize(configured.getMaxSize() != null ? configured.getMaxSize() : maxSize);
+        effective.setExpireAfterWrite(configured.getExpireAfterWrite() != null
+                ? configured.getExpireAfterWrite() : Duration.ofMinutes(ttlMinutes));
+        effective.setExpireAfterAccess(configured.getExpireAfterAccess() != null
+                ? configured.getExpireAfterAccess() : expireAfterAccess);
+        return effective;
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+
+        private Long maxSize;
+        private DataSize maxWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private DataSize offHeap;
+    }
+
+    @Getter
+    @Setter
+    public static class Posts {
+
+        private Duration softTtl = Duration.ofMinutes(1);
+        private Duration hardTtl = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Comments {
+
+        private CommentsStrategy strategy = CommentsStrategy.PER_POST;
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        private int bulkMaxSize = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+
+        private boolean enabled;
+        private boolean comments;
+        private int parallelism = 4;
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Persistence {
+
+        private boolean enabled;
+        private Path file = Path.of("data", "audition-snapshot.bin");
+        private Duration writeInterval = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class LastKnownGood {
+
+        private Duration retention = Duration.ofHours(24);
+        private long maxSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class NotFound {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private long maxSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Responses {
+
+        private boolean enabled;
+        private boolean etag = true;
+        private boolean gzip;
+        private DataSize gzipMinSize = DataSize.ofKilobytes(2);
+    }
+
+    public enum CommentsStrategy {
+        PER_POST,
+        BULK
+    }
+}
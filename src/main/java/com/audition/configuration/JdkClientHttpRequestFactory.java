@@ -0,0 +1,164 @@
+package com.audition.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * ClientHttpRequestFactory backed by the JDK java.net.http.HttpClient.
+ *
+ * The JDK client keeps connections alive, negotiates HTTP/2 via ALPN (or h2c
+ * upgrade) when the upstream supports it and falls back to HTTP/1.1 otherwise,
+ * multiplexing concurrent requests over a single HTTP/2 connection.
+ *
+ * @author Farhan Rayani
+ */
+public class JdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    /**
+     * Headers the JDK client manages itself and refuses to accept from callers.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    public JdkClientHttpRequestFactory(final HttpClient httpClient, final Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod) {
+        return new JdkClientHttpRequest(uri, httpMethod);
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private class JdkClientHttpRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        JdkClientHttpRequest(final URI uri, final HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(final HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(final HttpHeaders headers) throws IOException {
+            final HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(readTimeout);
+            headers.forEach((name, values) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> builder.header(name, value));
+                }
+            });
+
+            final HttpRequest.BodyPublisher publisher = body.size() > 0
+                    ? HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())
+                    : HttpRequest.BodyPublishers.noBody();
+            builder.method(method.name(), publisher);
+
+            try {
+                return new JdkClientHttpResponse(httpClient.send(builder.build(),
+                        HttpResponse.BodyHandlers.ofInputStream()));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                final InterruptedIOException ioe = new InterruptedIOException("Upstream request interrupted");
+                ioe.initCause(e);
+                throw ioe;
+            }
+        }
+    }
+
+    private static class JdkClientHttpResponse implements ClientHttpResponse {
+
+        private final HttpResponse<InputStream> response;
+        private HttpHeaders headers;
+
+        JdkClientHttpResponse(final HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(response.statusCode());
+        }
+
+        @Override
+        @Deprecated
+        public int getRawStatusCode() {
+            return response.statusCode(); // Still abstract in Spring 6.0
+        }
+
+        @Override
+        public String getStatusText() {
+            final HttpStatus status = HttpStatus.resolve(response.statusCode());
+            return status != null ? status.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            if (headers == null) {
+                final HttpHeaders result = new HttpHeaders();
+                for (final Map.Entry<String, List<String>> entry : response.headers().map().entrySet()) {
+                    result.addAll(entry.getKey(), entry.getValue());
+                }
+                headers = HttpHeaders.readOnlyHttpHeaders(result);
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.body();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.body().close();
+            } catch (final IOException e) {
+                // Nothing to recover; the connection is released either way
+            }
+        }
+    }
+}
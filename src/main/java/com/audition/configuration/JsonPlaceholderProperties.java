@@ -0,0 +1,67 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection settings for the JSONPlaceholder upstream.
+ *
+ * Bound from audition.external-apis.jsonplaceholder. The timeout applies to
+ * connecting and to waiting for response data; the client block selects and
+ * sizes the HTTP client engine behind the RestTemplate:
+ * - apache - pooled Apache HttpClient 5 with keep-alive, idle eviction and pool metrics
+ * - jdk - java.net.http.HttpClient, negotiating HTTP/2 where the upstream supports it
+ *
+ * client.body-logging logs upstream requests and responses, bodies included,
+ * at debug level. Only then are responses buffered so the body can be read
+ * twice; it has no effect unless debug logging is on for WebServiceConfiguration.
+ *
+ * The executor block sizes the bounded pool that runs upstream calls off the
+ * request thread, e.g. the parallel post/comments fetch and getPostsAsync.
+ * With virtual-threads enabled on a Java 21+ runtime its workers are virtual
+ * threads; the pool bounds still cap how many upstream calls run at once.
+ *
+ * @author Farhan Rayani
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audition.external-apis.jsonplaceholder")
+public class JsonPlaceholderProperties {
+
+    private Duration timeout = Duration.ofSeconds(30);
+
+    private final Client client = new Client();
+
+    private final Executor executor = new Executor();
+
+    @Getter
+    @Setter
+    public static class Client {
+
+        private Engine engine = Engine.APACHE;
+        private int maxConnections = 100;
+        private int maxConnectionsPerRoute = 50;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+        private boolean http2Enabled = true;
+        private boolean bodyLogging;
+    }
+
+    @Getter
+    @Setter
+    public static class Executor {
+
+        private int coreSize = 8;
+        private int maxSize = 32;
+        private int queueCapacity = 200;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private boolean virtualThreads;
+    }
+
+    public enum Engine {
+        APACHE,
+        JDK
+    }
+}
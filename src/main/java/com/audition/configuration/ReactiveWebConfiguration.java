@@ -0,0 +1,49 @@
+package com.audition.configuration;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * WebClient configuration for the reactive (WebFlux) stack.
+ *
+ * Active when the application starts with spring.main.web-application-type=reactive.
+ * The WebClient shares the Netty event loop with the server and is sized from
+ * the same audition.external-apis.jsonplaceholder settings as the blocking client:
+ * - connection pool size, idle eviction and pending-acquire timeout from the client block
+ * - connect and response timeouts from the timeout setting
+ *
+ * The client is built from Spring Boot's WebClient.Builder, so it uses the
+ * application ObjectMapper and carries the HTTP client observations.
+ *
+ * @author Farhan Rayani
+ */
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfiguration {
+
+    @Bean
+    public WebClient webClient(final WebClient.Builder builder,
+                               final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        final JsonPlaceholderProperties.Client client = jsonPlaceholderProperties.getClient();
+        final ConnectionProvider connectionProvider = ConnectionProvider.builder("upstream")
+                .maxConnections(client.getMaxConnections())
+                .maxIdleTime(client.getIdleTimeout())
+                .pendingAcquireTimeout(client.getConnectionRequestTimeout())
+                .evictInBackground(client.getIdleTimeout())
+                .metrics(true)
+                .build();
+
+        final HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) jsonPlaceholderProperties.getTimeout().toMillis())
+                .responseTimeout(jsonPlaceholderProperties.getTimeout());
+
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
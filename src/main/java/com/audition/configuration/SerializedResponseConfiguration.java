@@ -0,0 +1,41 @@
+package com.audition.configuration;
+
+import com.audition.service.SerializedResponses;
+import com.audition.web.converter.SerializedJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves cached values from their stored JSON bytes.
+ *
+ * Active with audition.caching.responses.enabled=true; replaces the MVC Jackson
+ * converter with a {@link SerializedJsonHttpMessageConverter} on the same
+ * ObjectMapper, so responses that are not served from bytes are unchanged.
+ *
+ * @author Farhan Rayani
+ * @see SerializedResponses
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "audition.caching.responses", name = "enabled", havingValue = "true")
+public class SerializedResponseConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SerializedResponses serializedResponses;
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter
+                ? new SerializedJsonHttpMessageConverter(objectMapper, serializedResponses) : converter);
+    }
+}
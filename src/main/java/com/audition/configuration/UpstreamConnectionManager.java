@@ -0,0 +1,161 @@
+package com.audition.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Keep-alive connection pool for upstream calls with Micrometer instrumentation.
+ *
+ * Extends the Apache HttpClient 5 pooling manager to measure how long callers
+ * wait for a connection lease, and exports pool state:
+ * - audition.upstream.pool.connections{state=leased|available|pending}
+ * - audition.upstream.pool.max - configured total pool size
+ * - audition.upstream.pool.utilization - leased connections as a fraction of the pool size
+ * - audition.upstream.pool.lease.wait - time spent waiting for a connection
+ * - audition.upstream.pool.leases{outcome=granted|failed}
+ *
+ * HttpClient 5.1 waits for a free connection inside a synchronized method,
+ * which pins the carrier when the caller is a virtual thread. Callers
+ * therefore queue on a fair semaphore sized to the per-route limit first, so
+ * the pool itself always has a connection to hand out. The client talks to a
+ * single upstream route, so the semaphore matches the effective pool size.
+ *
+ * @author Farhan Rayani
+ */
+public class UpstreamConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+
+    private final LongAdder grantedLeases = new LongAdder();
+    private final LongAdder failedLeases = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final Semaphore leasePermits;
+    private final Set<ConnectionEndpoint> permittedEndpoints = ConcurrentHashMap.newKeySet();
+
+    public UpstreamConnectionManager(final int maxConnections, final int maxConnectionsPerRoute,
+                                     final Duration socketTimeout) {
+        super();
+        setMaxTotal(maxConnections);
+        setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.ofMilliseconds(socketTimeout.toMillis()))
+                .setSoKeepAlive(true)
+                .build());
+        setValidateAfterInactivity(TimeValue.ofSeconds(2));
+        leasePermits = new Semaphore(Math.min(maxConnections, maxConnectionsPerRoute), true);
+    }
+
+    @Override
+    public LeaseRequest lease(final String id, final HttpRoute route, final Timeout requestTimeout,
+                              final Object state) {
+        final LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+
+            @Override
+            public ConnectionEndpoint get(final Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                final long start = System.nanoTime();
+                boolean granted = false;
+                try {
+                    acquirePermit(timeout);
+                    try {
+                        final ConnectionEndpoint endpoint = delegate.get(timeout);
+                        permittedEndpoints.add(endpoint);
+                        granted = true;
+                        return endpoint;
+                    } finally {
+                        if (!granted) {
+                            leasePermits.release();
+                        }
+                    }
+                } finally {
+                    leaseWaitNanos.add(System.nanoTime() - start);
+                    (granted ? grantedLeases : failedLeases).increment();
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(final ConnectionEndpoint endpoint, final Object state, final TimeValue keepAlive) {
+        try {
+            super.release(endpoint, state, keepAlive);
+        } finally {
+            if (permittedEndpoints.remove(endpoint)) {
+                leasePermits.release();
+            }
+        }
+    }
+
+    private void acquirePermit(final Timeout timeout) throws InterruptedException, TimeoutException {
+        if (!TimeValue.isPositive(timeout)) {
+            leasePermits.acquire();
+        } else if (!leasePermits.tryAcquire(timeout.toNanoseconds(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("Timeout waiting for upstream connection: " + timeout);
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("audition.upstream.pool.connections", this, m -> m.getTotalStats().getLeased())
+                .description("Upstream connections currently leased")
+                .tag("state", "leased")
+                .register(registry);
+        Gauge.builder("audition.upstream.pool.connections", this, m -> m.getTotalStats().getAvailable())
+                .description("Idle upstream connections kept alive in the pool")
+                .tag("state", "available")
+                .register(registry);
+        Gauge.builder("audition.upstream.pool.connections", this,
+                        m -> m.getTotalStats().getPending() + m.leasePermits.getQueueLength())
+                .description("Callers waiting for an upstream connection")
+                .tag("state", "pending")
+                .register(registry);
+        Gauge.builder("audition.upstream.pool.max", this, PoolingHttpClientConnectionManager::getMaxTotal)
+                .description("Maximum number of upstream connections")
+                .register(registry);
+        Gauge.builder("audition.upstream.pool.utilization", this, UpstreamConnectionManager::utilization)
+                .description("Fraction of the upstream pool currently leased")
+                .register(registry);
+
+        FunctionTimer.builder("audition.upstream.pool.lease.wait", this,
+                        m -> m.grantedLeases.sum() + m.failedLeases.sum(),
+                        m -> m.leaseWaitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for an upstream connection lease")
+                .register(registry);
+        FunctionCounter.builder("audition.upstream.pool.leases", grantedLeases, LongAdder::sum)
+                .description("Connection leases granted")
+                .tag("outcome", "granted")
+                .register(registry);
+        FunctionCounter.builder("audition.upstream.pool.leases", failedLeases, LongAdder::sum)
+                .description("Connection leases that timed out or were interrupted")
+                .tag("outcome", "failed")
+                .register(registry);
+    }
+
+    private double utilization() {
+        final PoolStats stats = getTotalStats();
+        return stats.getMax() == 0 ? 0.0 : (double) stats.getLeased() / stats.getMax();
+    }
+}
@@ -0,0 +1,53 @@
+package com.audition.configuration;
+
+import com.audition.common.concurrent.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskExecutorCustomizer;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Virtual-thread execution mode for the servlet stack.
+ *
+ * Enabled with audition.threading.virtual-threads=true (VIRTUAL_THREADS_ENABLED)
+ * on a Java 21+ runtime. In this mode:
+ * - Tomcat runs every request on its own virtual thread, so concurrency is no
+ *   longer capped by server.tomcat.threads.max but by server.tomcat.max-connections
+ * - @Scheduled and @Async tasks run on virtual threads
+ * - the upstream executor uses virtual workers (see AsyncConfiguration)
+ *
+ * On older runtimes the mode logs a warning and keeps platform threads.
+ *
+ * @author Farhan Rayani
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "audition.threading", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> VirtualThreads.threadPerTaskExecutor("http-vt-").ifPresentOrElse(
+                protocolHandler::setExecutor,
+                () -> LOG.warn("Virtual threads need Java 21+, Tomcat keeps its platform thread pool"));
+    }
+
+    @Bean
+    public TaskSchedulerCustomizer virtualThreadTaskSchedulerCustomizer() {
+        return scheduler -> VirtualThreads.threadFactory("scheduling-vt-")
+                .ifPresent(scheduler::setThreadFactory);
+    }
+
+    @Bean
+    public TaskExecutorCustomizer virtualThreadTaskExecutorCustomizer() {
+        return executor -> VirtualThreads.threadFactory("task-vt-")
+                .ifPresent(executor::setThreadFactory);
+    }
+}
@@ -1,28 +1,43 @@
 package com.audition.configuration;
 
+import com.audition.common.concurrent.CancellableCall;
 import com.audition.common.logging.AuditionLogger;
+import com.audition.integration.ConditionalRequests;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -31,7 +46,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  *
  * This configuration class provides:
  * - Customized ObjectMapper with specific serialization rules
- * - Enhanced RestTemplate with logging interceptors
+ * - Enhanced RestTemplate with a conditional-request interceptor, plus buffering and a
+ *   body logging interceptor only when body logging is enabled at debug level
+ * - Pluggable HTTP client engine (pooled Apache HttpClient 5 or JDK HttpClient)
  * - Consistent JSON processing across the application
  *
  * The ObjectMapper is configured to:
@@ -44,6 +61,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 
 @Configuration
+@EnableConfigurationProperties(JsonPlaceholderProperties.class)
 public class WebServiceConfiguration implements WebMvcConfigurer {
 
     private static final String YEAR_MONTH_DAY_PATTERN = "yyyy-MM-dd";
@@ -77,25 +95,85 @@ public class WebServiceConfiguration implements WebMvcConfigurer {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        final RestTemplate restTemplate = new RestTemplate(
-                new BufferingClientHttpRequestFactory(createClientFactory()));
+    public RestTemplate restTemplate(final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        // Responses are streamed straight from the connection; only body logging, which reads
+        // each response twice, needs them buffered
+        final boolean bodyLogging = jsonPlaceholderProperties.getClient().isBodyLogging() && LOG.isDebugEnabled();
+        final RestTemplate restTemplate = new RestTemplate(bodyLogging
+                ? new BufferingClientHttpRequestFactory(createClientFactory(jsonPlaceholderProperties))
+                : createClientFactory(jsonPlaceholderProperties));
 
         // Use object mapper
         List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
         messageConverters.removeIf(converter -> converter instanceof MappingJackson2HttpMessageConverter);
         messageConverters.add(new MappingJackson2HttpMessageConverter(objectMapper()));
 
-        // Create a logging interceptor that logs request/response for rest template calls
-        restTemplate.setInterceptors(List.of(new RestTemplateLoggingInterceptor()));
+        // Make calls conditional when the client revalidates a retained response, then log
+        // request/response for rest template calls (including the validators sent)
+        restTemplate.setInterceptors(bodyLogging
+                ? List.of(ConditionalRequests.interceptor(), new RestTemplateLoggingInterceptor())
+                : List.of(ConditionalRequests.interceptor()));
 
         return restTemplate;
     }
 
-    private SimpleClientHttpRequestFactory createClientFactory() {
-        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setOutputStreaming(false);
-        return requestFactory;
+    @Bean
+    @ConditionalOnProperty(prefix = "audition.external-apis.jsonplaceholder.client", name = "engine",
+            havingValue = "apache", matchIfMissing = true)
+    public UpstreamConnectionManager upstreamConnectionManager(
+            final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        final JsonPlaceholderProperties.Client client = jsonPlaceholderProperties.getClient();
+        return new UpstreamConnectionManager(client.getMaxConnections(), client.getMaxConnectionsPerRoute(),
+                jsonPlaceholderProperties.getTimeout());
+    }
+
+    private ClientHttpRequestFactory createClientFactory(final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        if (jsonPlaceholderProperties.getClient().getEngine() == JsonPlaceholderProperties.Engine.JDK) {
+            return createJdkClientFactory(jsonPlaceholderProperties);
+        }
+        return createApacheClientFactory(jsonPlaceholderProperties);
+    }
+
+    private HttpComponentsClientHttpRequestFactory createApacheClientFactory(
+            final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        final JsonPlaceholderProperties.Client client = jsonPlaceholderProperties.getClient();
+        final Timeout timeout = Timeout.ofMilliseconds(jsonPlaceholderProperties.getTimeout().toMillis());
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setResponseTimeout(timeout)
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(client.getConnectionRequestTimeout().toMillis()))
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager(jsonPlaceholderProperties))
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(client.getIdleTimeout().toMillis()))
+                .disableAutomaticRetries() // Retries are owned by Resilience4j
+                .build()) {
+
+            // Abort the exchange when an enclosing CancellableCall is cancelled, e.g. by @TimeLimiter
+            @Override
+            protected ClassicHttpRequest createHttpUriRequest(final HttpMethod httpMethod, final URI uri) {
+                final ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+                if (request instanceof Cancellable cancellable) {
+                    CancellableCall.onCancel(cancellable::cancel);
+                }
+                return request;
+            }
+        };
+    }
+
+    private JdkClientHttpRequestFactory createJdkClientFactory(
+            final JsonPlaceholderProperties jsonPlaceholderProperties) {
+        final JsonPlaceholderProperties.Client client = jsonPlaceholderProperties.getClient();
+        final HttpClient httpClient = HttpClient.newBuilder()
+                .version(client.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(jsonPlaceholderProperties.getTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        return new JdkClientHttpRequestFactory(httpClient, jsonPlaceholderProperties.getTimeout());
     }
 
     private class RestTemplateLoggingInterceptor implements ClientHttpRequestInterceptor {
@@ -115,9 +193,11 @@ public class WebServiceConfiguration implements WebMvcConfigurer {
             // Execute request
             ClientHttpResponse response = execution.execute(request, body);
 
-            // Log response
+            // Log response; the buffered body is read again by the message converters
             auditionLogger.info(LOG, "RestTemplate Response: {} for {} {}",
                     response.getStatusCode(), request.getMethod(), request.getURI());
+            auditionLogger.debug(LOG, "RestTemplate Response Body: {}",
+                    StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
 
             return response;
         }
@@ -1,15 +1,21 @@
 package com.audition.integration;
 
+import com.audition.common.cache.StaleResponses;
+import com.audition.common.concurrent.CancellableCall;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.AsyncConfiguration;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.CommentSnapshot;
+import com.audition.service.snapshot.PostSnapshot;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -19,7 +25,10 @@ import org.springframework.web.client.RestTemplate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Integration client for external JSONPlaceholder API.
@@ -30,6 +39,12 @@ import java.util.concurrent.CompletableFuture;
  * - Retry logic with exponential backoff
  * - Timeout management
  * - Fallback methods for graceful degradation
+ * - Single-flight coalescing of identical concurrent upstream requests
+ * - Async calls on a bounded executor that abort their HTTP request when timed out
+ * - Fallbacks that serve the last known good response, marked stale, while the upstream is down
+ * - Conditional GETs that revalidate a retained response instead of downloading it again
+ * - All posts streamed from the response into an indexed PostSnapshot, element by element
+ * - All comments in one call, streamed into a CommentSnapshot grouped by post
  *
  * All methods include comprehensive error handling and structured logging
  * for observability.
@@ -48,6 +63,7 @@ public class AuditionIntegrationClient {
     private static final String POST_BY_ID_ENDPOINT = "/posts/{id}";
     private static final String COMMENTS_BY_POST_ENDPOINT = "/posts/{postId}/comments";
     private static final String COMMENTS_BY_POST_ID_ENDPOINT = "/comments?postId={postId}";
+    private static final String COMMENTS_ENDPOINT = "/comments";
 
     @Autowired
     private RestTemplate restTemplate;
@@ -55,11 +71,22 @@ public class AuditionIntegrationClient {
     @Autowired
     private AuditionLogger auditionLogger;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    @Qualifier(AsyncConfiguration.UPSTREAM_EXECUTOR)
+    private Executor upstreamExecutor;
+
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+
     @CircuitBreaker(name = "jsonplaceholder", fallbackMethod = "getPostsFallback")
     @Retry(name = "jsonplaceholder")
     @TimeLimiter(name = "jsonplaceholder")
     public CompletableFuture<List<AuditionPost>> getPostsAsync() {
-        return CompletableFuture.supplyAsync(this::getPosts);
+        // Cancellation by the time limiter aborts the in-flight HTTP exchange, not just the future
+        return CancellableCall.supplyAsync(this::getPosts, upstreamExecutor);
     }
 
     @CircuitBreaker(name = "jsonplaceholder", fallbackMethod = "getPostsFallback")
@@ -69,8 +96,9 @@ public class AuditionIntegrationClient {
             final String url = baseUrl + POSTS_ENDPOINT;
             auditionLogger.info(LOG, "Fetching all posts from {}", url);
 
-            AuditionPost[] posts = restTemplate.getForObject(url, AuditionPost[].class);
-            List<AuditionPost> result = Arrays.asList(posts != null ? posts : new AuditionPost[0]);
+            final String key = RequestCoalescer.key(url);
+            List<AuditionPost> result = requestCoalescer.execute(key,
+                    () -> fetch(key, () -> PostSnapshot.of(restTemplate.getForObject(url, PostSnapshot.class))));
 
             auditionLogger.info(LOG, "Successfully fetched {} posts", result.size());
             return result;
@@ -87,7 +115,9 @@ public class AuditionIntegrationClient {
             final String url = baseUrl + POST_BY_ID_ENDPOINT;
             auditionLogger.info(LOG, "Fetching post with id: {} from {}", id, url);
 
-            AuditionPost result = restTemplate.getForObject(url, AuditionPost.class, id);
+            final String key = RequestCoalescer.key(url, id);
+            AuditionPost result = requestCoalescer.execute(key,
+                    () -> fetch(key, () -> restTemplate.getForObject(url, AuditionPost.class, id)));
             auditionLogger.info(LOG, "Successfully fetched post with id: {}", id);
             return result;
         } catch (final HttpClientErrorException e) {
@@ -106,31 +136,6 @@ public class AuditionIntegrationClient {
         }
     }
 
-    @CircuitBreaker(name = "jsonplaceholder", fallbackMethod = "getPostByIdWithCommentsFallback")
-    @Retry(name = "jsonplaceholder")
-    public AuditionPost getPostByIdWithComments(final String id) {
-        try {
-            auditionLogger.info(LOG, "Fetching post with id: {} including comments", id);
-
-            // First get the post
-            AuditionPost post = getPostById(id);
-
-            // Then get the comments for this post
-            List<AuditionComment> comments = getCommentsForPost(id);
-            post.setComments(comments);
-
-            auditionLogger.info(LOG, "Successfully fetched post with {} comments", comments.size());
-            return post;
-        } catch (final SystemException e) {
-            // Re-throw SystemException as-is
-            throw e;
-        } catch (final Exception e) {
-            auditionLogger.logErrorWithException(LOG, "Error fetching post with comments for id: " + id, e);
-            throw new SystemException("Failed to fetch post with comments",
-                    "External Service Error", 500, e);
-        }
-    }
-
     @CircuitBreaker(name = "jsonplaceholder", fallbackMethod = "getCommentsForPostFallback")
     @Retry(name = "jsonplaceholder")
     public List<AuditionComment> getCommentsForPost(final String postId) {
@@ -138,8 +143,9 @@ public class AuditionIntegrationClient {
             final String url = baseUrl + COMMENTS_BY_POST_ENDPOINT;
             auditionLogger.info(LOG, "Fetching comments for post id: {} from {}", postId, url);
 
-            AuditionComment[] comments = restTemplate.getForObject(url, AuditionComment[].class, postId);
-            List<AuditionComment> result = Arrays.asList(comments != null ? comments : new AuditionComment[0]);
+            final String key = RequestCoalescer.key(url, postId);
+            List<AuditionComment> result = requestCoalescer.execute(key,
+                    () -> fetch(key, () -> asList(restTemplate.getForObject(url, AuditionComment[].class, postId))));
 
             auditionLogger.info(LOG, "Successfully fetched {} comments for post id: {}", result.size(), postId);
             return result;
@@ -168,8 +174,9 @@ public class AuditionIntegrationClient {
             final String url = baseUrl + COMMENTS_BY_POST_ID_ENDPOINT;
             auditionLogger.info(LOG, "Fetching comments by post id: {} from {}", postId, url);
 
-            AuditionComment[] comments = restTemplate.getForObject(url, AuditionComment[].class, postId);
-            List<AuditionComment> result = Arrays.asList(comments != null ? comments : new AuditionComment[0]);
+            final String key = RequestCoalescer.key(url, postId);
+            List<AuditionComment> result = requestCoalescer.execute(key,
+                    () -> fetch(key, () -> asList(restTemplate.getForObject(url, AuditionComment[].class, postId))));
 
             auditionLogger.info(LOG, "Successfully fetched {} comments by post id: {}", result.size(), postId);
             return result;
@@ -191,31 +198,112 @@ public class AuditionIntegrationClient {
         }
     }
 
-    // Fallback methods for circuit breaker
+    /**
+     * Downloads the full comments collection in one call, grouped by post as it is
+     * streamed from the response.
+     *
+     * @return all comments, indexed by postId
+     */
+    @CircuitBreaker(name = "jsonplaceholder", fallbackMethod = "getAllCommentsFallback")
+    @Retry(name = "jsonplaceholder")
+    public CommentSnapshot getAllComments() {
+        try {
+            final String url = baseUrl + COMMENTS_ENDPOINT;
+            auditionLogger.info(LOG, "Fetching all comments from {}", url);
+
+            final String key = RequestCoalescer.key(url);
+            CommentSnapshot result = requestCoalescer.execute(key,
+                    () -> fetch(key, () -> Optional.ofNullable(restTemplate.getForObject(url, CommentSnapshot.class))
+                            .orElseGet(CommentSnapshot::empty)));
+
+            auditionLogger.info(LOG, "Successfully fetched {} comments", result.size());
+            return result;
+        } catch (final Exception e) {
+            auditionLogger.logErrorWithException(LOG, "Error fetching all comments", e);
+            throw new SystemException("Failed to fetch comments", "External Service Error", 500, e);
+        }
+    }
+
+    /**
+     * Downloads an upstream resource, conditionally if a copy with validators is
+     * retained. A 304 Not Modified returns the retained instance itself, so
+     * nothing is deserialized and the caches keep the same value (with its stored
+     * JSON and ETag); any other response is retained with its own validators.
+     */
+    private <T> T fetch(final String key, final Supplier<T> download) {
+        final Optional<LastKnownGoodStore.Validated<T>> retained = lastKnownGoodStore.validated(key);
+        final ConditionalRequests.Response<T> response = ConditionalRequests.execute(
+                retained.map(LastKnownGoodStore.Validated::validators).orElse(null), download);
+        if (response.notModified() && retained.isPresent()) {
+            lastKnownGoodStore.revalidated(key);
+            auditionLogger.debug(LOG, "Upstream confirmed {} not modified", key);
+            return retained.get().value();
+        }
+        lastKnownGoodStore.put(key, response.value(), response.validators());
+        return response.value();
+    }
+
+    private static <T> List<T> asList(final T[] array) {
+        return array != null ? Arrays.asList(array) : Collections.emptyList();
+    }
+
+    // Fallback methods for circuit breaker. They answer from the last-known-good store when it
+    // has data; a 404 is the upstream's answer, not an outage, so it is passed through as-is.
     public List<AuditionPost> getPostsFallback(Exception ex) {
         auditionLogger.warn(LOG, "Fallback triggered for getPosts: {}", ex.getMessage());
-        return Collections.emptyList();
+        return this.<List<AuditionPost>>lastKnownGood(RequestCoalescer.key(baseUrl + POSTS_ENDPOINT))
+                .orElse(Collections.emptyList());
     }
 
     public AuditionPost getPostByIdFallback(String id, Exception ex) {
         auditionLogger.warn(LOG, "Fallback triggered for getPostById with id {}: {}", id, ex.getMessage());
-        throw new SystemException("Service temporarily unavailable for post " + id,
-                "Service Unavailable", 503, ex);
-    }
-
-    public AuditionPost getPostByIdWithCommentsFallback(String id, Exception ex) {
-        auditionLogger.warn(LOG, "Fallback triggered for getPostByIdWithComments with id {}: {}", id, ex.getMessage());
-        throw new SystemException("Service temporarily unavailable for post with comments " + id,
-                "Service Unavailable", 503, ex);
+        rethrowNotFound(ex);
+        return this.<AuditionPost>lastKnownGood(RequestCoalescer.key(baseUrl + POST_BY_ID_ENDPOINT, id))
+                .orElseThrow(() -> new SystemException("Service temporarily unavailable for post " + id,
+                        "Service Unavailable", 503, ex));
     }
 
     public List<AuditionComment> getCommentsForPostFallback(String postId, Exception ex) {
         auditionLogger.warn(LOG, "Fallback triggered for getCommentsForPost with postId {}: {}", postId, ex.getMessage());
-        return Collections.emptyList();
+        if (isNotFound(ex)) {
+            return Collections.emptyList();
+        }
+        return this.<List<AuditionComment>>lastKnownGood(
+                RequestCoalescer.key(baseUrl + COMMENTS_BY_POST_ENDPOINT, postId)).orElse(Collections.emptyList());
     }
 
     public List<AuditionComment> getCommentsByPostIdFallback(String postId, Exception ex) {
         auditionLogger.warn(LOG, "Fallback triggered for getCommentsByPostId with postId {}: {}", postId, ex.getMessage());
-        return Collections.emptyList();
+        if (isNotFound(ex)) {
+            return Collections.emptyList();
+        }
+        return this.<List<AuditionComment>>lastKnownGood(
+                RequestCoalescer.key(baseUrl + COMMENTS_BY_POST_ID_ENDPOINT, postId)).orElse(Collections.emptyList());
+    }
+
+    public CommentSnapshot getAllCommentsFallback(Exception ex) {
+        auditionLogger.warn(LOG, "Fallback triggered for getAllComments: {}", ex.getMessage());
+        return this.<CommentSnapshot>lastKnownGood(RequestCoalescer.key(baseUrl + COMMENTS_ENDPOINT))
+                .orElseGet(CommentSnapshot::empty);
+    }
+
+    private <T> Optional<T> lastKnownGood(final String key) {
+        return lastKnownGoodStore.<T>get(key).map(stale -> {
+            auditionLogger.warn(LOG, "Serving last known good response for " + key + ", {}s old",
+                    stale.age().toSeconds());
+            StaleResponses.record(stale.age());
+            return stale.value();
+        });
+    }
+
+    private static boolean isNotFound(final Exception ex) {
+        return ex instanceof SystemException systemException
+                && Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(systemException.getStatusCode());
+    }
+
+    private static void rethrowNotFound(final Exception ex) {
+        if (isNotFound(ex)) {
+            throw (SystemException) ex;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.audition.integration;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Conditional GETs against the upstream.
+ *
+ * A call made through {@link #execute(Validators, Supplier)} sends the given
+ * validators as If-None-Match / If-Modified-Since, and reports whether the
+ * upstream answered 304 Not Modified along with the validators of a full
+ * response. The RestTemplate carries the {@link #interceptor()} that does this;
+ * the call itself stays a plain getForObject, which yields null for the empty
+ * 304 body, so nothing is deserialized.
+ *
+ * The exchange state is bound to the calling thread for the duration of the
+ * call, like a RestTemplate call itself; requests outside execute pass through
+ * untouched.
+ *
+ * @author Farhan Rayani
+ */
+public final class ConditionalRequests {
+
+    private static final ThreadLocal<Exchange> CURRENT = new ThreadLocal<>();
+    private static final ClientHttpRequestInterceptor INTERCEPTOR = new Interceptor();
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Returns the RestTemplate interceptor that makes calls conditional.
+     *
+     * @return the interceptor, stateless
+     */
+    public static ClientHttpRequestInterceptor interceptor() {
+        return INTERCEPTOR;
+    }
+
+    /**
+     * Runs an upstream call, conditional on the given validators.
+     *
+     * @param validators validators of the retained copy, null for an unconditional call
+     * @param call the upstream call
+     * @param <T> result type
+     * @return the result, whether it was a 304, and the validators of a full response
+     */
+    public static <T> Response<T> execute(final Validators validators, final Supplier<T> call) {
+        final Exchange previous = CURRENT.get();
+        final Exchange exchange = new Exchange(validators);
+        CURRENT.set(exchange);
+        try {
+            final T value = call.get();
+            return new Response<>(value, exchange.notModified, exchange.received);
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Validators an upstream response carried.
+     *
+     * @param etag the ETag, null if none
+     * @param lastModified the Last-Modified date as sent, null if none
+     */
+    public record Validators(String etag, String lastModified) {
+
+        /**
+         * Reads the validators of a response.
+         *
+         * @param headers response headers
+         * @return the validators, or null if the response had none
+         */
+        public static Validators of(final HttpHeaders headers) {
+            final String etag = headers.getETag();
+            final String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+            return etag == null && lastModified == null ? null : new Validators(etag, lastModified);
+        }
+    }
+
+    /**
+     * Outcome of a conditional call.
+     *
+     * @param value the call result, null on a 304
+     * @param notModified whether the upstream answered 304
+     * @param validators validators of a full response, null if none were sent
+     * @param <T> result type
+     */
+    public record Response<T>(T value, boolean notModified, Validators validators) {
+    }
+
+    private static final class Exchange {
+
+        private final Validators sent;
+        private boolean notModified;
+        private Validators received;
+
+        private Exchange(final Validators sent) {
+            this.sent = sent;
+        }
+    }
+
+    private static final class Interceptor implements ClientHttpRequestInterceptor {
+
+        @Override
+        public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+                                            final ClientHttpRequestExecution execution) throws IOException {
+            final Exchange exchange = CURRENT.get();
+            if (exchange == null || request.getMethod() != HttpMethod.GET) {
+                return execution.execute(request, body);
+            }
+            if (exchange.sent != null) {
+                if (exchange.sent.etag() != null) {
+                    request.getHeaders().set(HttpHeaders.IF_NONE_MATCH, exchange.sent.etag());
+                }
+                if (exchange.sent.lastModified() != null) {
+                    request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, exchange.sent.lastModified());
+                }
+            }
+            final ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                exchange.notModified = exchange.sent != null;
+            } else if (response.getStatusCode().is2xxSuccessful()) {
+                exchange.received = Validators.of(response.getHeaders());
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.audition.integration;
+
+import com.audition.configuration.CachingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last-known-good copies of upstream responses, read by the circuit breaker fallbacks.
+ *
+ * Every successful upstream call stores its result under the same key the
+ * RequestCoalescer uses (URL template plus parameters). When the upstream fails
+ * or the jsonplaceholder circuit breaker is open, the fallback answers from here
+ * instead of returning an empty body or a 503. Entries outlive the regular caches
+ * (audition.caching.last-known-good.retention) and are bounded in number.
+ *
+ * Entries also keep the upstream validators (ETag, Last-Modified) of the
+ * response, so the client can refresh them with a conditional GET: a 304
+ * restores the retained value with a fresh timestamp, without a body transfer.
+ *
+ * Lookups are exposed as cache.* meters for cache=last-known-good: a hit is a
+ * request served stale, a miss is a fallback with nothing to serve. Refreshes of
+ * a retained entry are counted as audition.upstream.refreshes, tagged
+ * result=revalidated (304) or result=downloaded (full response).
+ *
+ * @author Farhan Rayani
+ */
+@Component
+public class LastKnownGoodStore implements MeterBinder {
+
+    private final Ticker ticker;
+    private final Cache<String, Entry> entries;
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder downloaded = new LongAdder();
+
+    @Autowired
+    public LastKnownGoodStore(final CachingProperties cachingProperties) {
+        this(cachingProperties.getLastKnownGood(), Ticker.systemTicker());
+    }
+
+    LastKnownGoodStore(final CachingProperties.LastKnownGood settings, final Ticker ticker) {
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getRetention())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Stores a fresh upstream result. Null and empty results are not kept, so they
+     * never replace good data.
+     *
+     * @param key upstream resource key
+     * @param value the result
+     */
+    public void put(final String key, final Object value) {
+        store(key, value, null);
+    }
+
+    /**
+     * Stores a result downloaded from the upstream along with the validators it
+     * was sent with; replacing a retained result counts as a downloaded refresh.
+     *
+     * @param key upstream resource key
+     * @param value the result
+     * @param validators the response validators, null if it had none
+     */
+    public void put(final String key, final Object value, final ConditionalRequests.Validators validators) {
+        if (store(key, value, validators)) {
+            downloaded.increment();
+        }
+    }
+
+    /**
+     * Returns the retained result for the key if it can be revalidated.
+     *
+     * @param key upstream resource key
+     * @param <T> result type, as stored
+     * @return the result and its validators, or empty if none is retained or it has no validators
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Validated<T>> validated(final String key) {
+        final Entry entry = entries.asMap().get(key);
+        if (entry == null || entry.validators() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Validated<>((T) entry.value(), entry.validators()));
+    }
+
+    /**
+     * Records that the upstream confirmed the retained result (304 Not Modified),
+     * which restarts its retention.
+     *
+     * @param key upstream resource key
+     */
+    public void revalidated(final String key) {
+        final Entry refreshed = entries.asMap().computeIfPresent(key,
+                (k, entry) -> new Entry(entry.value(), entry.validators(), ticker.read()));
+        if (refreshed != null) {
+            revalidated.increment();
+        }
+    }
+
+    /**
+     * Returns the last good result for the key and how old it is.
+     *
+     * @param key upstream resource key
+     * @param <T> result type, as stored
+     * @return the stale result, or empty if none is retained
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Stale<T>> get(final String key) {
+        final Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Stale<>((T) entry.value(), Duration.ofNanos(ticker.read() - entry.storedAt())));
+    }
+
+    private boolean store(final String key, final Object value, final ConditionalRequests.Validators validators) {
+        if (value == null || value instanceof Collection<?> collection && collection.isEmpty()) {
+            return false;
+        }
+        return entries.asMap().put(key, new Entry(value, validators, ticker.read())) != null;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "last-known-good", Tags.of("cacheManager", "servlet"));
+        FunctionCounter.builder("audition.upstream.refreshes", revalidated, LongAdder::sum)
+                .description("Refreshes of a retained upstream response answered with 304 Not Modified")
+                .tag("result", "revalidated")
+                .register(registry);
+        FunctionCounter.builder("audition.upstream.refreshes", downloaded, LongAdder::sum)
+                .description("Refreshes of a retained upstream response that downloaded a full body")
+                .tag("result", "downloaded")
+                .register(registry);
+    }
+
+    /**
+     * A retained result.
+     *
+     * @param value the result
+     * @param age time since it was fetched from the upstream
+     * @param <T> result type
+     */
+    public record Stale<T>(T value, Duration age) {
+    }
+
+    /**
+     * A retained result with the validators to revalidate it.
+     *
+     * @param value the result
+     * @param validators the validators of the response it came from
+     * @param <T> result type
+     */
+    public record Validated<T>(T value, ConditionalRequests.Validators validators) {
+    }
+
+    private record Entry(Object value, ConditionalRequests.Validators validators, long storedAt) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.audition.integration;
+
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking integration client for the JSONPlaceholder API.
+ *
+ * Reactive counterpart of AuditionIntegrationClient, used when the application
+ * runs on the WebFlux stack. Calls go through WebClient on the Netty event loop
+ * and apply the same Resilience4j instances as reactive operators:
+ * - TimeLimiter, CircuitBreaker and Retry named "jsonplaceholder"
+ * - Fallbacks matching the blocking client (empty lists, 503 for single posts)
+ *
+ * Upstream error responses for a single post are mapped to SystemException and
+ * passed through unchanged, so a missing post stays a 404.
+ *
+ * @author Farhan Rayani
+ * @see AuditionIntegrationClient
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuditionIntegrationClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveAuditionIntegrationClient.class);
+    private static final String RESILIENCE_INSTANCE = "jsonplaceholder";
+
+    private static final String POSTS_ENDPOINT = "/posts";
+    private static final String POST_BY_ID_ENDPOINT = "/posts/{id}";
+    private static final String COMMENTS_BY_POST_ID_ENDPOINT = "/comments?postId={postId}";
+
+    @Value("${audition.external-apis.jsonplaceholder.base-url:https://jsonplaceholder.typicode.com}")
+    private String baseUrl;
+
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    private AuditionLogger auditionLogger;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private RetryRegistry retryRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    public Flux<AuditionPost> getPosts() {
+        final String url = baseUrl + POSTS_ENDPOINT;
+        return fetch(url, AuditionPost[].class)
+                .map(posts -> Arrays.asList(posts))
+                .doOnSuccess(posts -> auditionLogger.info(LOG, "Successfully fetched {} posts", posts.size()))
+                .transform(this::withResilience)
+                .onErrorResume(e -> {
+                    auditionLogger.warn(LOG, "Fallback triggered for getPosts: {}", e.getMessage());
+                    return Mono.just(Collections.emptyList());
+                })
+                .flatMapIterable(posts -> posts);
+    }
+
+    public Mono<AuditionPost> getPostById(final String id) {
+        final String url = baseUrl + POST_BY_ID_ENDPOINT;
+        return fetch(url, AuditionPost.class, id)
+                .onErrorMap(WebClientResponseException.class, e -> mapResponseError(e,
+                        "Cannot find a Post with id " + id, "Failed to fetch post with id: " + id))
+                .transform(this::withResilience)
+                .onErrorResume(e -> !(e instanceof SystemException), e -> {
+                    auditionLogger.warn(LOG, "Fallback triggered for getPostById with id {}: {}", id, e.getMessage());
+                    return Mono.error(new SystemException("Service temporarily unavailable for post " + id,
+                            "Service Unavailable", 503, e));
+                });
+    }
+
+    public Flux<AuditionComment> getCommentsByPostId(final String postId) {
+        return getComments(baseUrl + COMMENTS_BY_POST_ID_ENDPOINT, postId);
+    }
+
+    private Flux<AuditionComment> getComments(final String url, final String postId) {
+        return fetch(url, AuditionComment[].class, postId)
+                .map(comments -> Arrays.asList(comments))
+                .onErrorMap(WebClientResponseException.class, e -> mapResponseError(e,
+                        "Cannot find comments for Post with id " + postId,
+                        "Failed to fetch comments for post id: " + postId))
+                .transform(this::withResilience)
+                .onErrorResume(e -> {
+                    auditionLogger.warn(LOG, "Fallback triggered for comments with postId {}: {}",
+                            postId, e.getMessage());
+                    return Mono.just(Collections.emptyList());
+                })
+                .flatMapIterable(comments -> comments);
+    }
+
+    private <T> Mono<T> fetch(final String url, final Class<T> type, final Object... uriVariables) {
+        return webClient.get()
+                .uri(url, uriVariables)
+                .retrieve()
+                .bodyToMono(type)
+                .doOnSubscribe(s -> auditionLogger.info(LOG, "Fetching {} from {}", type.getSimpleName(), url));
+    }
+
+    private <T> Mono<T> withResilience(final Mono<T> call) {
+        return call
+                .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(RESILIENCE_INSTANCE)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE)))
+                .transformDeferred(RetryOperator.of(retryRegistry.retry(RESILIENCE_INSTANCE)));
+    }
+
+    private SystemException mapResponseError(final WebClientResponseException e, final String notFoundMessage,
+                                             final String failureMessage) {
+        auditionLogger.logHttpStatusCodeError(LOG, failureMessage, e.getStatusCode().value());
+        if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return new SystemException(notFoundMessage, "Resource Not Found", 404);
+        }
+        return new SystemException(failureMessage, "External Service Error", e.getStatusCode().value(), e);
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.audition.integration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight table for upstream calls.
+ *
+ * Concurrent callers asking for the same upstream resource (same URL and
+ * parameters) share one in-flight call: the first caller issues the request,
+ * every caller that arrives while it is running waits for and receives the
+ * same result or the same exception. Once the call completes the entry is
+ * removed, so later callers trigger a fresh request.
+ *
+ * Exposed metrics:
+ * - audition.upstream.calls{outcome=issued} - calls that reached the upstream
+ * - audition.upstream.calls{outcome=coalesced} - calls served by another caller's request
+ * - audition.upstream.calls.in-flight - distinct upstream calls currently running
+ *
+ * @author Farhan Rayani
+ */
+@Component
+public class RequestCoalescer implements MeterBinder {
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder issuedCalls = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * Builds a coalescing key from the upstream URL template and its parameters.
+     *
+     * @param url upstream URL template
+     * @param params URI variables expanded into the template
+     * @return key identifying the upstream resource
+     */
+    public static String key(final String url, final Object... params) {
+        final StringBuilder sb = new StringBuilder(url);
+        for (final Object param : params) {
+            sb.append(KEY_SEPARATOR).append(param);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Runs the call unless an identical call is already in flight, in which case
+     * its outcome is shared.
+     *
+     * @param key key built with {@link #key(String, Object...)}
+     * @param call the upstream call, executed on the caller's thread
+     * @param <T> result type
+     * @return the call result, possibly produced by another caller
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String key, final Supplier<T> call) {
+        final CompletableFuture<Object> leader = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return (T) await(existing);
+        }
+
+        issuedCalls.increment();
+        try {
+            final T result = call.get();
+            leader.complete(result);
+            return result;
+        } catch (final RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public long getIssuedCount() {
+        return issuedCalls.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCalls.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("audition.upstream.calls", issuedCalls, LongAdder::sum)
+                .description("Upstream calls actually issued")
+                .tag("outcome", "issued")
+                .register(registry);
+
+        FunctionCounter.builder("audition.upstream.calls", coalescedCalls, LongAdder::sum)
+                .description("Upstream calls served by an identical in-flight request")
+                .tag("outcome", "coalesced")
+                .register(registry);
+
+        Gauge.builder("audition.upstream.calls.in-flight", inFlight, Map::size)
+                .description("Distinct upstream calls currently in flight")
+                .register(registry);
+    }
+
+    private static Object await(final CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.audition.model;
 
-import lombok.Getter;
-import lombok.Setter;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
-@Getter
-@Setter
+/**
+ * A comment on a post, from the upstream.
+ *
+ * Immutable like {@link AuditionPost}. The name and email are deduplicated, as
+ * the same commenter shows up under many posts; the body is kept as parsed.
+ *
+ * @author Farhan Rayani
+ */
+@Value
 public class AuditionComment {
 
-    private int postId;
-    private int id;
-    private String name;
-    private String email;
-    private String body;
+    int postId;
+    int id;
+    String name;
+    String email;
+    String body;
 
-}
\ No newline at end of file
+    @Builder(toBuilder = true)
+    @Jacksonized
+    private AuditionComment(final int postId, final int id, final String name, final String email,
+                            final String body) {
+        this.postId = postId;
+        this.id = id;
+        this.name = StringPool.dedupe(name);
+        this.email = StringPool.dedupe(email);
+        this.body = body;
+    }
+}
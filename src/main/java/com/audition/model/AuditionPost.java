@@ -1,17 +1,52 @@
 package com.audition.model;
 
 import java.util.List;
-import lombok.Getter;
-import lombok.Setter;
+import java.util.Objects;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
-@Getter
-@Setter
+/**
+ * A post from the upstream.
+ *
+ * Immutable, so one instance can sit in several caches and be handed to
+ * concurrent callers without defensive copies:
+ * - built with {@link #builder()}; Jackson deserializes through the same builder
+ * - title and body are kept as parsed; they are unique per post, so pooling
+ *   them would only grow the pool
+ * - comments are held in an exactly sized immutable list (a single array, no
+ *   spare capacity), or null if the post was loaded without them; null
+ *   elements of an upstream array are dropped
+ *
+ * @author Farhan Rayani
+ */
+@Value
 public class AuditionPost {
 
-    private int userId;
-    private int id;
-    private String title;
-    private String body;
-    private List<AuditionComment> comments;
+    int userId;
+    int id;
+    String title;
+    String body;
+    List<AuditionComment> comments;
 
-}
\ No newline at end of file
+    @Builder(toBuilder = true)
+    @Jacksonized
+    private AuditionPost(final int userId, final int id, final String title, final String body,
+                         final List<AuditionComment> comments) {
+        this.userId = userId;
+        this.id = id;
+        this.title = title;
+        this.body = body;
+        this.comments = comments == null ? null : comments.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Returns a copy of this post carrying the given comments.
+     *
+     * @param comments the comments of the post
+     * @return the copy
+     */
+    public AuditionPost withComments(final List<AuditionComment> comments) {
+        return toBuilder().comments(comments).build();
+    }
+}
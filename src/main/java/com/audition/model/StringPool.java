@@ -0,0 +1,28 @@
+package com.audition.model;
+
+import com.github.benmanes.caffeine.cache.Interner;
+
+/**
+ * Deduplicates strings of the cached models.
+ *
+ * Every upstream response is parsed into fresh strings, so the same commenter
+ * name or email cached under several posts would otherwise be held once per copy. The
+ * pool is weak: a string leaves it once no model references it.
+ *
+ * Only fields likely to repeat go through the pool; a pool entry costs about as
+ * much as a short string, so interning unique text would add heap rather than
+ * save it.
+ *
+ * @author Farhan Rayani
+ */
+final class StringPool {
+
+    private static final Interner<String> POOL = Interner.newWeakInterner();
+
+    private StringPool() {
+    }
+
+    static String dedupe(final String value) {
+        return value == null ? null : POOL.intern(value);
+    }
+}
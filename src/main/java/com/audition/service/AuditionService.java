@@ -1,23 +1,41 @@
 package com.audition.service;
 
+import com.audition.common.cache.CacheOutcomes;
+import com.audition.common.cache.ForkedLookup;
+import com.audition.common.cache.StaleResponses;
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.AsyncConfiguration;
+import com.audition.configuration.CachingProperties;
 import com.audition.integration.AuditionIntegrationClient;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.PostSnapshot;
+import com.audition.service.snapshot.PostSnapshotCache;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Service layer for audition application business logic.
@@ -27,8 +45,14 @@ import java.util.stream.Collectors;
  *
  * Features include:
  * - Caching with automatic eviction
+ * - Posts with comments composed from the posts and comments caches, both looked up concurrently
+ * - Negative caching of upstream 404s, answered without a stack trace
+ * - Strong ETags for cached values and, optionally, responses written from stored JSON bytes
+ * - All posts served stale-while-revalidate from a PostSnapshotCache
+ * - Single posts answered from that snapshot by id once it is loaded, upstream otherwise
+ * - Comments answered from a bulk download indexed by post, with the bulk strategy
  * - Metrics collection for monitoring
- * - Filtering capabilities for posts
+ * - Filtering capabilities for posts over an indexed snapshot
  * - Performance timing measurements
  *
  * @author Farhan Rayani
@@ -36,17 +60,41 @@ import java.util.stream.Collectors;
  */
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuditionService {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuditionService.class);
+    // Data served from the last-known-good store is not cached as if it were fresh
+    private static final String SERVED_STALE =
+            "T(com.audition.common.cache.StaleResponses).ofCurrentRequest().isPresent()";
 
+    private final AuditionIntegrationClient auditionIntegrationClient;
+    private final NotFoundCache notFoundCache;
+    private final SerializedResponses serializedResponses;
+    private final BulkComments bulkComments;
+
+    // The Spring proxy of this bean, so composed lookups go through the caches
+    @Lazy
     @Autowired
-    private AuditionIntegrationClient auditionIntegrationClient;
+    private AuditionService self;
 
     private final Counter postsRequestCounter;
     private final Counter commentsRequestCounter;
+    private final PostSnapshotCache postSnapshotCache;
+    private final Executor upstreamExecutor;
 
-    public AuditionService(MeterRegistry meterRegistry) {
+    public AuditionService(final AuditionIntegrationClient auditionIntegrationClient,
+                           final NotFoundCache notFoundCache,
+                           final SerializedResponses serializedResponses,
+                           final BulkComments bulkComments,
+                           final MeterRegistry meterRegistry,
+                           final CachingProperties cachingProperties,
+                           @Qualifier(AsyncConfiguration.UPSTREAM_EXECUTOR) final Executor upstreamExecutor) {
+        this.auditionIntegrationClient = auditionIntegrationClient;
+        this.notFoundCache = notFoundCache;
+        this.serializedResponses = serializedResponses;
+        this.bulkComments = bulkComments;
+        this.upstreamExecutor = upstreamExecutor;
         this.postsRequestCounter = Counter.builder("audition.posts.requests")
                 .description("Number of posts requests")
                 .tag("type", "all")
@@ -55,23 +103,49 @@ public class AuditionService {
         this.commentsRequestCounter = Counter.builder("audition.comments.requests")
                 .description("Number of comments requests")
                 .register(meterRegistry);
+
+        final CachingProperties.Posts posts = cachingProperties.getPosts();
+        // First load on the request thread, background reloads on the bounded upstream pool
+        this.postSnapshotCache = new PostSnapshotCache(this::fetchPosts, posts.getSoftTtl(), posts.getHardTtl(),
+                upstreamExecutor, Tags.of("cacheManager", "servlet"));
+        postSnapshotCache.bindTo(meterRegistry);
     }
 
-    @Cacheable(value = "posts", key = "'all-posts'", unless = "#result.isEmpty()")
     @Timed(value = "audition.posts.fetch.time", description = "Time taken to fetch posts")
     @Counted(value = "audition.posts.fetch.count", description = "Number of posts fetch operations")
     public List<AuditionPost> getPosts() {
-        LOG.info("Fetching all posts from external service");
+        LOG.info("Fetching all posts");
         postsRequestCounter.increment();
-        return auditionIntegrationClient.getPosts();
+        CacheOutcomes.hit(); // Unless this call has to load the snapshot itself, see fetchPosts
+        // Index once per load; the cached value is the snapshot, so a refresh replaces data and indexes together
+        final PostSnapshot snapshot = postSnapshotCache.join();
+        postSnapshotCache.lastKnownGoodAge().ifPresent(StaleResponses::record);
+        return registerIfFresh(snapshot);
+    }
+
+    /**
+     * Returns the holder of the all-posts snapshot, for components that save and
+     * restore it. Public so calls through the Spring proxy reach the target.
+     *
+     * @return the posts snapshot holder
+     */
+    public PostSnapshotCache postSnapshotCache() {
+        return postSnapshotCache;
+    }
+
+    private CompletableFuture<PostSnapshotCache.Fetch> fetchPosts() {
+        CacheOutcomes.miss();
+        final StaleResponses.Tracked<List<AuditionPost>> posts =
+                StaleResponses.track(auditionIntegrationClient::getPosts);
+        return CompletableFuture.completedFuture(new PostSnapshotCache.Fetch(posts.value(), posts.staleAge()));
     }
 
     /**
      * Filters posts based on provided criteria.
      *
-     * This method performs in-memory filtering of posts retrieved from the cache.
+     * This method filters the cached posts snapshot using its indexes.
      * Filtering logic:
-     * - User ID: Exact match filtering
+     * - User ID: Exact match via the userId index (O(1) lookup plus the matching posts)
      * - Title: Case-insensitive substring matching
      * - Invalid user ID strings return empty results
      *
@@ -79,69 +153,218 @@ public class AuditionService {
      * @param titleFilter title substring to search for (null/blank for no filter)
      * @return filtered list of posts matching all provided criteria
      * @throws NumberFormatException if userIdFilter is not a valid integer (handled gracefully)
-     * @implNote This method calls getPosts() which utilizes caching for performance.
-     *           Consider the cache warming strategy for production deployments.
+     * @implNote The snapshot is refreshed in the background, so only the very first load waits
+     *           for the upstream. Consider the cache warming strategy for production deployments.
      */
 
     @Timed(value = "audition.posts.filter.time", description = "Time taken to filter posts")
     public List<AuditionPost> getPostsWithFilter(final String userIdFilter, final String titleFilter) {
         LOG.info("Fetching posts with filters - userId: {}, title: {}", userIdFilter, titleFilter);
 
-        List<AuditionPost> posts = getPosts(); // This will use cache if available
+        List<AuditionPost> posts = getPosts(); // Current snapshot, refreshed in the background
 
-        return posts.stream()
-                .filter(post -> {
-                    boolean matches = true;
-
-                    if (StringUtils.isNotBlank(userIdFilter)) {
-                        try {
-                            int userId = Integer.parseInt(userIdFilter);
-                            matches = matches && post.getUserId() == userId;
-                        } catch (NumberFormatException e) {
-                            LOG.warn("Invalid userId filter provided: {}", userIdFilter);
-                            // If userIdFilter is not a valid integer, no posts will match
-                            return false;
-                        }
-                    }
-
-                    if (StringUtils.isNotBlank(titleFilter)) {
-                        matches = matches && post.getTitle() != null &&
-                                post.getTitle().toLowerCase().contains(titleFilter.toLowerCase());
-                    }
+        return filterPosts(posts, userIdFilter, titleFilter);
+    }
 
-                    return matches;
-                })
-                .collect(Collectors.toList());
+    static List<AuditionPost> filterPosts(final List<AuditionPost> posts, final String userIdFilter,
+                                          final String titleFilter) {
+        Integer userId = null;
+        if (StringUtils.isNotBlank(userIdFilter)) {
+            try {
+                userId = Integer.valueOf(userIdFilter);
+            } catch (NumberFormatException e) {
+                LOG.warn("Invalid userId filter provided: {}", userIdFilter);
+                // If userIdFilter is not a valid integer, no posts will match
+                return Collections.emptyList();
+            }
+        }
+        return PostSnapshot.of(posts).filter(userId, titleFilter);
     }
 
-    @Cacheable(value = "posts", key = "#postId", unless = "#result == null")
+    @Cacheable(value = "posts", key = "#postId", unless = "#result == null or " + SERVED_STALE)
     @Timed(value = "audition.post.fetch.time", description = "Time taken to fetch single post")
     @Counted(value = "audition.post.fetch.count", description = "Number of single post fetch operations")
     public AuditionPost getPostById(final String postId) {
         LOG.info("Fetching post with id: {}", postId);
-        return auditionIntegrationClient.getPostById(postId);
+        rejectIfMissing(postId);
+        final AuditionPost loaded = fromSnapshot(postId);
+        if (loaded != null) {
+            CacheOutcomes.hit();
+            return registerIfFresh(loaded);
+        }
+        CacheOutcomes.miss();
+        try {
+            return registerIfFresh(auditionIntegrationClient.getPostById(postId));
+        } catch (final SystemException e) {
+            recordIfMissing(postId, e);
+            throw e;
+        }
     }
 
-    @Cacheable(value = "posts-with-comments", key = "#postId", unless = "#result == null")
+    /**
+     * Looks the post up by its int id in the all-posts snapshot, if one is loaded
+     * from fresh data. Never loads the snapshot; a post it lacks (e.g. one created
+     * since the last load) is fetched on its own.
+     */
+    private AuditionPost fromSnapshot(final String postId) {
+        final Optional<PostSnapshot> snapshot = postSnapshotCache.ifLoaded();
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        try {
+            return snapshot.get().byId(Integer.parseInt(postId));
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the post with its comments, composed from the posts and comments
+     * caches rather than cached as a third copy. Both lookups run concurrently on
+     * the upstream executor, so a miss costs the slower of the two upstream calls
+     * rather than their sum. Each part is loaded and evicted on its own.
+     *
+     * A failed post lookup (including a 404) is rethrown as-is right away; the
+     * comments lookup is abandoned. A failed comments lookup is logged and the
+     * post is served without comments, and without an ETag.
+     *
+     * @param postId the post id
+     * @return a new post instance carrying the comments
+     */
     @Timed(value = "audition.post.with.comments.fetch.time", description = "Time taken to fetch post with comments")
     public AuditionPost getPostByIdWithComments(final String postId) {
         LOG.info("Fetching post with id: {} including comments", postId);
-        return auditionIntegrationClient.getPostByIdWithComments(postId);
+        // Through the proxy, so both lookups hit the caches
+        final AuditionService cachedSelf = cachedSelf();
+        final ForkedLookup<AuditionPost> postLookup =
+                ForkedLookup.supplyAsync(() -> cachedSelf.getPostById(postId), upstreamExecutor);
+        final ForkedLookup<List<AuditionComment>> commentsLookup =
+                ForkedLookup.supplyAsync(() -> cachedSelf.getCommentsForPost(postId), upstreamExecutor);
+
+        final AuditionPost post;
+        try {
+            post = postLookup.join();
+        } catch (final RuntimeException e) {
+            commentsLookup.abandon();
+            throw e;
+        }
+        if (post == null) {
+            commentsLookup.abandon();
+            return null;
+        }
+        final List<AuditionComment> comments;
+        try {
+            comments = commentsLookup.join();
+        } catch (final RuntimeException e) {
+            LOG.warn("Serving post {} without comments: {}", postId, e.toString());
+            return post.withComments(Collections.emptyList());
+        }
+        // Its ETag derives from the ETags of the two cached parts
+        return serializedResponses.registerComposite(post.withComments(comments), post, comments);
     }
 
-    @Cacheable(value = "comments", key = "#postId", unless = "#result.isEmpty()")
+    /**
+     * Returns the comments of a post. The bulk index, when loaded, is consulted
+     * ahead of the comments cache, so what it serves follows its refreshes rather
+     * than being cached per post; only posts it cannot answer are loaded one by
+     * one through the cache.
+     *
+     * @param postId the post id
+     * @return the comments, empty for a missing post
+     */
     @Timed(value = "audition.comments.fetch.time", description = "Time taken to fetch comments")
     @Counted(value = "audition.comments.fetch.count", description = "Number of comments fetch operations")
     public List<AuditionComment> getCommentsForPost(final String postId) {
         LOG.info("Fetching comments for post id: {}", postId);
         commentsRequestCounter.increment();
-        return auditionIntegrationClient.getCommentsByPostId(postId);
+        if (notFoundCache.isMissing(postId)) {
+            CacheOutcomes.hit();
+            return Collections.emptyList(); // A missing post has no comments
+        }
+        final Optional<List<AuditionComment>> indexed = bulkComments.forPost(postId);
+        if (indexed.isPresent()) {
+            CacheOutcomes.hit();
+            return registerIfFresh(indexed.get());
+        }
+        return cachedSelf().loadCommentsForPost(postId);
     }
 
-    @CacheEvict(value = {"posts", "posts-with-comments", "comments"}, allEntries = true)
+    /**
+     * Loads the comments of a single post from the upstream, through the comments
+     * cache. Public so calls through the Spring proxy reach the cache; callers use
+     * {@link #getCommentsForPost(String)}.
+     *
+     * @param postId the post id
+     * @return the comments
+     */
+    @Cacheable(value = "comments", key = "#postId", unless = "#result.isEmpty() or " + SERVED_STALE)
+    public List<AuditionComment> loadCommentsForPost(final String postId) {
+        CacheOutcomes.miss();
+        return registerIfFresh(auditionIntegrationClient.getCommentsByPostId(postId));
+    }
+
+    private AuditionService cachedSelf() {
+        return self != null ? self : this;
+    }
+
+    /**
+     * Lets the value get an ETag and stored JSON bytes, unless it came from the
+     * last-known-good store or is empty; like the caches, those only describe
+     * fresh data. An empty list may be a fallback's stand-in for an outage, and is
+     * often the shared Collections.emptyList() instance.
+     */
+    private <T> T registerIfFresh(final T value) {
+        if (StaleResponses.ofCurrentRequest().isPresent()
+                || value instanceof Collection<?> collection && collection.isEmpty()) {
+            return value;
+        }
+        return serializedResponses.register(value);
+    }
+
+    /**
+     * Returns the strong ETag of a value returned by this service, computed once
+     * per cached value.
+     *
+     * @param value a value returned by this service
+     * @return the quoted ETag, or null if the value is not derived from the caches
+     *         (e.g. a filtered list or last-known-good data)
+     */
+    public String etagOf(final Object value) {
+        try {
+            return serializedResponses.etag(value);
+        } catch (final IOException e) {
+            LOG.warn("Cannot compute ETag, serving without one", e);
+            return null;
+        }
+    }
+
+    /**
+     * Answers a recently reported 404 locally. The exception has no stack trace;
+     * it is a cheap, expected outcome, not a failure.
+     */
+    private void rejectIfMissing(final String postId) {
+        if (notFoundCache.isMissing(postId)) {
+            CacheOutcomes.hit();
+            throw SystemException.withoutStackTrace("Cannot find a Post with id " + postId,
+                    "Resource Not Found", HttpStatus.NOT_FOUND.value());
+        }
+    }
+
+    private void recordIfMissing(final String postId, final SystemException e) {
+        if (Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(e.getStatusCode())) {
+            notFoundCache.markMissing(postId);
+        }
+    }
+
+    /**
+     * Clears the per-post and comments caches every 5 minutes. The all-posts
+     * snapshot is left alone; it is revalidated by its soft and hard TTLs.
+     */
+    @CacheEvict(value = {"posts", "comments"}, allEntries = true)
     @Scheduled(fixedDelay = 300000) // Clear cache every 5 minutes
     public void clearCache() {
-        LOG.info("Clearing all caches");
+        LOG.info("Clearing post and comment caches");
+        serializedResponses.invalidateAll();
     }
 
     @CacheEvict(value = "posts", key = "#postId")
@@ -149,8 +372,11 @@ public class AuditionService {
         LOG.info("Evicting cache for post id: {}", postId);
     }
 
-    @CacheEvict(value = {"posts", "posts-with-comments"}, allEntries = true)
+    @CacheEvict(value = "posts", allEntries = true)
     public void evictAllPostsCache() {
         LOG.info("Evicting all posts cache");
+        postSnapshotCache.invalidate();
+        notFoundCache.invalidateAll();
+        serializedResponses.invalidateAll();
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.audition.service;
+
+import com.audition.common.cache.StaleResponses;
+import com.audition.configuration.CachingProperties;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.service.snapshot.CommentSnapshot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk comments strategy: all comments downloaded in one call and indexed by post.
+ *
+ * With audition.caching.comments.strategy=bulk the full comments collection is
+ * fetched at startup and again every refresh-interval, and every per-post
+ * comments lookup is answered from the resulting CommentSnapshot instead of one
+ * upstream call per post. Until the first download succeeds, and with the
+ * default per-post strategy, lookups are not answered here and the service calls
+ * the upstream per post.
+ *
+ * A refresh that fails or only gets last-known-good data keeps the current
+ * snapshot. A download with more than bulk-max-size comments is dropped and bulk
+ * mode is switched off, since such a dataset is cheaper to load per post.
+ *
+ * Comments restored from a snapshot file are served until the first download
+ * succeeds, marked stale like last-known-good data.
+ *
+ * Meters:
+ * - audition.comments.bulk.refreshes - bulk downloads by outcome (success, failure)
+ * - audition.comments.bulk.size - comments in the served snapshot (NaN when none)
+ *
+ * @author Farhan Rayani
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BulkComments implements SchedulingConfigurer, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkComments.class);
+
+    private final AuditionIntegrationClient auditionIntegrationClient;
+    private final CachingProperties.Comments settings;
+    private final boolean warmedUp;
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder refreshFailed = new LongAdder();
+    private volatile boolean enabled;
+    private volatile Served served;
+
+    public BulkComments(final AuditionIntegrationClient auditionIntegrationClient,
+                        final CachingProperties cachingProperties) {
+        this.auditionIntegrationClient = auditionIntegrationClient;
+        this.settings = cachingProperties.getComments();
+        this.enabled = settings.getStrategy() == CachingProperties.CommentsStrategy.BULK;
+        this.warmedUp = cachingProperties.getWarmup().isEnabled() && cachingProperties.getWarmup().isComments();
+    }
+
+    /**
+     * Returns the comments of a post from the bulk snapshot.
+     *
+     * @param postId the post id
+     * @return the comments, or empty if bulk mode is off, nothing is loaded yet or the id is not numeric
+     */
+    public Optional<List<AuditionComment>> forPost(final String postId) {
+        final Served current = served;
+        if (current == null) {
+            return Optional.empty();
+        }
+        try {
+            final List<AuditionComment> comments = current.comments().forPost(Integer.parseInt(postId));
+            if (current.savedAt() != null) {
+                StaleResponses.record(Duration.between(current.savedAt(), Instant.now()));
+            }
+            return Optional.of(comments);
+        } catch (final NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the snapshot if it came from a bulk download of this run.
+     *
+     * @return the snapshot, or empty if none is downloaded yet
+     */
+    public Optional<CommentSnapshot> ifLoaded() {
+        return Optional.ofNullable(served).filter(current -> current.savedAt() == null).map(Served::comments);
+    }
+
+    /**
+     * Serves comments saved by an earlier run until the first download succeeds.
+     * Lookups answered from them are marked stale with the age of the save. Meant
+     * for startup, before the first scheduled refresh.
+     *
+     * @param comments the saved comments
+     * @param savedAt when they were downloaded
+     * @return true if they are now served
+     */
+    public boolean seed(final CommentSnapshot comments, final Instant savedAt) {
+        if (!enabled || served != null || comments.isEmpty() || comments.size() > settings.getBulkMaxSize()) {
+            return false;
+        }
+        served = new Served(comments, savedAt);
+        return true;
+    }
+
+    /**
+     * Returns the number of comments served from the bulk snapshot.
+     *
+     * @return the comment count, 0 if nothing is loaded
+     */
+    public int size() {
+        final Served current = served;
+        return current == null ? 0 : current.comments().size();
+    }
+
+    /**
+     * Downloads all comments and replaces the snapshot.
+     *
+     * @return true if a fresh snapshot is now served
+     */
+    public boolean refresh() {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            final StaleResponses.Tracked<CommentSnapshot> fetched =
+                    StaleResponses.track(auditionIntegrationClient::getAllComments);
+            final CommentSnapshot comments = fetched.value();
+            if (fetched.isStale() || comments == null || comments.isEmpty()) {
+                refreshFailed.increment();
+                LOG.warn("Bulk comments refresh got no fresh data, keeping the current snapshot");
+                return false;
+            }
+            if (comments.size() > settings.getBulkMaxSize()) {
+                refreshFailed.increment();
+                LOG.warn("Bulk comments download has {} comments, more than the {} allowed; "
+                        + "switching to per-post loading", comments.size(), settings.getBulkMaxSize());
+                enabled = false;
+                served = null;
+                return false;
+            }
+            served = new Served(comments, null);
+            refreshed.increment();
+            LOG.info("Indexed {} comments for bulk lookups", comments.size());
+            return true;
+        } catch (final RuntimeException e) {
+            refreshFailed.increment();
+            LOG.warn("Bulk comments refresh failed, keeping the current snapshot: {}", e.toString());
+            return false;
+        }
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (enabled) {
+            // Runs at startup, unless the cache warm-up downloads the comments, and then
+            // refresh-interval after each download completes
+            final Duration interval = settings.getRefreshInterval();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(this::refresh, interval,
+                    warmedUp ? interval : Duration.ZERO));
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("audition.comments.bulk.refreshes", refreshed, LongAdder::sum)
+                .description("Bulk downloads of all comments")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("audition.comments.bulk.refreshes", refreshFailed, LongAdder::sum)
+                .description("Bulk downloads of all comments")
+                .tag("outcome", "failure")
+                .register(registry);
+        Gauge.builder("audition.comments.bulk.size", this,
+                        bulk -> bulk.served == null ? Double.NaN : bulk.served.comments().size())
+                .description("Comments in the served bulk snapshot")
+                .register(registry);
+    }
+
+    /**
+     * The served snapshot; savedAt is set if it was restored from an earlier run.
+     */
+    private record Served(CommentSnapshot comments, Instant savedAt) {
+    }
+}
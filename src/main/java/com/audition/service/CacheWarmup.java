@@ -0,0 +1,192 @@
+package com.audition.service;
+
+import com.audition.configuration.CachingProperties;
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preloads the caches once the application has started.
+ *
+ * With audition.caching.warmup.enabled the all-posts snapshot is loaded, and
+ * with warmup.comments also the comments of every post: one bulk download with
+ * the bulk comments strategy, otherwise one call per post on warmup.parallelism
+ * threads. Loads go through the service, so they fill the same caches requests
+ * read from. A failed comments load is skipped; a failed posts load ends the
+ * warm-up.
+ *
+ * As the cacheWarmup health indicator, included in the readiness group, it
+ * reports OUT_OF_SERVICE until the warm-up is over - completed, failed, or
+ * abandoned after warmup.timeout - so no traffic is routed to an instance that
+ * would send every first request to the upstream.
+ *
+ * Meters:
+ * - audition.cache.warmup.duration - seconds the warm-up took (NaN until it is over)
+ * - audition.cache.warmup.items - entries loaded, tagged cache (posts, comments)
+ *
+ * @author Farhan Rayani
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CacheWarmup implements HealthIndicator, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private final AuditionService auditionService;
+    private final BulkComments bulkComments;
+    private final CachingProperties.Warmup settings;
+    private final boolean bulkStrategy;
+    private final LongAdder postsLoaded = new LongAdder();
+    private final LongAdder commentsLoaded = new LongAdder();
+    private final AtomicReference<State> state;
+    private volatile double durationSeconds = Double.NaN;
+
+    public CacheWarmup(final AuditionService auditionService, final BulkComments bulkComments,
+                       final CachingProperties cachingProperties) {
+        this.auditionService = auditionService;
+        this.bulkComments = bulkComments;
+        this.settings = cachingProperties.getWarmup();
+        this.bulkStrategy = cachingProperties.getComments().getStrategy() == CachingProperties.CommentsStrategy.BULK;
+        this.state = new AtomicReference<>(settings.isEnabled() ? State.PENDING : State.DISABLED);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        start();
+    }
+
+    /**
+     * Starts the warm-up in the background, unless it is disabled or has already run.
+     *
+     * @return completes when the warm-up is over, never exceptionally
+     */
+    public CompletableFuture<Void> start() {
+        if (!state.compareAndSet(State.PENDING, State.RUNNING)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long started = System.nanoTime();
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, settings.getParallelism()),
+                new CustomizableThreadFactory("warmup-"));
+        LOG.info("Warming up caches (comments: {}, parallelism: {}, timeout: {})",
+                settings.isComments(), settings.getParallelism(), settings.getTimeout());
+
+        return CompletableFuture.supplyAsync(this::loadPosts, pool)
+                .thenCompose(posts -> settings.isComments() ? loadComments(posts, pool)
+                        : CompletableFuture.completedFuture(null))
+                .orTimeout(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    pool.shutdownNow();
+                    durationSeconds = (System.nanoTime() - started) / 1e9;
+                    if (error == null) {
+                        state.set(State.COMPLETED);
+                        LOG.info("Cache warm-up completed in {}s: {} posts, {} comments",
+                                String.format("%.3f", durationSeconds), postsLoaded.sum(), commentsLoaded.sum());
+                    } else if (error instanceof TimeoutException) {
+                        state.set(State.TIMED_OUT);
+                        LOG.warn("Cache warm-up abandoned after {}: {} posts, {} comments loaded",
+                                settings.getTimeout(), postsLoaded.sum(), commentsLoaded.sum());
+                    } else {
+                        state.set(State.FAILED);
+                        LOG.warn("Cache warm-up failed, serving with cold caches: {}",
+                                (error.getCause() != null ? error.getCause() : error).toString());
+                    }
+                    return null;
+                });
+    }
+
+    private List<AuditionPost> loadPosts() {
+        final List<AuditionPost> posts = auditionService.getPosts();
+        postsLoaded.add(posts.size());
+        return posts;
+    }
+
+    private CompletableFuture<Void> loadComments(final List<AuditionPost> posts, final ExecutorService pool) {
+        if (bulkStrategy) {
+            return CompletableFuture.runAsync(() -> {
+                if (bulkComments.refresh()) {
+                    commentsLoaded.add(bulkComments.size());
+                }
+            }, pool);
+        }
+        return CompletableFuture.allOf(posts.stream()
+                .map(post -> CompletableFuture.runAsync(() -> loadComments(post), pool))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private void loadComments(final AuditionPost post) {
+        try {
+            commentsLoaded.add(auditionService.getCommentsForPost(String.valueOf(post.getId())).size());
+        } catch (final RuntimeException e) {
+            LOG.debug("Comments of post {} not warmed up: {}", post.getId(), e.toString());
+        }
+    }
+
+    /**
+     * Tells whether the warm-up is over, or disabled.
+     *
+     * @return true once the application may be reported ready
+     */
+    public boolean isDone() {
+        return state.get().isOver();
+    }
+
+    @Override
+    public Health health() {
+        final State current = state.get();
+        final Health.Builder health = current.isOver() ? Health.up() : Health.outOfService();
+        health.withDetail("state", current.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        if (current != State.DISABLED) {
+            health.withDetail("posts", postsLoaded.sum()).withDetail("comments", commentsLoaded.sum());
+        }
+        return health.build();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("audition.cache.warmup.duration", this, warmup -> warmup.durationSeconds)
+                .description("Seconds the startup cache warm-up took")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("audition.cache.warmup.items", postsLoaded, LongAdder::sum)
+                .description("Entries loaded by the startup cache warm-up")
+                .tag("cache", "posts")
+                .register(registry);
+        FunctionCounter.builder("audition.cache.warmup.items", commentsLoaded, LongAdder::sum)
+                .description("Entries loaded by the startup cache warm-up")
+                .tag("cache", "comments")
+                .register(registry);
+    }
+
+    private enum State {
+        DISABLED,
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        TIMED_OUT;
+
+        boolean isOver() {
+            return this != PENDING && this != RUNNING;
+        }
+    }
+}
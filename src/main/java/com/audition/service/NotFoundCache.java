@@ -0,0 +1,79 @@
+package com.audition.service;
+
+import com.audition.configuration.CachingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Negative cache of post ids the upstream answered with 404.
+ *
+ * The positive caches never hold a missing post (the 404 surfaces as an
+ * exception), so without this every probe of a nonexistent id is an upstream
+ * call. Post and comment lookups for a recorded id are answered locally.
+ *
+ * Entries live for a short TTL (audition.caching.not-found.ttl) and the cache is
+ * bounded (audition.caching.not-found.max-size), so a scan of random ids cannot
+ * grow it without limit and a post created upstream shows up soon.
+ *
+ * Lookups are exposed as cache.* meters for cache=not-found, apart from the
+ * positive caches: a hit is an upstream call saved.
+ *
+ * @author Farhan Rayani
+ */
+@Component
+public class NotFoundCache implements MeterBinder {
+
+    private final Cache<String, Boolean> entries;
+
+    @Autowired
+    public NotFoundCache(final CachingProperties cachingProperties) {
+        this(cachingProperties.getNotFound(), Ticker.systemTicker());
+    }
+
+    NotFoundCache(final CachingProperties.NotFound settings, final Ticker ticker) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns whether the upstream recently reported the post as missing.
+     *
+     * @param postId post id
+     * @return true on a negative hit
+     */
+    public boolean isMissing(final String postId) {
+        return entries.getIfPresent(postId) != null;
+    }
+
+    /**
+     * Records that the upstream reported the post as missing.
+     *
+     * @param postId post id
+     */
+    public void markMissing(final String postId) {
+        entries.put(postId, Boolean.TRUE);
+    }
+
+    /**
+     * Drops all entries, e.g. when the positive caches are evicted.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "not-found", Tags.of("cacheManager", "servlet"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.audition.service;
+
+import com.audition.common.cache.CacheEvictions;
+import com.audition.configuration.CacheConfiguration;
+import com.audition.integration.ReactiveAuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.configuration.CachingProperties;
+import com.audition.service.snapshot.PostSnapshotCache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service layer for the reactive (WebFlux) stack.
+ *
+ * Mirrors AuditionService on top of ReactiveAuditionIntegrationClient. Spring's
+ * cache abstraction cannot hold a Mono, so lookups go through Caffeine AsyncCaches
+ * with the same settings and names as the blocking caches. An AsyncCache keeps the
+ * in-flight future for a key, so concurrent misses for the same key share one
+ * upstream call and no thread waits for it.
+ *
+ * Empty results are not kept, matching the unless conditions of the blocking caches.
+ * All posts are served stale-while-revalidate from a PostSnapshotCache, like on
+ * the blocking stack; its reloads only subscribe to the WebClient call.
+ *
+ * @author Farhan Rayani
+ * @see AuditionService
+ */
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuditionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveAuditionService.class);
+
+    private final ReactiveAuditionIntegrationClient reactiveAuditionIntegrationClient;
+    private final PostSnapshotCache postSnapshotCache;
+    private final CacheEvictions cacheEvictions;
+    private final AsyncCache<String, AuditionPost> postCache;
+    private final AsyncCache<String, List<AuditionComment>> commentsCache;
+
+    public ReactiveAuditionService(final ReactiveAuditionIntegrationClient reactiveAuditionIntegrationClient,
+                                   final MeterRegistry meterRegistry, final CachingProperties cachingProperties) {
+        this.reactiveAuditionIntegrationClient = reactiveAuditionIntegrationClient;
+        final Tags tags = Tags.of("cacheManager", "reactive");
+        final CachingProperties.Posts posts = cachingProperties.getPosts();
+        this.postSnapshotCache = new PostSnapshotCache(
+                () -> reactiveAuditionIntegrationClient.getPosts().collectList().map(PostSnapshotCache.Fetch::fresh)
+                        .toFuture(),
+                posts.getSoftTtl(), posts.getHardTtl(), Runnable::run, tags);
+        postSnapshotCache.bindTo(meterRegistry);
+        this.cacheEvictions = new CacheEvictions(tags);
+        this.postCache = buildCache(cachingProperties, "posts");
+        this.commentsCache = buildCache(cachingProperties, "comments");
+        cacheEvictions.bindTo(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, postCache, "posts", tags);
+        CaffeineCacheMetrics.monitor(meterRegistry, commentsCache, "comments", tags);
+    }
+
+    private <V> AsyncCache<String, V> buildCache(final CachingProperties cachingProperties, final String name) {
+        return CacheConfiguration.caffeine(cachingProperties.cache(name))
+                .evictionListener(cacheEvictions.listener(name))
+                .buildAsync();
+    }
+
+    public Flux<AuditionPost> getPosts() {
+        return snapshot().flatMapIterable(posts -> posts);
+    }
+
+    public Flux<AuditionPost> getPostsWithFilter(final String userIdFilter, final String titleFilter) {
+        LOG.info("Fetching posts with filters - userId: {}, title: {}", userIdFilter, titleFilter);
+        return snapshot().flatMapIterable(posts -> AuditionService.filterPosts(posts, userIdFilter, titleFilter));
+    }
+
+    private Mono<List<AuditionPost>> snapshot() {
+        // A cancelled subscriber must not cancel the shared load
+        return Mono.defer(() -> Mono.fromFuture(postSnapshotCache.get(), true));
+    }
+
+    public Mono<AuditionPost> getPostById(final String postId) {
+        return cached(postCache, postId, () -> reactiveAuditionIntegrationClient.getPostById(postId));
+    }
+
+    /**
+     * Composes the post with its comments from the post and comments caches, both
+     * looked up concurrently; neither is modified and the result is not cached.
+     */
+    public Mono<AuditionPost> getPostByIdWithComments(final String postId) {
+        return Mono.zip(getPostById(postId), getCommentsForPost(postId).collectList(), AuditionPost::withComments);
+    }
+
+    public Flux<AuditionComment> getCommentsForPost(final String postId) {
+        return cached(commentsCache, postId,
+                () -> reactiveAuditionIntegrationClient.getCommentsByPostId(postId).collectList())
+                .flatMapIterable(comments -> comments);
+    }
+
+    @Scheduled(fixedDelay = 300000) // Clear cache every 5 minutes, like the blocking caches
+    public void clearCache() {
+        LOG.info("Clearing reactive post and comment caches");
+        postCache.synchronous().invalidateAll();
+        commentsCache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Looks the key up in the cache, subscribing to the loader on a miss. Failed or
+     * empty loads are removed so the next caller retries the upstream.
+     */
+    private static <T> Mono<T> cached(final AsyncCache<String, T> cache, final String key,
+                                      final Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            final CompletableFuture<T> future = cache.get(key, (k, executor) -> loader.get().toFuture());
+            return Mono.fromFuture(future, true) // a cancelled subscriber must not cancel the shared load
+                    .doOnSuccess(value -> {
+                        if (value == null || value instanceof List<?> list && list.isEmpty()) {
+                            cache.asMap().remove(key, future);
+                        }
+                    });
+        });
+    }
+}
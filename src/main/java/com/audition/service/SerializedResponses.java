@@ -0,0 +1,196 @@
+package com.audition.service;
+
+import com.audition.configuration.CachingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized JSON and ETags of the values held by the object caches.
+ *
+ * The service registers each value it caches (the posts snapshot, a post, the
+ * comments of a post). The first response for a registered value serializes it
+ * once and keeps:
+ * - a strong ETag, a 64-bit FNV-1a hash of the JSON (audition.caching.responses.etag)
+ * - the UTF-8 bytes, written by later responses instead of running Jackson
+ *   again, plus optionally a gzipped copy (audition.caching.responses.enabled)
+ *
+ * A value composed from registered parts per request (a post with its comments)
+ * is registered as a composite; its ETag is derived from the ETags of the parts,
+ * so it needs no serialization of its own. Filtered results are never registered.
+ *
+ * Entries are keyed by the identity of the cached value and held weakly, so
+ * they go away with it: a value evicted or replaced in its cache is no longer
+ * matched, and its bytes become collectable along with it. The service also
+ * clears all entries whenever it clears the object caches.
+ *
+ * With both settings off, registration is a no-op. Lookups are exposed as
+ * cache.* meters for cache=serialized-responses.
+ *
+ * @author Farhan Rayani
+ */
+@Component
+public class SerializedResponses implements MeterBinder {
+
+    private static final Object PENDING = new Object();
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ObjectMapper objectMapper;
+    private final boolean active;
+    private final boolean keepBytes;
+    private final boolean gzip;
+    private final long gzipMinSize;
+    private final Cache<Object, Object> entries = Caffeine.newBuilder()
+            .weakKeys()
+            .recordStats()
+            .build();
+
+    public SerializedResponses(final CachingProperties cachingProperties, final ObjectMapper objectMapper) {
+        final CachingProperties.Responses settings = cachingProperties.getResponses();
+        this.objectMapper = objectMapper;
+        this.keepBytes = settings.isEnabled();
+        this.active = keepBytes || settings.isEtag();
+        this.gzip = settings.isGzip();
+        this.gzipMinSize = settings.getGzipMinSize().toBytes();
+    }
+
+    /**
+     * Marks a cached value as one whose serialized form and ETag may be kept.
+     *
+     * @param value the value as held by its cache, may be null
+     * @param <T> value type
+     * @return the value
+     */
+    public <T> T register(final T value) {
+        if (active && value != null) {
+            entries.asMap().putIfAbsent(value, PENDING);
+        }
+        return value;
+    }
+
+    /**
+     * Marks a value composed from registered values; it gets an ETag derived from
+     * theirs, but its bytes are not kept.
+     *
+     * @param value the composed value
+     * @param parts the registered values it was built from
+     * @param <T> value type
+     * @return the value
+     */
+    public <T> T registerComposite(final T value, final Object... parts) {
+        if (active && value != null) {
+            entries.put(value, new Composite(List.of(parts)));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the stored JSON of a registered value, serializing it on first use.
+     *
+     * @param value the response body
+     * @return the stored bytes, or null if the value is not registered or bytes are not kept
+     * @throws IOException if serializing fails
+     */
+    public Serialized get(final Object value) throws IOException {
+        final Serialized serialized = serialized(value);
+        return serialized == null || serialized.json() == null ? null : serialized;
+    }
+
+    /**
+     * Returns the strong ETag of a registered value, serializing it on first use.
+     *
+     * @param value the response body
+     * @return the quoted ETag, or null if the value (or a part of it) is not registered
+     * @throws IOException if serializing fails
+     */
+    public String etag(final Object value) throws IOException {
+        final Long hash = hash(value);
+        return hash == null ? null : String.format("\"%016x\"", hash);
+    }
+
+    /**
+     * Drops all entries, e.g. when the object caches are cleared.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "serialized-responses", Tags.of("cacheManager", "servlet"));
+    }
+
+    private Long hash(final Object value) throws IOException {
+        if (value != null && entries.getIfPresent(value) instanceof Composite composite) {
+            long hash = FNV_OFFSET_BASIS;
+            for (final Object part : composite.parts()) {
+                final Long partHash = hash(part);
+                if (partHash == null) {
+                    return null;
+                }
+                for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                    hash = (hash ^ ((partHash >>> shift) & 0xff)) * FNV_PRIME;
+                }
+            }
+            return hash;
+        }
+        final Serialized serialized = serialized(value);
+        return serialized == null ? null : serialized.hash();
+    }
+
+    private Serialized serialized(final Object value) throws IOException {
+        final Object current = value == null ? null : entries.getIfPresent(value);
+        if (current == null || current instanceof Serialized) {
+            return (Serialized) current;
+        }
+        if (current != PENDING) {
+            return null; // A composite has no bytes of its own
+        }
+        final byte[] json = objectMapper.writeValueAsBytes(value);
+        final Serialized serialized = keepBytes
+                ? new Serialized(json, gzip && json.length >= gzipMinSize ? gzip(json) : null, fnv1a(json))
+                : new Serialized(null, null, fnv1a(json));
+        // A concurrent first use may have stored its copy already; either one is correct
+        entries.asMap().replace(value, PENDING, serialized);
+        return serialized;
+    }
+
+    private static long fnv1a(final byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (final byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static byte[] gzip(final byte[] json) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serialized form of a cached value.
+     *
+     * @param json the UTF-8 JSON, null if bytes are not kept
+     * @param gzip the gzipped JSON, null if not kept
+     * @param hash 64-bit FNV-1a hash of the JSON
+     */
+    public record Serialized(byte[] json, byte[] gzip, long hash) {
+    }
+
+    private record Composite(List<Object> parts) {
+    }
+}
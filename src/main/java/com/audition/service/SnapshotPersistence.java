@@ -0,0 +1,188 @@
+package com.audition.service;
+
+import com.audition.configuration.CachingProperties;
+import com.audition.service.snapshot.CommentSnapshot;
+import com.audition.service.snapshot.PostSnapshot;
+import com.audition.service.snapshot.PostSnapshotCache;
+import com.audition.service.snapshot.SnapshotFile;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the posts and bulk comments snapshots to a local file and restores them
+ * at startup.
+ *
+ * With audition.caching.persistence.enabled the snapshots are written every
+ * write-interval, and once more on shutdown, whenever they changed since the
+ * last write; only data fresh from the upstream is written. At startup, once
+ * all beans exist and before the web server accepts requests, a valid file is
+ * restored: its posts are served as a stale first load (Warning and Age headers,
+ * age taken from the file) and its comments are served by BulkComments with the
+ * bulk strategy. A background reload of the posts starts right away and replaces
+ * them once the upstream answers; if it is down, the restored data is served
+ * until the posts hard TTL. See SnapshotFile for the format and its checks.
+ *
+ * Meters:
+ * - audition.snapshot.file.writes - file writes by outcome (success, failure)
+ * - audition.snapshot.file.restored - entries restored at startup, tagged cache (posts, comments)
+ *
+ * @author Farhan Rayani
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SnapshotPersistence implements SmartInitializingSingleton, DisposableBean, SchedulingConfigurer,
+        MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotPersistence.class);
+
+    private final AuditionService auditionService;
+    private final BulkComments bulkComments;
+    private final CachingProperties.Persistence settings;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeFailed = new LongAdder();
+    private final LongAdder postsRestored = new LongAdder();
+    private final LongAdder commentsRestored = new LongAdder();
+    // Not a monitor: a virtual thread blocked in synchronized file I/O would pin its carrier
+    private final Lock writeLock = new ReentrantLock();
+    private PostSnapshot lastPosts;
+    private CommentSnapshot lastComments;
+
+    public SnapshotPersistence(final AuditionService auditionService, final BulkComments bulkComments,
+                               final CachingProperties cachingProperties) {
+        this.auditionService = auditionService;
+        this.bulkComments = bulkComments;
+        this.settings = cachingProperties.getPersistence();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (settings.isEnabled()) {
+            restore();
+        }
+    }
+
+    /**
+     * Serves the snapshots saved in the file and starts a background reload of the
+     * posts.
+     *
+     * @return true if anything was restored
+     */
+    public boolean restore() {
+        final Optional<SnapshotFile.Contents> contents = SnapshotFile.read(settings.getFile());
+        if (contents.isEmpty()) {
+            LOG.info("No valid snapshot file at {}, starting with empty caches", settings.getFile());
+            return false;
+        }
+        final SnapshotFile.Contents restored = contents.get();
+        final Duration age = Duration.between(restored.savedAt(), Instant.now());
+        final PostSnapshotCache posts = auditionService.postSnapshotCache();
+        final boolean postsServed = posts.seed(new PostSnapshotCache.Fetch(restored.posts(),
+                age.isNegative() ? Duration.ZERO : age));
+        final boolean commentsServed = bulkComments.seed(restored.comments(), restored.savedAt());
+        if (postsServed) {
+            postsRestored.add(restored.posts().size());
+            posts.refresh();
+        }
+        if (commentsServed) {
+            commentsRestored.add(restored.comments().size());
+        }
+        LOG.info("Restored {} posts and {} comments saved {} ago from {}", postsServed ? restored.posts().size() : 0,
+                commentsServed ? restored.comments().size() : 0, age, settings.getFile());
+        return postsServed || commentsServed;
+    }
+
+    /**
+     * Writes the current snapshots if they changed since the last write. A call
+     * made while another is writing waits for it, then writes only if the data
+     * changed meanwhile.
+     *
+     * @return true if the file was written
+     */
+    public boolean save() {
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            return writeIfChanged();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean writeIfChanged() {
+        final PostSnapshotCache cache = auditionService.postSnapshotCache();
+        final Optional<PostSnapshot> posts = cache.ifLoaded();
+        if (posts.isEmpty()) {
+            return false; // Nothing fresh; keep the file from the last time there was
+        }
+        final CommentSnapshot comments = bulkComments.ifLoaded().orElseGet(CommentSnapshot::empty);
+        if (posts.get() == lastPosts && comments == lastComments) {
+            return false;
+        }
+        final Instant loadedAt = Instant.now().minusMillis((long) (cache.ageSeconds() * 1000));
+        try {
+            final long bytes = SnapshotFile.write(settings.getFile(), posts.get(), comments, loadedAt);
+            lastPosts = posts.get();
+            lastComments = comments;
+            written.increment();
+            LOG.debug("Wrote {} posts and {} comments ({} bytes) to {}", posts.get().size(), comments.size(),
+                    bytes, settings.getFile());
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            writeFailed.increment();
+            LOG.warn("Could not write snapshot file {}: {}", settings.getFile(), e.toString());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        if (settings.isEnabled()) {
+            final Duration interval = settings.getWriteInterval();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(this::save, interval, interval));
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("audition.snapshot.file.writes", written, LongAdder::sum)
+                .description("Writes of the snapshot file")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("audition.snapshot.file.writes", writeFailed, LongAdder::sum)
+                .description("Writes of the snapshot file")
+                .tag("outcome", "failure")
+                .register(registry);
+        FunctionCounter.builder("audition.snapshot.file.restored", postsRestored, LongAdder::sum)
+                .description("Entries restored from the snapshot file at startup")
+                .tag("cache", "posts")
+                .register(registry);
+        FunctionCounter.builder("audition.snapshot.file.restored", commentsRestored, LongAdder::sum)
+                .description("Entries restored from the snapshot file at startup")
+                .tag("cache", "comments")
+                .register(registry);
+    }
+}
@@ -0,0 +1,246 @@
+package com.audition.service.snapshot;
+
+import com.audition.model.AuditionComment;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of all comments, grouped by post.
+ *
+ * Built from one download of the full comments collection, so every per-post
+ * comments lookup is answered locally. Comments are grouped by postId into
+ * immutable lists, in upstream order, held in an open-addressing table keyed
+ * by the primitive postId; a lookup is one hash and a short probe with no
+ * boxing. The same list instance is returned for a post until the snapshot is
+ * replaced, so it can carry an ETag and stored JSON like any cached value.
+ *
+ * Deserializing a JSON array as a CommentSnapshot streams it, grouping each
+ * comment as it is parsed.
+ *
+ * @author Farhan Rayani
+ */
+@JsonDeserialize(using = CommentSnapshot.JsonArrayReader.class)
+public final class CommentSnapshot implements Iterable<AuditionComment> {
+
+    private static final CommentSnapshot EMPTY = new Builder().build();
+
+    private final int[] postIds;
+    private final List<AuditionComment>[] comments;
+    private final int mask;
+    private final int size;
+
+    private CommentSnapshot(final int[] postIds, final List<AuditionComment>[] comments, final int size) {
+        this.postIds = postIds;
+        this.comments = comments;
+        this.mask = postIds.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Returns the snapshot with no comments.
+     *
+     * @return the empty snapshot
+     */
+    public static CommentSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Groups the given comments by post.
+     *
+     * @param comments comments in upstream order, may be null
+     * @return the snapshot
+     */
+    public static CommentSnapshot of(final List<AuditionComment> comments) {
+        if (comments == null || comments.isEmpty()) {
+            return EMPTY;
+        }
+        final Builder builder = builder();
+        comments.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder that groups comments as they are added.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the comments of a post.
+     *
+     * @param postId the post id
+     * @return the post's comments in upstream order, empty if it has none
+     */
+    public List<AuditionComment> forPost(final int postId) {
+        int slot = hash(postId) & mask;
+        while (comments[slot] != null) {
+            if (postIds[slot] == postId) {
+                return comments[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Iterates over all comments, post by post, each post's comments in upstream order.
+     *
+     * @return an iterator over the comments
+     */
+    @Override
+    public Iterator<AuditionComment> iterator() {
+        return Arrays.stream(comments).filter(Objects::nonNull).flatMap(List::stream).iterator();
+    }
+
+    /**
+     * Returns the number of comments in the snapshot.
+     *
+     * @return the comment count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the snapshot holds no comments.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int slotFor(final int[] keys, final Object[] values, final int key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Power-of-two table at most half full. */
+    private static int tableSize(final int entries) {
+        return Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+    }
+
+    private static int hash(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Builds a snapshot one comment at a time. Per-post arrays grow by doubling
+     * and the table by rehashing at half full; build() copies each group into an
+     * exact-size immutable list.
+     */
+    public static final class Builder {
+
+        private int[] postIds = new int[tableSize(0)];
+        private AuditionComment[][] groups = new AuditionComment[postIds.length][];
+        private int[] sizes = new int[postIds.length];
+        private int distinct;
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a comment to its post's group; null comments are skipped.
+         *
+         * @param comment the next comment in upstream order
+         * @return this builder
+         */
+        public Builder add(final AuditionComment comment) {
+            if (comment == null) {
+                return this;
+            }
+            if ((distinct + 1) * 2 > postIds.length) {
+                rehash(postIds.length << 1);
+            }
+            final int slot = slotFor(postIds, groups, comment.getPostId());
+            if (groups[slot] == null) {
+                postIds[slot] = comment.getPostId();
+                groups[slot] = new AuditionComment[4];
+                distinct++;
+            } else if (sizes[slot] == groups[slot].length) {
+                groups[slot] = Arrays.copyOf(groups[slot], sizes[slot] << 1);
+            }
+            groups[slot][sizes[slot]++] = comment;
+            size++;
+            return this;
+        }
+
+        /**
+         * Returns the snapshot of the comments added so far.
+         *
+         * @return the snapshot
+         */
+        public CommentSnapshot build() {
+            if (size == 0 && EMPTY != null) {
+                return EMPTY;
+            }
+            final int[] finalPostIds = new int[tableSize(distinct)];
+            // No generic array creation in Java; every slot is only ever given a List<AuditionComment>
+            @SuppressWarnings("unchecked")
+            final List<AuditionComment>[] finalComments = (List<AuditionComment>[]) new List<?>[finalPostIds.length];
+            for (int i = 0; i < postIds.length; i++) {
+                if (groups[i] != null) {
+                    final int slot = slotFor(finalPostIds, finalComments, postIds[i]);
+                    finalPostIds[slot] = postIds[i];
+                    finalComments[slot] = List.copyOf(Arrays.asList(groups[i]).subList(0, sizes[i]));
+                }
+            }
+            return new CommentSnapshot(finalPostIds, finalComments, size);
+        }
+
+        private void rehash(final int capacity) {
+            final int[] oldPostIds = postIds;
+            final AuditionComment[][] oldGroups = groups;
+            final int[] oldSizes = sizes;
+            postIds = new int[capacity];
+            groups = new AuditionComment[capacity][];
+            sizes = new int[capacity];
+            for (int i = 0; i < oldPostIds.length; i++) {
+                if (oldGroups[i] != null) {
+                    final int slot = slotFor(postIds, groups, oldPostIds[i]);
+                    postIds[slot] = oldPostIds[i];
+                    groups[slot] = oldGroups[i];
+                    sizes[slot] = oldSizes[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON array of comments straight into a {@link Builder}.
+     */
+    static final class JsonArrayReader extends StdDeserializer<CommentSnapshot> {
+
+        private static final long serialVersionUID = 1L;
+
+        JsonArrayReader() {
+            super(CommentSnapshot.class);
+        }
+
+        @Override
+        public CommentSnapshot deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            final Builder builder = builder();
+            JsonArrays.forEach(parser, context, CommentSnapshot.class, AuditionComment.class, builder::add);
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.audition.service.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Immutable primitive map from post id to the position of that post.
+ *
+ * Open addressing with linear probing over parallel int[] keys and int[]
+ * positions, so a lookup is one hash and a short probe with no boxing.
+ * Positions are stored plus one, leaving 0 to mark an empty slot. If the
+ * upstream repeats an id, the first post with it wins.
+ *
+ * @author Farhan Rayani
+ */
+final class IdIndex {
+
+    static final int ABSENT = -1;
+
+    private final int[] keys;
+    private final int[] positions;
+    private final int mask;
+
+    private IdIndex(final int[] keys, final int[] positions) {
+        this.keys = keys;
+        this.positions = positions;
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * Returns the position of the post with the id, or ABSENT.
+     */
+    int positionOf(final int id) {
+        int slot = hash(id) & mask;
+        while (positions[slot] != 0) {
+            if (keys[slot] == id) {
+                return positions[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    private static int slotFor(final int[] keys, final int[] positions, final int key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (positions[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Accumulates the index while posts are added in snapshot order; the table
+     * grows by rehashing at half full.
+     */
+    static final class Builder {
+
+        private int[] keys = new int[16];
+        private int[] positions = new int[keys.length];
+        private int size;
+
+        void add(final int id, final int position) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length << 1);
+            }
+            final int slot = slotFor(keys, positions, id);
+            if (positions[slot] == 0) {
+                keys[slot] = id;
+                positions[slot] = position + 1;
+                size++;
+            }
+        }
+
+        IdIndex build() {
+            final int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+            if (capacity < keys.length) {
+                rehash(capacity);
+            }
+            return new IdIndex(Arrays.copyOf(keys, keys.length), Arrays.copyOf(positions, positions.length));
+        }
+
+        private void rehash(final int capacity) {
+            final int[] oldKeys = keys;
+            final int[] oldPositions = positions;
+            keys = new int[capacity];
+            positions = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldPositions[i] != 0) {
+                    final int slot = slotFor(keys, positions, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    positions[slot] = oldPositions[i];
+                }
+            }
+        }
+    }
+
+    private static int hash(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,53 @@
+package com.audition.service.snapshot;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Streams the elements of a JSON array to a consumer, one element at a time.
+ *
+ * Used by the snapshot deserializers, so a snapshot and its indexes are built
+ * while the response is parsed instead of from a fully materialized array.
+ * Null elements are skipped.
+ *
+ * @author Farhan Rayani
+ */
+final class JsonArrays {
+
+    private JsonArrays() {
+    }
+
+    /**
+     * Parses the array at the current token and passes each element on.
+     *
+     * @param parser parser positioned at the start of the array
+     * @param context deserialization context
+     * @param target the type being deserialized, for error reporting
+     * @param elementType element type
+     * @param action receives each non-null element, in order
+     * @param <T> element type
+     * @throws IOException if the input is not a complete array of elements
+     */
+    static <T> void forEach(final JsonParser parser, final DeserializationContext context, final Class<?> target,
+                            final Class<T> elementType, final Consumer<T> action) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            context.handleUnexpectedToken(target, parser);
+            return;
+        }
+        final JsonDeserializer<Object> elementReader =
+                context.findRootValueDeserializer(context.constructType(elementType));
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == null) {
+                context.reportInputMismatch(target, "Unexpected end of input in the %s array",
+                        elementType.getSimpleName());
+            }
+            if (token != JsonToken.VALUE_NULL) {
+                action.accept(elementType.cast(elementReader.deserialize(parser, context)));
+            }
+        }
+    }
+}
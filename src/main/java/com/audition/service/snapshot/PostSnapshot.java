@@ -0,0 +1,206 @@
+package com.audition.service.snapshot;
+
+import com.audition.model.AuditionPost;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable snapshot of all posts together with its lookup indexes.
+ *
+ * A snapshot is built once when the all-posts data is loaded and cached as the
+ * value itself, so a cache refresh swaps posts and indexes in one step and
+ * readers never see an index that belongs to different data. It is a read-only
+ * List of the posts in upstream order, so callers that just want the posts can
+ * treat it as one.
+ *
+ * Indexes:
+ * - id - primitive post id to position map, so a single post is found without a scan
+ * - userId - primitive userId to positions map, O(1) lookup plus O(k) materialization
+ * - title - trigram posting lists over the lowercased titles, see TitleIndex
+ *
+ * Both indexes are built incrementally by a {@link Builder}, one post at a time.
+ * Deserializing a JSON array as a PostSnapshot streams it: each element is
+ * parsed from the token stream and added to the builder as it arrives, so no
+ * intermediate array or list of the whole response is materialized.
+ *
+ * @author Farhan Rayani
+ */
+@JsonDeserialize(using = PostSnapshot.JsonArrayReader.class)
+public final class PostSnapshot extends AbstractList<AuditionPost> implements RandomAccess {
+
+    private static final PostSnapshot EMPTY = new Builder().build();
+
+    private final AuditionPost[] posts;
+    private final IdIndex idIndex;
+    private final UserIdIndex userIdIndex;
+    private final TitleIndex titleIndex;
+
+    private PostSnapshot(final AuditionPost[] posts, final IdIndex idIndex, final UserIdIndex userIdIndex,
+                         final TitleIndex titleIndex) {
+        this.posts = posts;
+        this.idIndex = idIndex;
+        this.userIdIndex = userIdIndex;
+        this.titleIndex = titleIndex;
+    }
+
+    /**
+     * Builds a snapshot of the given posts, or returns them as-is if they already are one.
+     *
+     * @param posts posts in upstream order
+     * @return the indexed snapshot
+     */
+    public static PostSnapshot of(final List<AuditionPost> posts) {
+        if (posts instanceof PostSnapshot snapshot) {
+            return snapshot;
+        }
+        if (posts == null || posts.isEmpty()) {
+            return EMPTY;
+        }
+        final Builder builder = builder();
+        posts.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder that indexes posts as they are added.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuditionPost get(final int index) {
+        return posts[index];
+    }
+
+    @Override
+    public int size() {
+        return posts.length;
+    }
+
+    /**
+     * Returns the post with the given id.
+     *
+     * @param id the post id
+     * @return the post, or null if the snapshot has none with that id
+     */
+    public AuditionPost byId(final int id) {
+        final int position = idIndex.positionOf(id);
+        return position == IdIndex.ABSENT ? null : posts[position];
+    }
+
+    /**
+     * Returns the posts matching every given filter, in snapshot order.
+     *
+     * With both filters the user's positions are intersected with the title
+     * candidates before any title is verified.
+     *
+     * @param userId exact userId to match, or null for any user
+     * @param titleFilter case-insensitive title substring, or null/blank for any title
+     * @return matching posts
+     */
+    public List<AuditionPost> filter(final Integer userId, final String titleFilter) {
+        final boolean byTitle = titleFilter != null && !titleFilter.isBlank();
+        if (userId == null) {
+            return byTitle ? materialize(titleIndex.matching(titleFilter, null)) : this;
+        }
+        final int[] userPositions = userIdIndex.positionsOf(userId);
+        if (!byTitle || userPositions.length == 0) {
+            return materialize(userPositions);
+        }
+        return materialize(titleIndex.matching(titleFilter, userPositions));
+    }
+
+    int distinctUsers() {
+        return userIdIndex.distinctUsers();
+    }
+
+    private List<AuditionPost> materialize(final int[] positions) {
+        if (positions.length == 0) {
+            return Collections.emptyList();
+        }
+        final AuditionPost[] result = new AuditionPost[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            result[i] = posts[positions[i]];
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Builds a snapshot one post at a time, indexing each post as it is added.
+     */
+    public static final class Builder {
+
+        private AuditionPost[] posts = new AuditionPost[16];
+        private int size;
+        private final IdIndex.Builder ids = new IdIndex.Builder();
+        private final UserIdIndex.Builder userIds = new UserIdIndex.Builder();
+        private final TitleIndex.Builder titles = new TitleIndex.Builder();
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a post; null posts are skipped.
+         *
+         * @param post the next post in upstream order
+         * @return this builder
+         */
+        public Builder add(final AuditionPost post) {
+            if (post == null) {
+                return this;
+            }
+            if (size == posts.length) {
+                posts = Arrays.copyOf(posts, size << 1);
+            }
+            posts[size] = post;
+            ids.add(post.getId(), size);
+            userIds.add(post.getUserId(), size);
+            titles.add(post.getTitle(), size);
+            size++;
+            return this;
+        }
+
+        /**
+         * Returns the snapshot of the posts added so far.
+         *
+         * @return the snapshot
+         */
+        public PostSnapshot build() {
+            if (size == 0 && EMPTY != null) {
+                return EMPTY;
+            }
+            return new PostSnapshot(Arrays.copyOf(posts, size), ids.build(), userIds.build(), titles.build());
+        }
+    }
+
+    /**
+     * Reads a JSON array of posts straight into a {@link Builder}.
+     */
+    static final class JsonArrayReader extends StdDeserializer<PostSnapshot> {
+
+        private static final long serialVersionUID = 1L;
+
+        JsonArrayReader() {
+            super(PostSnapshot.class);
+        }
+
+        @Override
+        public PostSnapshot deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            final Builder builder = builder();
+            JsonArrays.forEach(parser, context, PostSnapshot.class, AuditionPost.class, builder::add);
+            return builder.build();
+        }
+    }
+}
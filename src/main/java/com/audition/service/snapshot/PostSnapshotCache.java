@@ -0,0 +1,316 @@
+package com.audition.service.snapshot;
+
+import com.audition.model.AuditionPost;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stale-while-revalidate holder for the all-posts snapshot.
+ *
+ * Backed by a single-entry Caffeine AsyncLoadingCache:
+ * - soft TTL (refreshAfterWrite) - the first read after it starts one background
+ *   reload on the executor; every caller keeps getting the current snapshot
+ * - hard TTL - measured from when the served data was loaded; after it the entry
+ *   expires and the next read waits for the upstream
+ *
+ * A reload that fails or returns no posts keeps the current snapshot, so an
+ * upstream outage is absorbed until the hard TTL. The first load runs on the
+ * calling thread outside any cache lock, and concurrent first readers share it.
+ * Empty or failed first loads are not kept.
+ *
+ * A fetch the upstream client answered from its last-known-good store is marked
+ * stale. A stale first load is served (and expires a hard TTL from now), with
+ * its age taken from the original fetch; a stale reload counts as a failure.
+ *
+ * Meters, tagged with the owner's tags:
+ * - audition.posts.snapshot.age - seconds since the served data was loaded (NaN when empty)
+ * - audition.posts.snapshot.refreshes - background reloads by outcome (success, failure)
+ * - cache.* for cache=posts-snapshot
+ *
+ * @author Farhan Rayani
+ */
+public final class PostSnapshotCache implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostSnapshotCache.class);
+    private static final String KEY = "all-posts";
+
+    private final Supplier<CompletableFuture<Fetch>> loader;
+    private final Tags tags;
+    private final Ticker ticker;
+    private final long hardTtlNanos;
+    private final AsyncLoadingCache<String, Loaded> cache;
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder refreshFailed = new LongAdder();
+
+    /**
+     * Creates the holder.
+     *
+     * @param loader fetches all posts; called on the reading thread for the first load
+     *               and on the executor for background reloads
+     * @param softTtl age after which a read triggers a background reload
+     * @param hardTtl age after which the snapshot is no longer served
+     * @param executor runs background reloads
+     * @param tags tags for the meters bound by this holder
+     */
+    public PostSnapshotCache(final Supplier<CompletableFuture<Fetch>> loader, final Duration softTtl,
+                             final Duration hardTtl, final Executor executor, final Tags tags) {
+        this(loader, softTtl, hardTtl, executor, tags, Ticker.systemTicker());
+    }
+
+    PostSnapshotCache(final Supplier<CompletableFuture<Fetch>> loader, final Duration softTtl,
+                      final Duration hardTtl, final Executor executor, final Tags tags, final Ticker ticker) {
+        this.loader = loader;
+        this.tags = tags;
+        this.ticker = ticker;
+        this.hardTtlNanos = hardTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .refreshAfterWrite(softTtl)
+                .expireAfter(new HardTtl())
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(new Reloader());
+    }
+
+    /**
+     * Returns the current snapshot, loading it if there is none. Never waits for a
+     * background reload.
+     *
+     * @return the snapshot, empty if the upstream returned no posts
+     */
+    public CompletableFuture<PostSnapshot> get() {
+        CompletableFuture<Loaded> current = cache.getIfPresent(KEY);
+        if (current == null) {
+            final CompletableFuture<Loaded> load = new CompletableFuture<>();
+            current = cache.asMap().putIfAbsent(KEY, load);
+            if (current == null) {
+                current = load;
+                load().whenComplete((loaded, error) -> {
+                    if (error != null || loaded == null) {
+                        cache.asMap().remove(KEY, load);
+                    }
+                    if (error != null) {
+                        load.completeExceptionally(error);
+                    } else {
+                        load.complete(loaded);
+                    }
+                });
+            }
+        }
+        return current.thenApply(loaded -> loaded == null ? PostSnapshot.of(null) : loaded.snapshot());
+    }
+
+    /**
+     * Blocking variant of get() that rethrows the loader's own runtime exception.
+     *
+     * @return the snapshot, empty if the upstream returned no posts
+     */
+    public PostSnapshot join() {
+        try {
+            return get().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the snapshot if one is loaded from fresh upstream data, without
+     * loading or refreshing it.
+     *
+     * @return the snapshot, or empty if none is loaded or it came from the last-known-good store
+     */
+    public Optional<PostSnapshot> ifLoaded() {
+        return current().filter(loaded -> !loaded.lastKnownGood()).map(Loaded::snapshot);
+    }
+
+    /**
+     * Returns the age of the served data if it came from the last-known-good store.
+     *
+     * @return the age, or empty if the snapshot is fresh or absent
+     */
+    public Optional<Duration> lastKnownGoodAge() {
+        return current().filter(Loaded::lastKnownGood)
+                .map(loaded -> Duration.ofNanos(ticker.read() - loaded.loadedAt()));
+    }
+
+    /**
+     * Installs a snapshot obtained elsewhere, such as a file written by an earlier
+     * run, if none is loaded yet. A stale fetch is served like a stale first load.
+     *
+     * @param fetch the posts and, if they are not current, their age
+     * @return true if the fetch is now served
+     */
+    public boolean seed(final Fetch fetch) {
+        final Loaded loaded = toLoaded(fetch);
+        return loaded != null && cache.asMap().putIfAbsent(KEY, CompletableFuture.completedFuture(loaded)) == null;
+    }
+
+    /**
+     * Starts a background reload of the served snapshot, as if its soft TTL had
+     * passed; does nothing if there is none.
+     */
+    public void refresh() {
+        if (current().isPresent()) {
+            cache.synchronous().refresh(KEY);
+        }
+    }
+
+    /**
+     * Drops the snapshot; the next read loads it again.
+     */
+    public void invalidate() {
+        cache.synchronous().invalidate(KEY);
+    }
+
+    /**
+     * Returns how long ago the served data was loaded from the upstream.
+     *
+     * @return the age in seconds, or NaN if there is no snapshot
+     */
+    public double ageSeconds() {
+        return current().map(loaded -> (ticker.read() - loaded.loadedAt()) / 1e9).orElse(Double.NaN);
+    }
+
+    /**
+     * The loaded entry, without triggering a load or refresh.
+     */
+    private Optional<Loaded> current() {
+        final CompletableFuture<Loaded> current = cache.asMap().get(KEY);
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.join());
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("audition.posts.snapshot.age", this, PostSnapshotCache::ageSeconds)
+                .description("Seconds since the served posts snapshot was loaded from the upstream")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("audition.posts.snapshot.refreshes", refreshed, LongAdder::sum)
+                .description("Background reloads of the posts snapshot")
+                .tags(tags).tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("audition.posts.snapshot.refreshes", refreshFailed, LongAdder::sum)
+                .description("Background reloads of the posts snapshot")
+                .tags(tags).tag("outcome", "failure")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, cache, "posts-snapshot", tags);
+    }
+
+    /**
+     * Calls the loader, turning an empty result into null so it is not cached.
+     */
+    private CompletableFuture<Loaded> load() {
+        final CompletableFuture<Fetch> fetch;
+        try {
+            fetch = loader.get();
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return fetch.thenApply(this::toLoaded);
+    }
+
+    private Loaded toLoaded(final Fetch fetched) {
+        if (fetched == null || fetched.posts() == null || fetched.posts().isEmpty()) {
+            return null;
+        }
+        final long now = ticker.read();
+        final long age = fetched.isStale() ? fetched.staleAge().toNanos() : 0L;
+        return new Loaded(PostSnapshot.of(fetched.posts()), now - age, now + hardTtlNanos, fetched.isStale());
+    }
+
+    /**
+     * Result of one upstream fetch.
+     *
+     * @param posts the posts
+     * @param staleAge age of the posts if the client served them from its last-known-good store, else null
+     */
+    public record Fetch(List<AuditionPost> posts, Duration staleAge) {
+
+        public static Fetch fresh(final List<AuditionPost> posts) {
+            return new Fetch(posts, null);
+        }
+
+        public boolean isStale() {
+            return staleAge != null;
+        }
+    }
+
+    private record Loaded(PostSnapshot snapshot, long loadedAt, long expiresAt, boolean lastKnownGood) {
+    }
+
+    private final class Reloader implements AsyncCacheLoader<String, Loaded> {
+
+        @Override
+        public CompletableFuture<Loaded> asyncLoad(final String key, final Executor executor) {
+            return CompletableFuture.supplyAsync(PostSnapshotCache.this::load, executor)
+                    .thenCompose(future -> future);
+        }
+
+        @Override
+        public CompletableFuture<Loaded> asyncReload(final String key, final Loaded oldValue,
+                                                     final Executor executor) {
+            return asyncLoad(key, executor).handle((loaded, error) -> {
+                if (error == null && loaded != null && !loaded.lastKnownGood()) {
+                    refreshed.increment();
+                    return loaded;
+                }
+                refreshFailed.increment();
+                LOG.warn("Posts snapshot refresh failed, still serving data loaded {}s ago: {}",
+                        (ticker.read() - oldValue.loadedAt()) / 1_000_000_000L,
+                        error != null ? error.toString()
+                                : loaded == null ? "upstream returned no posts" : "upstream is down");
+                return oldValue;
+            });
+        }
+    }
+
+    /**
+     * Expires an entry a hard TTL after it was loaded; keeping the old value on a
+     * failed reload does not extend its life.
+     */
+    private static final class HardTtl implements Expiry<String, Loaded> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Loaded value, final long currentTime) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Loaded value, final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Loaded value, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.audition.service.snapshot;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary file holding a posts snapshot and a comments snapshot.
+ *
+ * Layout, big-endian:
+ * - header (32 bytes) - magic "AUDS", format version, save time (epoch millis),
+ *   payload length and the CRC32C of the payload
+ * - payload - the post count, then per post id, userId, title and body; the
+ *   comment count, then per comment postId, id, name, email and body
+ *
+ * Strings are a byte length (-1 for null) followed by UTF-8 bytes. The file is
+ * read through a read-only memory mapping, so the payload is decoded straight
+ * from the page cache into the snapshot builders. A file with another magic or
+ * version, a length that does not match, or a failing checksum is ignored, as
+ * is one that cannot be decoded. Writes go to a temporary file that is then
+ * moved over the old one, so a reader never sees a partial file.
+ *
+ * @author Farhan Rayani
+ */
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x41554453;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotFile.class);
+    private static final int NULL_STRING = -1;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes the snapshots, replacing the file.
+     *
+     * @param file target file; parent directories are created
+     * @param posts the posts to keep
+     * @param comments the comments to keep
+     * @param savedAt when the data was current
+     * @return the size of the written file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(final Path file, final PostSnapshot posts, final CommentSnapshot comments,
+                             final Instant savedAt) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream payload = new DataOutputStream(bytes)) {
+            payload.writeInt(posts.size());
+            for (final AuditionPost post : posts) {
+                payload.writeInt(post.getId());
+                payload.writeInt(post.getUserId());
+                writeString(payload, post.getTitle());
+                writeString(payload, post.getBody());
+            }
+            payload.writeInt(comments.size());
+            for (final AuditionComment comment : comments) {
+                payload.writeInt(comment.getPostId());
+                payload.writeInt(comment.getId());
+                writeString(payload, comment.getName());
+                writeString(payload, comment.getEmail());
+                writeString(payload, comment.getBody());
+            }
+        }
+        final byte[] body = bytes.toByteArray();
+        final CRC32C checksum = new CRC32C();
+        checksum.update(body);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(savedAt.toEpochMilli())
+                .putLong(body.length)
+                .putInt((int) checksum.getValue())
+                .putInt(0)
+                .flip();
+
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer payload = ByteBuffer.wrap(body);
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, payload});
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HEADER_SIZE + (long) body.length;
+    }
+
+    /**
+     * Reads the snapshots from the file.
+     *
+     * @param file the file
+     * @return the contents, or empty if there is no file or it is not valid
+     */
+    public static Optional<Contents> read(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                LOG.warn("Ignoring snapshot file {}: unexpected size {}", file, size);
+                return Optional.empty();
+            }
+            final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final int magic = mapped.getInt();
+            final int version = mapped.getInt();
+            final long savedAt = mapped.getLong();
+            final long length = mapped.getLong();
+            final int expectedChecksum = mapped.getInt();
+            mapped.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                LOG.warn("Ignoring snapshot file {}: not a version {} snapshot", file, VERSION);
+                return Optional.empty();
+            }
+            if (length != size - HEADER_SIZE) {
+                LOG.warn("Ignoring snapshot file {}: truncated ({} of {} payload bytes)", file,
+                        size - HEADER_SIZE, length);
+                return Optional.empty();
+            }
+            final CRC32C checksum = new CRC32C();
+            checksum.update(mapped.slice());
+            if ((int) checksum.getValue() != expectedChecksum) {
+                LOG.warn("Ignoring snapshot file {}: checksum mismatch", file);
+                return Optional.empty();
+            }
+            return Optional.of(decode(mapped, Instant.ofEpochMilli(savedAt)));
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+            LOG.warn("Ignoring unreadable snapshot file {}: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static Contents decode(final ByteBuffer payload, final Instant savedAt) {
+        final PostSnapshot.Builder posts = PostSnapshot.builder();
+        for (int i = checkedCount(payload); i > 0; i--) {
+            posts.add(AuditionPost.builder()
+                    .id(payload.getInt())
+                    .userId(payload.getInt())
+                    .title(readString(payload))
+                    .body(readString(payload))
+                    .build());
+        }
+        final CommentSnapshot.Builder comments = CommentSnapshot.builder();
+        for (int i = checkedCount(payload); i > 0; i--) {
+            comments.add(AuditionComment.builder()
+                    .postId(payload.getInt())
+                    .id(payload.getInt())
+                    .name(readString(payload))
+                    .email(readString(payload))
+                    .body(readString(payload))
+                    .build());
+        }
+        if (payload.hasRemaining()) {
+            throw new IllegalArgumentException(payload.remaining() + " trailing bytes");
+        }
+        return new Contents(posts.build(), comments.build(), savedAt);
+    }
+
+    private static int checkedCount(final ByteBuffer payload) {
+        final int count = payload.getInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("negative count " + count);
+        }
+        return count;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(final ByteBuffer payload) {
+        final int length = payload.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length < 0 || length > payload.remaining()) {
+            throw new IllegalArgumentException("bad string length " + length);
+        }
+        final byte[] utf8 = new byte[length];
+        payload.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Snapshots read from a file.
+     *
+     * @param posts the posts
+     * @param comments the comments, grouped by post
+     * @param savedAt when the data was current
+     */
+    public record Contents(PostSnapshot posts, CommentSnapshot comments, Instant savedAt) {
+    }
+}
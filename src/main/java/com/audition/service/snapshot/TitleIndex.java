@@ -0,0 +1,246 @@
+package com.audition.service.snapshot;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Trigram index over post titles for case-insensitive substring search.
+ *
+ * Titles are lowercased once, as the snapshot is built. Every distinct
+ * three-character sequence of a lowercased title maps to an ascending int[]
+ * posting list of the positions whose title contains it. A query for a needle
+ * of three or more characters intersects the posting lists of the needle's
+ * trigrams, smallest first, and verifies the few remaining candidates with a
+ * plain contains on the pre-lowercased title. Shorter needles, which have no
+ * trigram, are verified against the pre-lowercased titles directly.
+ *
+ * Trigrams are packed into a long (three UTF-16 chars) and kept in an
+ * open-addressing table, so neither building nor querying boxes.
+ *
+ * @author Farhan Rayani
+ */
+final class TitleIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+    private static final int GRAM = 3;
+
+    private final String[] lowerTitles;
+    private final long[] keys;
+    private final int[][] postings;
+    private final int mask;
+
+    private TitleIndex(final String[] lowerTitles, final long[] keys, final int[][] postings) {
+        this.lowerTitles = lowerTitles;
+        this.keys = keys;
+        this.postings = postings;
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * Returns the ascending positions whose title contains the needle, ignoring case.
+     *
+     * @param needle the substring to look for, not blank
+     * @param restrictTo ascending positions to search within, or null for all posts
+     * @return matching positions
+     */
+    int[] matching(final String needle, final int[] restrictTo) {
+        final String lowerNeedle = needle.toLowerCase(Locale.ROOT);
+        final int[] candidates = lowerNeedle.length() < GRAM
+                ? restrictTo
+                : candidatesFor(lowerNeedle, restrictTo);
+        if (candidates == null) {
+            return verifyAll(lowerNeedle);
+        }
+
+        final int[] result = new int[candidates.length];
+        int count = 0;
+        for (final int position : candidates) {
+            if (contains(position, lowerNeedle)) {
+                result[count++] = position;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private int[] candidatesFor(final String lowerNeedle, final int[] restrictTo) {
+        final long[] grams = distinctGrams(lowerNeedle);
+        final int[][] lists = new int[grams.length + (restrictTo == null ? 0 : 1)][];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postingsOf(grams[i]);
+            if (lists[i].length == 0) {
+                return NO_POSITIONS;
+            }
+        }
+        if (restrictTo != null) {
+            lists[grams.length] = restrictTo;
+        }
+
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        return candidates;
+    }
+
+    private int[] verifyAll(final String lowerNeedle) {
+        final int[] result = new int[lowerTitles.length];
+        int count = 0;
+        for (int position = 0; position < lowerTitles.length; position++) {
+            if (contains(position, lowerNeedle)) {
+                result[count++] = position;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private boolean contains(final int position, final String lowerNeedle) {
+        return lowerTitles[position] != null && lowerTitles[position].contains(lowerNeedle);
+    }
+
+    private int[] postingsOf(final long gram) {
+        int slot = hash(gram) & mask;
+        while (postings[slot] != null) {
+            if (keys[slot] == gram) {
+                return postings[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_POSITIONS;
+    }
+
+    /**
+     * Intersects two ascending lists. The smaller list drives the walk and the larger
+     * one is searched by galloping, so a short list against a long one stays cheap.
+     */
+    static int[] intersect(final int[] small, final int[] large) {
+        final int[] result = new int[Math.min(small.length, large.length)];
+        int count = 0;
+        int low = 0;
+        for (final int value : small) {
+            int bound = 1;
+            while (low + bound < large.length && large[low + bound] < value) {
+                bound <<= 1;
+            }
+            final int found = Arrays.binarySearch(large, low, Math.min(low + bound + 1, large.length), value);
+            if (found >= 0) {
+                result[count++] = value;
+                low = found + 1;
+            } else {
+                low = -found - 1;
+            }
+            if (low >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] distinctGrams(final String text) {
+        if (text == null || text.length() < GRAM) {
+            return new long[0];
+        }
+        final long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    private static int slotFor(final long[] keys, final int[][] postings, final long gram) {
+        final int mask = keys.length - 1;
+        int slot = hash(gram) & mask;
+        while (postings[slot] != null && keys[slot] != gram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Accumulates the index while titles are added in snapshot order.
+     *
+     * Each title is lowercased and split into its distinct trigrams as it is
+     * added, and its position is appended to their posting lists, which thus stay
+     * ascending. Lists grow by doubling and the table by rehashing at half full;
+     * build() copies both into exact-size arrays.
+     */
+    static final class Builder {
+
+        private String[] lowerTitles = new String[16];
+        private int titles;
+        private long[] keys = new long[tableSize(0)];
+        private int[][] postings = new int[keys.length][];
+        private int[] sizes = new int[keys.length];
+        private int distinct;
+
+        void add(final String title, final int position) {
+            if (position >= lowerTitles.length) {
+                lowerTitles = Arrays.copyOf(lowerTitles, Math.max(lowerTitles.length << 1, position + 1));
+            }
+            final String lowerTitle = title == null ? null : title.toLowerCase(Locale.ROOT);
+            lowerTitles[position] = lowerTitle;
+            titles = Math.max(titles, position + 1);
+            for (final long gram : distinctGrams(lowerTitle)) {
+                if ((distinct + 1) * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                final int slot = slotFor(keys, postings, gram);
+                if (postings[slot] == null) {
+                    keys[slot] = gram;
+                    postings[slot] = new int[2];
+                    distinct++;
+                } else if (sizes[slot] == postings[slot].length) {
+                    postings[slot] = Arrays.copyOf(postings[slot], sizes[slot] << 1);
+                }
+                postings[slot][sizes[slot]++] = position;
+            }
+        }
+
+        TitleIndex build() {
+            final long[] finalKeys = new long[tableSize(distinct)];
+            final int[][] finalPostings = new int[finalKeys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                if (postings[i] != null) {
+                    final int slot = slotFor(finalKeys, finalPostings, keys[i]);
+                    finalKeys[slot] = keys[i];
+                    finalPostings[slot] = Arrays.copyOf(postings[i], sizes[i]);
+                }
+            }
+            return new TitleIndex(Arrays.copyOf(lowerTitles, titles), finalKeys, finalPostings);
+        }
+
+        private void rehash(final int capacity) {
+            final long[] oldKeys = keys;
+            final int[][] oldPostings = postings;
+            final int[] oldSizes = sizes;
+            keys = new long[capacity];
+            postings = new int[capacity][];
+            sizes = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldPostings[i] != null) {
+                    final int slot = slotFor(keys, postings, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    postings[slot] = oldPostings[i];
+                    sizes[slot] = oldSizes[i];
+                }
+            }
+        }
+    }
+
+    /** Power-of-two table at most half full. */
+    private static int tableSize(final int entries) {
+        return Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+    }
+
+    private static int hash(final long gram) {
+        final long h = gram * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
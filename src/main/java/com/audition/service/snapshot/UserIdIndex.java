@@ -0,0 +1,131 @@
+package com.audition.service.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Immutable primitive map from userId to the positions of that user's posts.
+ *
+ * Open addressing with linear probing over parallel int[] keys and int[][]
+ * position lists, so a lookup is one hash and a short probe with no boxing.
+ * Position lists are in ascending order, i.e. in snapshot order. The index is
+ * built incrementally, one post at a time, by a {@link Builder}.
+ *
+ * @author Farhan Rayani
+ */
+final class UserIdIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final int[] keys;
+    private final int[][] positions;
+    private final int mask;
+
+    private UserIdIndex(final int[] keys, final int[][] positions) {
+        this.keys = keys;
+        this.positions = positions;
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * Returns the ascending positions of the user's posts. The array is shared
+     * and must not be modified.
+     */
+    int[] positionsOf(final int userId) {
+        int slot = hash(userId) & mask;
+        while (positions[slot] != null) {
+            if (keys[slot] == userId) {
+                return positions[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_POSITIONS;
+    }
+
+    int distinctUsers() {
+        int distinct = 0;
+        for (final int[] list : positions) {
+            if (list != null) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    private static int slotFor(final int[] keys, final int[][] positions, final int key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (positions[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Accumulates the index while posts are added in snapshot order.
+     *
+     * Position lists grow by doubling and the table by rehashing at half full;
+     * build() copies both into exact-size arrays.
+     */
+    static final class Builder {
+
+        private int[] keys = new int[tableSize(0)];
+        private int[][] positions = new int[keys.length][];
+        private int[] sizes = new int[keys.length];
+        private int distinct;
+
+        void add(final int userId, final int position) {
+            if ((distinct + 1) * 2 > keys.length) {
+                rehash(keys.length << 1);
+            }
+            final int slot = slotFor(keys, positions, userId);
+            if (positions[slot] == null) {
+                keys[slot] = userId;
+                positions[slot] = new int[4];
+                distinct++;
+            } else if (sizes[slot] == positions[slot].length) {
+                positions[slot] = Arrays.copyOf(positions[slot], sizes[slot] << 1);
+            }
+            positions[slot][sizes[slot]++] = position;
+        }
+
+        UserIdIndex build() {
+            final int[] finalKeys = new int[tableSize(distinct)];
+            final int[][] finalPositions = new int[finalKeys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                if (positions[i] != null) {
+                    final int slot = slotFor(finalKeys, finalPositions, keys[i]);
+                    finalKeys[slot] = keys[i];
+                    finalPositions[slot] = Arrays.copyOf(positions[i], sizes[i]);
+                }
+            }
+            return new UserIdIndex(finalKeys, finalPositions);
+        }
+
+        private void rehash(final int capacity) {
+            final int[] oldKeys = keys;
+            final int[][] oldPositions = positions;
+            final int[] oldSizes = sizes;
+            keys = new int[capacity];
+            positions = new int[capacity][];
+            sizes = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldPositions[i] != null) {
+                    final int slot = slotFor(keys, positions, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    positions[slot] = oldPositions[i];
+                    sizes[slot] = oldSizes[i];
+                }
+            }
+        }
+    }
+
+    /** Power-of-two table at most half full. */
+    private static int tableSize(final int entries) {
+        return Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+    }
+
+    private static int hash(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -14,6 +14,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -39,6 +41,10 @@ import java.util.List;
  * All endpoints include comprehensive input validation and return standardized
  * error responses following RFC 7807 Problem Details specification.
  *
+ * Responses built from cached data carry a strong ETag; a request whose
+ * If-None-Match matches it is answered with 304 and no body, without
+ * serializing anything.
+ *
  * @author Farhan Rayani
  * @see AuditionService
  * @see AuditionPost
@@ -46,6 +52,7 @@ import java.util.List;
  */
 @RestController
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Posts", description = "Posts management API")
 public class AuditionController {
 
@@ -87,7 +94,8 @@ public class AuditionController {
             @Parameter(description = "Filter by title (case-insensitive, 1-100 characters)")
             @RequestParam(required = false)
             @Size(min = 1, max = 100, message = "Title filter must be between 1 and 100 characters")
-            final String title) {
+            final String title,
+            final WebRequest request) {
 
         // Add logic that filters response data based on the query param
         if (userId != null || StringUtils.isNotBlank(title)) {
@@ -96,7 +104,7 @@ public class AuditionController {
                     title);
         }
 
-        return auditionService.getPosts();
+        return notModifiedOr(request, auditionService.getPosts());
     }
 
     @Operation(
@@ -115,9 +123,10 @@ public class AuditionController {
             @PathVariable("id")
             @Min(value = 1, message = "Post ID must be positive")
             @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
-            final Integer postId) {
+            final Integer postId,
+            final WebRequest request) {
 
-        return auditionService.getPostById(postId.toString());
+        return notModifiedOr(request, auditionService.getPostById(postId.toString()));
     }
 
     @Operation(
@@ -136,9 +145,10 @@ public class AuditionController {
             @PathVariable("id")
             @Min(value = 1, message = "Post ID must be positive")
             @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
-            final Integer postId) {
+            final Integer postId,
+            final WebRequest request) {
 
-        return auditionService.getPostByIdWithComments(postId.toString());
+        return notModifiedOr(request, auditionService.getPostByIdWithComments(postId.toString()));
     }
 
     @Operation(
@@ -157,9 +167,19 @@ public class AuditionController {
             @RequestParam("postId")
             @Min(value = 1, message = "Post ID must be positive")
             @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
-            final Integer postId) {
+            final Integer postId,
+            final WebRequest request) {
+
+        return notModifiedOr(request, auditionService.getCommentsForPost(postId.toString()));
+    }
 
-        return auditionService.getCommentsForPost(postId.toString());
+    /**
+     * Sets the ETag of a cached body; returns null, with status 304 already set,
+     * when the client's If-None-Match matches it.
+     */
+    private <T> T notModifiedOr(final WebRequest request, final T body) {
+        final String etag = auditionService.etagOf(body);
+        return etag != null && request.checkNotModified(etag) ? null : body;
     }
 
     /**
@@ -0,0 +1,97 @@
+package com.audition.web;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.ReactiveAuditionService;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for posts and comments.
+ *
+ * Serves the same endpoints, parameters and validation rules as
+ * AuditionController when the application runs on the WebFlux stack
+ * (spring.main.web-application-type=reactive). Handlers return Mono/Flux and
+ * never block, so a handful of event-loop threads serve every connection.
+ *
+ * @author Farhan Rayani
+ * @see AuditionController
+ * @see ReactiveAuditionService
+ */
+@RestController
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Posts", description = "Posts management API")
+public class ReactiveAuditionController {
+
+    @Autowired
+    ReactiveAuditionService reactiveAuditionService;
+
+    @GetMapping(value = "/posts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AuditionPost> getPosts(
+            @Parameter(description = "Filter by user ID (must be positive)")
+            @RequestParam(required = false)
+            @Min(value = 1, message = "User ID must be positive")
+            @Max(value = Integer.MAX_VALUE, message = "User ID too large")
+            final Integer userId,
+            @Parameter(description = "Filter by title (case-insensitive, 1-100 characters)")
+            @RequestParam(required = false)
+            @Size(min = 1, max = 100, message = "Title filter must be between 1 and 100 characters")
+            final String title) {
+
+        if (userId != null || StringUtils.isNotBlank(title)) {
+            return reactiveAuditionService.getPostsWithFilter(
+                    userId != null ? userId.toString() : null,
+                    title);
+        }
+
+        return reactiveAuditionService.getPosts();
+    }
+
+    @GetMapping(value = "/posts/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AuditionPost> getPostById(
+            @Parameter(description = "Post ID (must be positive)", required = true)
+            @PathVariable("id")
+            @Min(value = 1, message = "Post ID must be positive")
+            @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
+            final Integer postId) {
+
+        return reactiveAuditionService.getPostById(postId.toString());
+    }
+
+    @GetMapping(value = "/posts/{id}/comments", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AuditionPost> getPostWithComments(
+            @Parameter(description = "Post ID (must be positive)", required = true)
+            @PathVariable("id")
+            @Min(value = 1, message = "Post ID must be positive")
+            @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
+            final Integer postId) {
+
+        return reactiveAuditionService.getPostByIdWithComments(postId.toString());
+    }
+
+    @GetMapping(value = "/comments", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AuditionComment> getCommentsByPostId(
+            @Parameter(description = "Post ID (must be positive)", required = true)
+            @RequestParam("postId")
+            @Min(value = 1, message = "Post ID must be positive")
+            @Max(value = Integer.MAX_VALUE, message = "Post ID too large")
+            final Integer postId) {
+
+        return reactiveAuditionService.getCommentsForPost(postId.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.audition.web.advice;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import io.micrometer.common.util.StringUtils;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Exception handler for the reactive (WebFlux) stack.
+ *
+ * Produces the same RFC 7807 ProblemDetail responses as ExceptionControllerAdvice:
+ * - SystemException - status and title taken from the exception
+ * - ConstraintViolationException - 400 for request parameters failing validation
+ * - Exception - 500 with the default title
+ *
+ * WebFlux framework exceptions (bad input, unsupported method) are handled by
+ * the base ResponseEntityExceptionHandler.
+ *
+ * @author Farhan Rayani
+ * @see ExceptionControllerAdvice
+ */
+
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionControllerAdvice extends ResponseEntityExceptionHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveExceptionControllerAdvice.class);
+    private static final String DEFAULT_MESSAGE = "API Error occurred. Please contact support or administrator.";
+
+    @Autowired
+    private AuditionLogger logger;
+
+    @ExceptionHandler(SystemException.class)
+    ProblemDetail handleSystemException(final SystemException e) {
+        logger.logErrorWithException(LOG, "System exception occurred", e);
+        final ProblemDetail problemDetail = createProblemDetail(e, statusOf(e), e.getTitle());
+        logger.logStandardProblemDetail(LOG, problemDetail, e);
+        return problemDetail;
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    ProblemDetail handleConstraintViolation(final ConstraintViolationException e) {
+        logger.info(LOG, "Request validation failed: {}", e.getMessage());
+        return createProblemDetail(e, BAD_REQUEST, ExceptionControllerAdvice.DEFAULT_TITLE);
+    }
+
+    @ExceptionHandler(Exception.class)
+    ProblemDetail handleMainException(final Exception e) {
+        logger.logErrorWithException(LOG, "General exception occurred", e);
+        final ProblemDetail problemDetail = createProblemDetail(e, INTERNAL_SERVER_ERROR,
+                ExceptionControllerAdvice.DEFAULT_TITLE);
+        logger.logStandardProblemDetail(LOG, problemDetail, e);
+        return problemDetail;
+    }
+
+    private static ProblemDetail createProblemDetail(final Exception exception, final HttpStatusCode statusCode,
+                                                     final String title) {
+        final ProblemDetail problemDetail = ProblemDetail.forStatus(statusCode);
+        problemDetail.setDetail(StringUtils.isNotBlank(exception.getMessage())
+                ? exception.getMessage() : DEFAULT_MESSAGE);
+        problemDetail.setTitle(title);
+        return problemDetail;
+    }
+
+    private static HttpStatusCode statusOf(final SystemException exception) {
+        try {
+            return exception.getStatusCode() != null
+                    ? HttpStatusCode.valueOf(exception.getStatusCode()) : INTERNAL_SERVER_ERROR;
+        } catch (final IllegalArgumentException iae) {
+            return INTERNAL_SERVER_ERROR;
+        }
+    }
+}
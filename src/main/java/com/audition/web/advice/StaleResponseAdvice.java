@@ -0,0 +1,52 @@
+package com.audition.web.advice;
+
+import com.audition.common.cache.StaleResponses;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses built from last-known-good data as stale.
+ *
+ * When a fallback served data from the last-known-good store while handling the
+ * request, the response gets, before the body is written:
+ * - Warning: 110 - "Response is Stale"
+ * - Age: seconds since the oldest served data was fetched from the upstream
+ *
+ * @author Farhan Rayani
+ * @see StaleResponses
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(final MethodParameter returnType,
+                            final Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body, final MethodParameter returnType,
+                                  final MediaType selectedContentType,
+                                  final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  final ServerHttpRequest request, final ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(StaleResponses.REQUEST_ATTRIBUTE)
+                instanceof Duration age) {
+            response.getHeaders().set(HttpHeaders.WARNING, STALE_WARNING);
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(age.toSeconds()));
+        }
+        return body;
+    }
+}
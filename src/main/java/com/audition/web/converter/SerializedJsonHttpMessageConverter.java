@@ -0,0 +1,79 @@
+package com.audition.web.converter;
+
+import com.audition.service.SerializedResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Jackson converter that writes cached values from their stored JSON bytes.
+ *
+ * A response body registered with {@link SerializedResponses} is serialized on
+ * its first response and copied straight to the output stream afterwards, with
+ * a Content-Length. When a gzipped copy is kept and the client sends
+ * Accept-Encoding: gzip, that copy is written with Content-Encoding: gzip, so
+ * the container does not compress the body again. Any other body goes through
+ * the regular Jackson path.
+ *
+ * ResponseBodyAdvice runs before the converter, so headers it adds (e.g. the
+ * stale Warning) are unaffected.
+ *
+ * @author Farhan Rayani
+ * @see SerializedResponses
+ */
+public class SerializedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final String GZIP = "gzip";
+
+    private final SerializedResponses serializedResponses;
+
+    public SerializedJsonHttpMessageConverter(final ObjectMapper objectMapper,
+                                              final SerializedResponses serializedResponses) {
+        super(objectMapper);
+        this.serializedResponses = serializedResponses;
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+            throws IOException {
+        final SerializedResponses.Serialized serialized = serializedResponses.get(object);
+        if (serialized == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        final HttpHeaders headers = outputMessage.getHeaders();
+        byte[] body = serialized.json();
+        if (serialized.gzip() != null) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip()) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                body = serialized.gzip();
+            }
+        }
+        headers.setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+
+    private static boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        final String acceptEncoding = attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+            if (GZIP.equals(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.audition.web.metrics;
+
+import com.audition.common.cache.CacheOutcomes;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the request's cache outcome to http.server.requests.
+ *
+ * The default tags (method, uri, status, outcome, exception) plus:
+ * - cache - hit when every lookup was answered from cache, miss when the request
+ *   went to the upstream, none when no cache was consulted
+ *
+ * With the percentiles histogram enabled for http.server.requests, this splits
+ * the latency distribution of each AuditionController endpoint into cache-hit and
+ * cache-miss requests.
+ *
+ * @author Farhan Rayani
+ * @see CacheOutcomes
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CacheOutcomeObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String CACHE_KEY = "cache";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(final ServerRequestObservationContext context) {
+        final CacheOutcomes.Outcome outcome =
+                CacheOutcomes.of(context.getCarrier().getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE));
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of(CACHE_KEY, outcome.tagValue()));
+    }
+}
@@ -12,7 +12,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -34,26 +37,30 @@ class AdditionalTests {
     @InjectMocks
     private AuditionController auditionController;
 
+    private final WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
     private AuditionPost samplePost;
     private List<AuditionPost> samplePosts;
     private List<AuditionComment> sampleComments;
 
     @BeforeEach
     void setUp() {
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Test Post");
-        samplePost.setBody("Test Body");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Test Post")
+                .body("Test Body")
+                .build();
 
         samplePosts = Arrays.asList(samplePost);
 
-        AuditionComment comment = new AuditionComment();
-        comment.setId(1);
-        comment.setPostId(1);
-        comment.setName("Test User");
-        comment.setEmail("test@example.com");
-        comment.setBody("Test Comment");
+        AuditionComment comment = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("Test User")
+                .email("test@example.com")
+                .body("Test Comment")
+                .build();
 
         sampleComments = Arrays.asList(comment);
     }
@@ -64,7 +71,7 @@ class AdditionalTests {
         when(auditionService.getPosts()).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, null);
+        List<AuditionPost> result = auditionController.getPosts(null, null, webRequest);
 
         // Then
         assertNotNull(result);
@@ -79,7 +86,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter("1", null)).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(1, null);
+        List<AuditionPost> result = auditionController.getPosts(1, null, webRequest);
 
         // Then
         assertNotNull(result);
@@ -94,7 +101,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter(null, "test")).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, "test");
+        List<AuditionPost> result = auditionController.getPosts(null, "test", webRequest);
 
         // Then
         assertNotNull(result);
@@ -109,7 +116,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter("1", "test")).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(1, "test");
+        List<AuditionPost> result = auditionController.getPosts(1, "test", webRequest);
 
         // Then
         assertNotNull(result);
@@ -124,7 +131,7 @@ class AdditionalTests {
         when(auditionService.getPosts()).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, "");
+        List<AuditionPost> result = auditionController.getPosts(null, "", webRequest);
 
         // Then
         assertNotNull(result);
@@ -138,7 +145,7 @@ class AdditionalTests {
         when(auditionService.getPosts()).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, "   ");
+        List<AuditionPost> result = auditionController.getPosts(null, "   ", webRequest);
 
         // Then
         assertNotNull(result);
@@ -152,7 +159,7 @@ class AdditionalTests {
         when(auditionService.getPostById("1")).thenReturn(samplePost);
 
         // When
-        AuditionPost result = auditionController.getPostById(1);
+        AuditionPost result = auditionController.getPostById(1, webRequest);
 
         // Then
         assertNotNull(result);
@@ -163,11 +170,11 @@ class AdditionalTests {
     @Test
     void testGetPostWithCommentsSuccess() {
         // Given
-        samplePost.setComments(sampleComments);
+        samplePost = samplePost.withComments(sampleComments);
         when(auditionService.getPostByIdWithComments("1")).thenReturn(samplePost);
 
         // When
-        AuditionPost result = auditionController.getPostWithComments(1);
+        AuditionPost result = auditionController.getPostWithComments(1, webRequest);
 
         // Then
         assertNotNull(result);
@@ -183,7 +190,7 @@ class AdditionalTests {
         when(auditionService.getCommentsForPost("1")).thenReturn(sampleComments);
 
         // When
-        List<AuditionComment> result = auditionController.getCommentsByPostId(1);
+        List<AuditionComment> result = auditionController.getCommentsByPostId(1, webRequest);
 
         // Then
         assertNotNull(result);
@@ -256,7 +263,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter("2147483647", null)).thenReturn(Collections.emptyList());
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(Integer.MAX_VALUE, null);
+        List<AuditionPost> result = auditionController.getPosts(Integer.MAX_VALUE, null, webRequest);
 
         // Then
         assertNotNull(result);
@@ -270,7 +277,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter(null, longTitle)).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, longTitle);
+        List<AuditionPost> result = auditionController.getPosts(null, longTitle, webRequest);
 
         // Then
         assertNotNull(result);
@@ -283,7 +290,7 @@ class AdditionalTests {
         when(auditionService.getPosts()).thenReturn(Collections.emptyList());
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, null);
+        List<AuditionPost> result = auditionController.getPosts(null, null, webRequest);
 
         // Then
         assertNotNull(result);
@@ -296,7 +303,7 @@ class AdditionalTests {
         when(auditionService.getCommentsForPost("999")).thenReturn(Collections.emptyList());
 
         // When
-        List<AuditionComment> result = auditionController.getCommentsByPostId(999);
+        List<AuditionComment> result = auditionController.getCommentsByPostId(999, webRequest);
 
         // Then
         assertNotNull(result);
@@ -311,7 +318,7 @@ class AdditionalTests {
 
         // When & Then
         SystemException actualException = assertThrows(SystemException.class, () -> {
-            auditionController.getPostById(999);
+            auditionController.getPostById(999, webRequest);
         });
 
         assertEquals("Test error", actualException.getMessage());
@@ -330,15 +337,15 @@ class AdditionalTests {
             when(auditionService.getCommentsForPost(String.valueOf(id))).thenReturn(sampleComments);
 
             // Test getPostById
-            AuditionPost post = auditionController.getPostById(id);
+            AuditionPost post = auditionController.getPostById(id, webRequest);
             assertNotNull(post);
 
             // Test getPostWithComments
-            AuditionPost postWithComments = auditionController.getPostWithComments(id);
+            AuditionPost postWithComments = auditionController.getPostWithComments(id, webRequest);
             assertNotNull(postWithComments);
 
             // Test getCommentsByPostId
-            List<AuditionComment> comments = auditionController.getCommentsByPostId(id);
+            List<AuditionComment> comments = auditionController.getCommentsByPostId(id, webRequest);
             assertNotNull(comments);
         }
     }
@@ -352,16 +359,16 @@ class AdditionalTests {
         when(auditionService.getCommentsForPost("1")).thenReturn(sampleComments);
 
         // When & Then - verify return types
-        Object postsResult = auditionController.getPosts(null, null);
+        Object postsResult = auditionController.getPosts(null, null, webRequest);
         assertTrue(postsResult instanceof List);
 
-        Object postResult = auditionController.getPostById(1);
+        Object postResult = auditionController.getPostById(1, webRequest);
         assertTrue(postResult instanceof AuditionPost);
 
-        Object postWithCommentsResult = auditionController.getPostWithComments(1);
+        Object postWithCommentsResult = auditionController.getPostWithComments(1, webRequest);
         assertTrue(postWithCommentsResult instanceof AuditionPost);
 
-        Object commentsResult = auditionController.getCommentsByPostId(1);
+        Object commentsResult = auditionController.getCommentsByPostId(1, webRequest);
         assertTrue(commentsResult instanceof List);
     }
 
@@ -377,17 +384,19 @@ class AdditionalTests {
     @Test
     void testModelObjectsEquality() {
         // Test AuditionPost equality and hash code behavior
-        AuditionPost post1 = new AuditionPost();
-        post1.setId(1);
-        post1.setUserId(1);
-        post1.setTitle("Test");
-        post1.setBody("Body");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(1);
-        post2.setUserId(1);
-        post2.setTitle("Test");
-        post2.setBody("Body");
+        AuditionPost post1 = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Test")
+                .body("Body")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Test")
+                .body("Body")
+                .build();
 
         // Test that objects with same values behave consistently
         assertEquals(post1.getId(), post2.getId());
@@ -396,19 +405,21 @@ class AdditionalTests {
         assertEquals(post1.getBody(), post2.getBody());
 
         // Test AuditionComment equality and hash code behavior
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("Test User");
-        comment1.setEmail("test@test.com");
-        comment1.setBody("Test body");
-
-        AuditionComment comment2 = new AuditionComment();
-        comment2.setId(1);
-        comment2.setPostId(1);
-        comment2.setName("Test User");
-        comment2.setEmail("test@test.com");
-        comment2.setBody("Test body");
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("Test User")
+                .email("test@test.com")
+                .body("Test body")
+                .build();
+
+        AuditionComment comment2 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("Test User")
+                .email("test@test.com")
+                .body("Test body")
+                .build();
 
         assertEquals(comment1.getId(), comment2.getId());
         assertEquals(comment1.getPostId(), comment2.getPostId());
@@ -476,7 +487,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter(null, specialTitle)).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, specialTitle);
+        List<AuditionPost> result = auditionController.getPosts(null, specialTitle, webRequest);
 
         // Then
         assertNotNull(result);
@@ -490,7 +501,7 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter(null, unicodeTitle)).thenReturn(samplePosts);
 
         // When
-        List<AuditionPost> result = auditionController.getPosts(null, unicodeTitle);
+        List<AuditionPost> result = auditionController.getPosts(null, unicodeTitle, webRequest);
 
         // Then
         assertNotNull(result);
@@ -514,17 +525,17 @@ class AdditionalTests {
         when(auditionService.getPostsWithFilter("1", null)).thenReturn(samplePosts);
 
         // Test minimum userId
-        List<AuditionPost> postsResult = auditionController.getPosts(1, null);
+        List<AuditionPost> postsResult = auditionController.getPosts(1, null, webRequest);
         assertNotNull(postsResult);
 
         // Test minimum postId
-        AuditionPost postResult = auditionController.getPostById(1);
+        AuditionPost postResult = auditionController.getPostById(1, webRequest);
         assertNotNull(postResult);
 
-        AuditionPost postWithCommentsResult = auditionController.getPostWithComments(1);
+        AuditionPost postWithCommentsResult = auditionController.getPostWithComments(1, webRequest);
         assertNotNull(postWithCommentsResult);
 
-        List<AuditionComment> commentsResult = auditionController.getCommentsByPostId(1);
+        List<AuditionComment> commentsResult = auditionController.getCommentsByPostId(1, webRequest);
         assertNotNull(commentsResult);
     }
 
@@ -549,16 +560,16 @@ class AdditionalTests {
     void testControllerResponseAnnotations() {
         // Test that methods have proper response annotations
         try {
-            java.lang.reflect.Method getPostsMethod = AuditionController.class.getMethod("getPosts", Integer.class, String.class);
+            java.lang.reflect.Method getPostsMethod = AuditionController.class.getMethod("getPosts", Integer.class, String.class, WebRequest.class);
             assertTrue(getPostsMethod.isAnnotationPresent(org.springframework.web.bind.annotation.ResponseBody.class));
 
-            java.lang.reflect.Method getPostByIdMethod = AuditionController.class.getMethod("getPostById", Integer.class);
+            java.lang.reflect.Method getPostByIdMethod = AuditionController.class.getMethod("getPostById", Integer.class, WebRequest.class);
             assertTrue(getPostByIdMethod.isAnnotationPresent(org.springframework.web.bind.annotation.ResponseBody.class));
 
-            java.lang.reflect.Method getPostWithCommentsMethod = AuditionController.class.getMethod("getPostWithComments", Integer.class);
+            java.lang.reflect.Method getPostWithCommentsMethod = AuditionController.class.getMethod("getPostWithComments", Integer.class, WebRequest.class);
             assertTrue(getPostWithCommentsMethod.isAnnotationPresent(org.springframework.web.bind.annotation.ResponseBody.class));
 
-            java.lang.reflect.Method getCommentsByPostIdMethod = AuditionController.class.getMethod("getCommentsByPostId", Integer.class);
+            java.lang.reflect.Method getCommentsByPostIdMethod = AuditionController.class.getMethod("getCommentsByPostId", Integer.class, WebRequest.class);
             assertTrue(getCommentsByPostIdMethod.isAnnotationPresent(org.springframework.web.bind.annotation.ResponseBody.class));
 
         } catch (NoSuchMethodException e) {
@@ -0,0 +1,42 @@
+package com.audition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.audition.service.AuditionService;
+import com.audition.service.BulkComments;
+import com.audition.service.CacheWarmup;
+import com.audition.service.SnapshotPersistence;
+import com.audition.web.AuditionController;
+import com.audition.web.ReactiveAuditionController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@TestPropertySource(properties = {
+        "spring.sleuth.enabled=false",
+        "management.tracing.enabled=false"
+})
+class ReactiveAuditionApplicationTests {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void contextLoadsWithReactiveStack() {
+        // The reactive controller replaces the blocking one when the WebFlux stack is selected
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveAuditionController.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(AuditionController.class).length);
+    }
+
+    @Test
+    void servletOnlyCachingIsNotStarted() {
+        // No blocking service, so nothing to warm up, bulk-download or persist for it
+        assertEquals(0, applicationContext.getBeanNamesForType(AuditionService.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(CacheWarmup.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(BulkComments.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(SnapshotPersistence.class).length);
+    }
+}
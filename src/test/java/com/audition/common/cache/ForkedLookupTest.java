@@ -0,0 +1,139 @@
+package com.audition.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ForkedLookupTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoinRecordsTheLookupOnTheRequest() {
+        // Given
+        ForkedLookup<String> lookup = ForkedLookup.supplyAsync(() -> {
+            CacheOutcomes.miss();
+            StaleResponses.record(Duration.ofSeconds(5));
+            return "value";
+        }, executor);
+
+        // When
+        String result = lookup.join();
+
+        // Then
+        assertEquals("value", result);
+        assertEquals(CacheOutcomes.Outcome.MISS, request.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE));
+        assertEquals(Duration.ofSeconds(5), request.getAttribute(StaleResponses.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void testLookupSeesOnlyWhatItServed() {
+        // Given - the request already served stale data
+        StaleResponses.record(Duration.ofMinutes(1));
+        List<Object> seen = new ArrayList<>();
+
+        // When
+        ForkedLookup.supplyAsync(() -> seen.add(StaleResponses.ofCurrentRequest().orElse(null)), executor).join();
+
+        // Then
+        assertEquals(1, seen.size());
+        assertNull(seen.get(0));
+    }
+
+    @Test
+    void testFailureIsRethrownAndStillRecorded() {
+        // Given
+        ForkedLookup<String> lookup = ForkedLookup.supplyAsync(() -> {
+            CacheOutcomes.miss();
+            throw new IllegalStateException("upstream down");
+        }, executor);
+
+        // When
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, lookup::join);
+
+        // Then
+        assertEquals("upstream down", thrown.getMessage());
+        assertEquals(CacheOutcomes.Outcome.MISS, request.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void testAbandonSkipsALookupNotYetStarted() throws Exception {
+        // Given - the only worker is busy
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        AtomicBoolean ran = new AtomicBoolean();
+        ForkedLookup<String> lookup = ForkedLookup.supplyAsync(() -> {
+            ran.set(true);
+            return "value";
+        }, executor);
+
+        // When
+        lookup.abandon();
+        release.countDown();
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void testAbandonReturnsWithoutWaitingAndLeavesTheRequestAlone() throws Exception {
+        // Given - a lookup that is already running
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ForkedLookup<String> lookup = ForkedLookup.supplyAsync(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            CacheOutcomes.miss();
+            return "value";
+        }, executor);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        lookup.abandon();
+        RequestAttributes finished = RequestContextHolder.getRequestAttributes();
+        ((ServletRequestAttributes) finished).requestCompleted();
+        release.countDown();
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertNull(request.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE));
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
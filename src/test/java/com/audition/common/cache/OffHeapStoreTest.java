@@ -0,0 +1,121 @@
+package com.audition.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+
+    @Test
+    void testPutGetReplaceAndRemove() {
+        // Given
+        OffHeapStore store = new OffHeapStore(1024);
+
+        // When
+        store.put("a", bytes("first"), 7L);
+        store.put("b", bytes("second"), 8L);
+        store.put("a", bytes("replaced"), 9L);
+
+        // Then
+        assertEquals("replaced", text(store.get("a")));
+        assertEquals(9L, store.get("a").writtenAt());
+        assertEquals("second", text(store.get("b")));
+        assertEquals(2, store.size());
+        assertEquals(14, store.usedBytes());
+        long replaced = store.get("a").version();
+        store.put("a", bytes("again"), 10L);
+        assertFalse(store.holds("a", replaced));
+        assertFalse(store.remove("a", replaced));
+        assertTrue(store.holds("a", store.get("a").version()));
+        assertTrue(store.remove("b"));
+        assertFalse(store.remove("b"));
+        assertNull(store.get("b"));
+        store.clear();
+        assertNull(store.get("a"));
+        assertEquals(0, store.usedBytes());
+    }
+
+    @Test
+    void testOldestValuesAreOverwrittenWhenTheRingWraps() {
+        // Given - room for three 30-byte values, a fourth wraps to the start
+        OffHeapStore store = new OffHeapStore(100);
+        for (int i = 0; i < 3; i++) {
+            store.put(i, value(i, 30), 0L);
+        }
+
+        // When
+        store.put(3, value(3, 30), 0L);
+        store.put(1, value(11, 30), 0L); // Replaced, so its old copy is no longer live
+
+        // Then - 0 was overwritten, the rest read back intact
+        assertNull(store.get(0));
+        assertArrayEquals(value(2, 30), store.get(2).value());
+        assertArrayEquals(value(3, 30), store.get(3).value());
+        assertArrayEquals(value(11, 30), store.get(1).value());
+        assertEquals(1, store.evictionCount());
+        assertEquals(90, store.usedBytes());
+
+        // A value larger than the store is not kept and drops the older value of its key
+        assertFalse(store.put(2, new byte[101], 0L));
+        assertNull(store.get(2));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapStore(0));
+    }
+
+    @Test
+    void testConcurrentReadersSeeWholeValues() throws Exception {
+        // Given - a writer cycling keys through a small ring
+        OffHeapStore store = new OffHeapStore(4096);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; running.get(); i++) {
+                store.put(i % 500, value(i % 500, 40 + i % 60), i);
+            }
+        });
+
+        // When
+        List<CompletableFuture<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(CompletableFuture.supplyAsync(() -> {
+                int checked = 0;
+                for (int i = 0; i < 20_000; i++) {
+                    OffHeapStore.Entry entry = store.get(i % 500);
+                    if (entry != null) {
+                        byte[] value = entry.value();
+                        assertArrayEquals(value(i % 500, value.length), value);
+                        checked++;
+                    }
+                }
+                return checked;
+            }));
+        }
+
+        // Then
+        for (CompletableFuture<Integer> reader : readers) {
+            assertTrue(reader.get() >= 0);
+        }
+        running.set(false);
+        writer.get();
+        assertTrue(store.usedBytes() <= store.capacity());
+    }
+
+    private static byte[] value(final int key, final int length) {
+        byte[] value = new byte[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = (byte) (key * 31 + i);
+        }
+        return value;
+    }
+
+    private static byte[] bytes(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(final OffHeapStore.Entry entry) {
+        return new String(entry.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+package com.audition.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TieredCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Object> promoted = new ArrayList<>();
+    private Runnable duringPromotion = () -> { };
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> onHeap;
+    private TieredCache cache;
+
+    @BeforeEach
+    void setUp() {
+        onHeap = onHeapTier(2);
+        cache = new TieredCache("posts", onHeap, true, new OffHeapStore(64 * 1024), objectMapper,
+                objectMapper.constructType(AuditionPost.class), Duration.ofMinutes(5), value -> {
+                    promoted.add(value);
+                    duringPromotion.run();
+                    return value;
+                }, nanos::get);
+    }
+
+    @Test
+    void testColdKeysAreServedFromOffHeapAndPromoted() {
+        // Given - more posts than the on-heap tier holds
+        for (int id = 1; id <= 10; id++) {
+            cache.put(String.valueOf(id), post(id));
+        }
+        onHeap.cleanUp();
+        assertEquals(2, onHeap.estimatedSize());
+        assertEquals(10, cache.getOffHeapStore().size());
+
+        // When - a key the on-heap tier evicted
+        int coldId = IntStream.rangeClosed(1, 10)
+                .filter(id -> !onHeap.asMap().containsKey(String.valueOf(id)))
+                .findFirst().orElseThrow();
+        AuditionPost cold = cache.get(String.valueOf(coldId), AuditionPost.class);
+
+        // Then - an equal copy, promoted on-heap and through the hook
+        assertEquals(post(coldId), cold);
+        assertTrue(onHeap.asMap().containsKey(String.valueOf(coldId)));
+        assertEquals(List.of(cold), promoted);
+        assertSame(cold, cache.get(String.valueOf(coldId), AuditionPost.class));
+        assertEquals(1, promoted.size());
+        assertNull(cache.get("11"));
+    }
+
+    @Test
+    void testOffHeapHonoursExpireAfterWriteAndEviction() {
+        // Given
+        cache.put("1", post(1));
+        onHeap.invalidateAll();
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        // Then - expired off-heap, dropped
+        assertNull(cache.get("1"));
+        assertEquals(0, cache.getOffHeapStore().size());
+
+        // Evict and clear reach both tiers
+        cache.put("2", post(2));
+        cache.put("3", post(3));
+        cache.evict("2");
+        assertNull(cache.get("2"));
+        assertTrue(cache.evictIfPresent("3"));
+        cache.put("4", post(4));
+        cache.clear();
+        assertNull(cache.get("4"));
+        assertFalse(cache.invalidate());
+    }
+
+    @Test
+    void testCommentListsAndMeters() {
+        // Given
+        TieredCache comments = new TieredCache("comments", onHeapTier(1), true, new OffHeapStore(64 * 1024),
+                objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, AuditionComment.class),
+                Duration.ofMinutes(5), value -> value, nanos::get);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        comments.bindTo(registry, Tags.of("cacheManager", "servlet"));
+        List<AuditionComment> first = List.of(AuditionComment.builder().postId(1).id(1).name("a").build());
+
+        // When
+        comments.put("1", first);
+        comments.put("2", List.of());
+        comments.getNativeCache().invalidateAll();
+        Object restored = comments.get("1").get();
+        comments.get("missing");
+        comments.putIfAbsent("3", null);
+
+        // Then
+        assertEquals(first, restored);
+        assertEquals(1.0, registry.get("audition.cache.offheap.gets").tags("cache", "comments", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("audition.cache.offheap.gets").tags("result", "miss")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("audition.cache.offheap.size").tag("cacheManager", "servlet")
+                .gauge().value());
+        assertEquals(64 * 1024.0, registry.get("audition.cache.offheap.capacity").gauge().value());
+        assertTrue(registry.get("audition.cache.offheap.used").gauge().value() > 0);
+    }
+
+    @Test
+    void testPromotedValueKeepsOnlyTheRestOfItsTimeToLive() {
+        // Given - written at 0, read on-heap until 1m, then dropped there
+        cache.put("1", post(1));
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertEquals(post(1), cache.get("1", AuditionPost.class));
+        onHeap.invalidateAll();
+
+        // When - promoted 4m after the write
+        nanos.addAndGet(Duration.ofMinutes(3).toNanos());
+        assertEquals(post(1), cache.get("1", AuditionPost.class));
+
+        // Then - on-heap for the remaining minute only, and gone from both tiers at 5m
+        assertEquals(Duration.ofMinutes(1),
+                onHeap.policy().expireVariably().orElseThrow().getExpiresAfter("1").orElseThrow());
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals(post(1), cache.get("1", AuditionPost.class));
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("1"));
+        assertEquals(1, promoted.size());
+    }
+
+    @Test
+    void testReadsExtendOnHeapEntriesUpToTheirWriteDeadlineOnly() {
+        // Given
+        cache.put("1", post(1));
+
+        // When - read every 90s, within the 2m expire-after-access
+        for (int i = 0; i < 3; i++) {
+            nanos.addAndGet(Duration.ofSeconds(90).toNanos());
+            assertNotNull(cache.get("1"));
+        }
+
+        // Then - at 4.5m, 30s left of the 5m expire-after-write
+        assertEquals(Duration.ofSeconds(30),
+                onHeap.policy().expireVariably().orElseThrow().getExpiresAfter("1").orElseThrow());
+        assertTrue(promoted.isEmpty());
+    }
+
+    @Test
+    void testEvictionRacingAPromotionIsNotUndone() {
+        // Given - a value only off-heap, evicted while it is being read back
+        cache.put("1", post(1));
+        onHeap.invalidateAll();
+        duringPromotion = () -> cache.evict("1");
+
+        // When
+        Object value = cache.get("1");
+
+        // Then - neither served nor put back on-heap
+        assertNull(value);
+        assertNull(onHeap.getIfPresent("1"));
+        assertEquals(0, cache.getOffHeapStore().size());
+        duringPromotion = () -> { };
+        assertNull(cache.get("1"));
+
+        // Given - a value replaced while the old one is being read back
+        cache.put("2", post(2));
+        onHeap.invalidateAll();
+        AuditionPost newer = post(2).toBuilder().title("newer").build();
+        duringPromotion = () -> cache.put("2", newer);
+
+        // Then - the newer value wins
+        assertSame(newer, cache.get("2", AuditionPost.class));
+        assertSame(newer, cache.get("2", AuditionPost.class));
+    }
+
+    @Test
+    void testOnHeapTierWithoutPerValueExpiryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TieredCache("posts",
+                Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(5)).build(), true,
+                new OffHeapStore(1024), objectMapper, objectMapper.constructType(AuditionPost.class),
+                Duration.ofMinutes(5), value -> value));
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> onHeapTier(final long maxSize) {
+        return Caffeine.newBuilder().maximumSize(maxSize)
+                .expireAfter(TieredCache.onHeapExpiry(Duration.ofMinutes(2)))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    private static AuditionPost post(final int id) {
+        return AuditionPost.builder().id(id).userId(id % 3).title("title " + id).body("body " + id).build();
+    }
+}
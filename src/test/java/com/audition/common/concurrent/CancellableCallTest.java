@@ -0,0 +1,86 @@
+package com.audition.common.concurrent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CancellableCallTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCompletesWithSupplierResult() throws Exception {
+        // When
+        CancellableCall<String> call = CancellableCall.supplyAsync(() -> "done", executor);
+
+        // Then
+        assertEquals("done", call.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCompletesExceptionallyWithSupplierFailure() {
+        // When
+        CancellableCall<String> call = CancellableCall.supplyAsync(() -> {
+            throw new IllegalStateException("boom");
+        }, executor);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> call.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void testCancelRunsAbortActionsAndInterruptsWorker() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean aborted = new AtomicBoolean();
+        CancellableCall<String> call = CancellableCall.supplyAsync(() -> {
+            CancellableCall.onCancel(() -> aborted.set(true));
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }, executor);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        // When
+        assertTrue(call.cancel(true));
+
+        // Then
+        assertTrue(aborted.get());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, call::join);
+    }
+
+    @Test
+    void testOnCancelOutsideCallIsIgnored() {
+        AtomicBoolean aborted = new AtomicBoolean();
+
+        CancellableCall.onCancel(() -> aborted.set(true));
+
+        assertFalse(aborted.get());
+    }
+}
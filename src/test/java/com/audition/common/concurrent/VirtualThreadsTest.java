@@ -0,0 +1,43 @@
+package com.audition.common.concurrent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testThreadFactoryMatchesRuntimeSupport() {
+        // When
+        Optional<ThreadFactory> factory = VirtualThreads.threadFactory("vt-");
+
+        // Then
+        assertEquals(VirtualThreads.isSupported(), factory.isPresent());
+        factory.ifPresent(f -> assertEquals("vt-0", f.newThread(() -> { }).getName()));
+    }
+
+    @Test
+    void testThreadPerTaskExecutorRunsTasksWhenSupported() throws InterruptedException {
+        // When
+        Optional<Executor> executor = VirtualThreads.threadPerTaskExecutor("vt-");
+
+        // Then
+        assertEquals(VirtualThreads.isSupported(), executor.isPresent());
+        if (executor.isPresent()) {
+            CountDownLatch ran = new CountDownLatch(1);
+            AtomicReference<String> threadName = new AtomicReference<>();
+            executor.get().execute(() -> {
+                threadName.set(Thread.currentThread().getName());
+                ran.countDown();
+            });
+            assertTrue(ran.await(1, TimeUnit.SECONDS));
+            assertTrue(threadName.get().startsWith("vt-"));
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package com.audition.configuration;
 
+import ch.qos.logback.classic.Level;
+import com.audition.common.cache.CacheEvictions;
+import com.audition.common.cache.RetainedSize;
+import com.audition.common.cache.TieredCache;
 import com.audition.common.logging.AuditionLogger;
+import com.audition.model.AuditionPost;
+import com.audition.service.SerializedResponses;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.servlet.FilterChain;
@@ -23,7 +45,10 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletResponse;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +66,7 @@ class ConfigurationTest {
     @Test
     void testCacheConfiguration() {
         // Given
-        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        CacheConfiguration cacheConfiguration = cacheConfiguration(new CachingProperties());
 
         // When
         CacheManager cacheManager = cacheConfiguration.cacheManager();
@@ -53,8 +78,121 @@ class ConfigurationTest {
         CaffeineCacheManager caffeineCacheManager = (CaffeineCacheManager) cacheManager;
         assertNotNull(caffeineCacheManager.getCacheNames());
         assertTrue(caffeineCacheManager.getCacheNames().contains("posts"));
-        assertTrue(caffeineCacheManager.getCacheNames().contains("posts-with-comments"));
         assertTrue(caffeineCacheManager.getCacheNames().contains("comments"));
+        // Posts with comments are composed from the two caches above
+        assertFalse(caffeineCacheManager.getCacheNames().contains("posts-with-comments"));
+    }
+
+    @Test
+    void testCacheConfigurationAppliesPerCacheSpecs() {
+        // Given - comments bounded by weight, posts by a smaller entry count
+        CachingProperties cachingProperties = new CachingProperties();
+        CachingProperties.CacheSpec weighted = new CachingProperties.CacheSpec();
+        weighted.setMaxWeight(DataSize.ofKilobytes(16));
+        CachingProperties.CacheSpec small = new CachingProperties.CacheSpec();
+        small.setMaxSize(10L);
+        small.setExpireAfterWrite(Duration.ofMinutes(1));
+        cachingProperties.getCaches().put("comments", weighted);
+        cachingProperties.getCaches().put("posts", small);
+        CacheConfiguration cacheConfiguration = cacheConfiguration(cachingProperties);
+
+        // When
+        CacheManager cacheManager = cacheConfiguration.cacheManager();
+
+        // Then
+        Policy<Object, Object> posts = nativeCache(cacheManager, "posts").policy();
+        assertEquals(10, posts.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(1), posts.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(Duration.ofMinutes(2), posts.expireAfterAccess().orElseThrow().getExpiresAfter());
+        Policy<Object, Object> comments = nativeCache(cacheManager, "comments").policy();
+        assertTrue(comments.eviction().orElseThrow().isWeighted());
+        assertEquals(16 * 1024, comments.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(5), comments.expireAfterWrite().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    void testOffHeapSpecPutsATierBehindTheCache() {
+        // Given - one post on-heap, the rest off-heap
+        CachingProperties cachingProperties = new CachingProperties();
+        CachingProperties.CacheSpec tiered = new CachingProperties.CacheSpec();
+        tiered.setMaxSize(1L);
+        tiered.setOffHeap(DataSize.ofMegabytes(1));
+        cachingProperties.getCaches().put("posts", tiered);
+        CacheConfiguration cacheConfiguration = cacheConfiguration(cachingProperties);
+        CacheManager cacheManager = cacheConfiguration.cacheManager();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheConfiguration.cacheMetrics(cacheManager).bindTo(registry);
+        AuditionPost post = AuditionPost.builder().id(1).userId(1).title("title").build();
+
+        // When
+        cacheManager.getCache("posts").put("1", post);
+        cacheManager.getCache("posts").put("2", AuditionPost.builder().id(2).build());
+        nativeCache(cacheManager, "posts").cleanUp();
+
+        // Then
+        assertTrue(cacheManager.getCache("posts") instanceof TieredCache);
+        assertFalse(cacheManager.getCache("comments") instanceof TieredCache);
+        assertEquals(post, cacheManager.getCache("posts").get("1", AuditionPost.class));
+        assertEquals(2.0, registry.get("audition.cache.offheap.size").tags("cache", "posts", "cacheManager", "servlet")
+                .gauge().value());
+    }
+
+    @Test
+    void testWeightedCacheEvictsByRetainedBytesAndCountsEvictions() {
+        // Given - room for a few posts with small bodies
+        CachingProperties.CacheSpec spec = new CachingProperties().cache("posts");
+        spec.setMaxWeight(DataSize.ofKilobytes(4));
+        CacheEvictions evictions = new CacheEvictions(Tags.empty());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        evictions.bindTo(registry);
+        Cache<Object, Object> cache = CacheConfiguration.caffeine(spec)
+                .executor(Runnable::run)
+                .evictionListener(evictions.listener("posts"))
+                .build();
+        AuditionPost post = AuditionPost.builder()
+                .title("title")
+                .body("x".repeat(1000))
+                .build();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            cache.put(String.valueOf(i), post);
+        }
+        cache.cleanUp();
+
+        // Then - a ~1.2KB estimate per entry leaves 3 in 4KB
+        assertTrue(RetainedSize.of(post) > 1000);
+        assertEquals(3, cache.estimatedSize());
+        assertEquals(7.0, registry.get("audition.cache.evictions").tag("cache", "posts")
+                .tag("cause", "size").functionCounter().count(), 0.001);
+        assertEquals(0, evictions.count("posts", RemovalCause.EXPIRED));
+    }
+
+    @Test
+    void testCacheMetricsAreBoundPerCache() {
+        // Given
+        CacheManager cacheManager = cacheConfiguration(new CachingProperties()).cacheManager();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheConfiguration(new CachingProperties()).cacheMetrics(cacheManager).bindTo(registry);
+
+        // When
+        cacheManager.getCache("posts").put("1", AuditionPost.builder().build());
+        cacheManager.getCache("posts").get("1");
+        cacheManager.getCache("posts").get("2");
+
+        // Then - the same tag keys as the application's other Caffeine caches
+        for (String name : CacheConfiguration.CACHE_NAMES) {
+            assertNotNull(registry.find("cache.size").tags("cache", name, "cacheManager", "servlet").gauge());
+        }
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "posts", "result", "hit")
+                .functionCounter().count(), 0.001);
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "posts", "result", "miss")
+                .functionCounter().count(), 0.001);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativeCache(final CacheManager cacheManager, final String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
     }
 
     @Test
@@ -82,7 +220,7 @@ class ConfigurationTest {
     @Test
     void testRestTemplateConfiguration() {
         // When
-        RestTemplate restTemplate = webServiceConfiguration.restTemplate();
+        RestTemplate restTemplate = webServiceConfiguration.restTemplate(new JsonPlaceholderProperties());
 
         // Then
         assertNotNull(restTemplate);
@@ -93,9 +231,105 @@ class ConfigurationTest {
                 .anyMatch(converter -> converter instanceof MappingJackson2HttpMessageConverter);
         assertTrue(hasMappingJacksonConverter);
 
-        // Check that interceptors are set
+        // Only the conditional-request interceptor; responses are streamed unbuffered
         assertNotNull(restTemplate.getInterceptors());
         assertEquals(1, restTemplate.getInterceptors().size());
+        assertFalse(ReflectionTestUtils.getField(restTemplate, "requestFactory")
+                instanceof BufferingClientHttpRequestFactory);
+    }
+
+    @Test
+    void testRestTemplateBuffersAndLogsBodiesOnlyWithDebugBodyLogging() {
+        // Given
+        JsonPlaceholderProperties properties = new JsonPlaceholderProperties();
+        properties.getClient().setBodyLogging(true);
+        ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger)
+                LoggerFactory.getLogger(WebServiceConfiguration.class);
+        Level level = logger.getLevel();
+
+        try {
+            // When - body logging enabled, but not at debug level
+            logger.setLevel(Level.INFO);
+            RestTemplate infoTemplate = webServiceConfiguration.restTemplate(properties);
+            logger.setLevel(Level.DEBUG);
+            RestTemplate debugTemplate = webServiceConfiguration.restTemplate(properties);
+
+            // Then
+            assertEquals(1, infoTemplate.getInterceptors().size());
+            assertEquals(2, debugTemplate.getInterceptors().size());
+            assertTrue(ReflectionTestUtils.getField(debugTemplate, "requestFactory")
+                    instanceof BufferingClientHttpRequestFactory);
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    void testRestTemplateUsesPooledApacheEngineByDefault() {
+        // When
+        RestTemplate restTemplate = webServiceConfiguration.restTemplate(new JsonPlaceholderProperties());
+
+        // Then
+        assertNotNull(restTemplate);
+        UpstreamConnectionManager connectionManager = webServiceConfiguration.upstreamConnectionManager(new JsonPlaceholderProperties());
+        assertEquals(100, connectionManager.getMaxTotal());
+        assertEquals(50, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void testUpstreamConnectionManagerMetrics() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamConnectionManager connectionManager = new UpstreamConnectionManager(10, 5, Duration.ofSeconds(1));
+
+        // When
+        connectionManager.bindTo(registry);
+
+        // Then
+        assertEquals(10.0, registry.get("audition.upstream.pool.max").gauge().value());
+        assertEquals(0.0, registry.get("audition.upstream.pool.utilization").gauge().value());
+        assertEquals(0.0, registry.get("audition.upstream.pool.connections").tag("state", "leased").gauge().value());
+        assertEquals(0L, registry.get("audition.upstream.pool.lease.wait").functionTimer().count());
+        connectionManager.close();
+    }
+
+    @Test
+    void testUpstreamConnectionManagerQueuesLeasesOutsideThePool() throws Exception {
+        // Given - a single connection per route
+        UpstreamConnectionManager connectionManager = new UpstreamConnectionManager(10, 1, Duration.ofSeconds(1));
+        HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+        ConnectionEndpoint first = connectionManager.lease("1", route, Timeout.ofSeconds(1), null)
+                .get(Timeout.ofSeconds(1));
+
+        // When & Then - a second caller waits on the permit and times out
+        LeaseRequest second = connectionManager.lease("2", route, Timeout.ofMilliseconds(50), null);
+        assertThrows(TimeoutException.class, () -> second.get(Timeout.ofMilliseconds(50)));
+
+        // When & Then - releasing the first lease frees the permit
+        connectionManager.release(first, null, TimeValue.ZERO_MILLISECONDS);
+        ConnectionEndpoint third = connectionManager.lease("3", route, Timeout.ofSeconds(1), null)
+                .get(Timeout.ofSeconds(1));
+        assertNotNull(third);
+        connectionManager.release(third, null, TimeValue.ZERO_MILLISECONDS);
+        connectionManager.close();
+    }
+
+    @Test
+    void testUpstreamExecutorCountsRejections() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncConfiguration.CountingCallerRunsPolicy policy = new AsyncConfiguration.CountingCallerRunsPolicy();
+        policy.bindTo(registry);
+        ThreadPoolExecutor executor = mock(ThreadPoolExecutor.class);
+        Runnable task = mock(Runnable.class);
+
+        // When
+        policy.rejectedExecution(task, executor);
+
+        // Then - the caller ran the task itself
+        verify(task).run();
+        assertEquals(1L, policy.getRejectedCount());
+        assertEquals(1.0, registry.get("audition.upstream.executor.rejected").functionCounter().count());
     }
 
     @Test
@@ -143,7 +377,7 @@ class ConfigurationTest {
     @Test
     void testCacheConfigurationAnnotations() {
         // Given
-        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        CacheConfiguration cacheConfiguration = cacheConfiguration(new CachingProperties());
 
         // When
         Class<?> clazz = cacheConfiguration.getClass();
@@ -181,7 +415,7 @@ class ConfigurationTest {
     @Test
     void testCaffeineCacheConfiguration() {
         // Given
-        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        CacheConfiguration cacheConfiguration = cacheConfiguration(new CachingProperties());
 
         // When
         CacheManager cacheManager = cacheConfiguration.cacheManager();
@@ -197,4 +431,10 @@ class ConfigurationTest {
         postsCache.put("test-key", "test-value");
         assertEquals("test-value", postsCache.get("test-key", String.class));
     }
-}
\ No newline at end of file
+
+    private static CacheConfiguration cacheConfiguration(final CachingProperties cachingProperties) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new CacheConfiguration(cachingProperties, objectMapper,
+                new SerializedResponses(cachingProperties, objectMapper));
+    }
+}
@@ -0,0 +1,96 @@
+package com.audition.configuration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.common.logging.AuditionLogger;
+import com.audition.model.AuditionPost;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Round-trips through each HTTP client engine against a WireMock stand-in for the upstream.
+ */
+class HttpClientEngineTest {
+
+    private static final String POST_JSON = "{\"userId\":1,\"id\":1,\"title\":\"Sample Post\",\"body\":\"Body\"}";
+
+    private WireMockServer wireMockServer;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlEqualTo("/posts/1"))
+                .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(POST_JSON)));
+        wireMockServer.stubFor(get(urlEqualTo("/posts/999"))
+                .willReturn(aResponse().withStatus(404)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testApacheEngineRoundTrip() {
+        // Given
+        RestTemplate restTemplate = restTemplateFor(JsonPlaceholderProperties.Engine.APACHE);
+
+        // When
+        AuditionPost first = restTemplate.getForObject(url("/posts/1"), AuditionPost.class);
+        AuditionPost second = restTemplate.getForObject(url("/posts/1"), AuditionPost.class);
+
+        // Then
+        assertNotNull(first);
+        assertEquals("Sample Post", first.getTitle());
+        assertNotNull(second);
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/posts/1")));
+    }
+
+    @Test
+    void testJdkEngineRoundTrip() {
+        // Given
+        RestTemplate restTemplate = restTemplateFor(JsonPlaceholderProperties.Engine.JDK);
+
+        // When
+        AuditionPost result = restTemplate.getForObject(url("/posts/1"), AuditionPost.class);
+
+        // Then
+        assertNotNull(result);
+        assertEquals(1, result.getId());
+        assertEquals("Sample Post", result.getTitle());
+    }
+
+    @Test
+    void testJdkEngineMapsErrorStatus() {
+        // Given
+        RestTemplate restTemplate = restTemplateFor(JsonPlaceholderProperties.Engine.JDK);
+
+        // When & Then
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class,
+                () -> restTemplate.getForObject(url("/posts/999"), AuditionPost.class));
+        assertEquals(404, exception.getStatusCode().value());
+    }
+
+    private RestTemplate restTemplateFor(final JsonPlaceholderProperties.Engine engine) {
+        JsonPlaceholderProperties properties = new JsonPlaceholderProperties();
+        properties.getClient().setEngine(engine);
+        WebServiceConfiguration configuration = new WebServiceConfiguration();
+        ReflectionTestUtils.setField(configuration, "auditionLogger", new AuditionLogger());
+        return configuration.restTemplate(properties);
+    }
+
+    private String url(final String path) {
+        return "http://localhost:" + wireMockServer.port() + path;
+    }
+}
@@ -6,17 +6,22 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import com.audition.common.cache.StaleResponses;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.CachingProperties;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.PostSnapshot;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -30,35 +35,47 @@ class AuditionIntegrationClientTest {
     @Mock
     private AuditionLogger auditionLogger;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Spy
+    private SyncTaskExecutor upstreamExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private LastKnownGoodStore lastKnownGoodStore = new LastKnownGoodStore(new CachingProperties());
+
     @InjectMocks
     private AuditionIntegrationClient auditionIntegrationClient;
 
-    private AuditionPost[] samplePostsArray;
+    private PostSnapshot samplePosts;
     private AuditionPost samplePost;
     private AuditionComment[] sampleCommentsArray;
 
     @BeforeEach
     void setUp() {
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Sample Post");
-        samplePost.setBody("This is a sample post");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(2);
-        post2.setUserId(2);
-        post2.setTitle("Another Post");
-        post2.setBody("This is another post");
-
-        samplePostsArray = new AuditionPost[]{samplePost, post2};
-
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("John Doe");
-        comment1.setEmail("john@example.com");
-        comment1.setBody("Great post!");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Another Post")
+                .body("This is another post")
+                .build();
+
+        samplePosts = PostSnapshot.of(List.of(samplePost, post2));
+
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("John Doe")
+                .email("john@example.com")
+                .body("Great post!")
+                .build();
 
         sampleCommentsArray = new AuditionComment[]{comment1};
     }
@@ -66,8 +83,8 @@ class AuditionIntegrationClientTest {
     @Test
     void testGetPosts() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
-                .thenReturn(samplePostsArray);
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
+                .thenReturn(samplePosts);
 
         // When
         List<AuditionPost> result = auditionIntegrationClient.getPosts();
@@ -81,7 +98,7 @@ class AuditionIntegrationClientTest {
     @Test
     void testGetPostsWithException() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
                 .thenThrow(new RuntimeException("Network error"));
 
         // When & Then
@@ -166,21 +183,40 @@ class AuditionIntegrationClientTest {
     }
 
     @Test
-    void testGetPostByIdWithComments() {
-        // Given
+    void testFallbacksServeLastKnownGoodMarkedStale() {
+        // Given - one successful fetch of each resource
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
+                .thenReturn(samplePosts);
         when(restTemplate.getForObject(anyString(), eq(AuditionPost.class), anyString()))
                 .thenReturn(samplePost);
-        when(restTemplate.getForObject(anyString(), eq(AuditionComment[].class), anyString()))
-                .thenReturn(sampleCommentsArray);
+        auditionIntegrationClient.getPosts();
+        auditionIntegrationClient.getPostById("1");
 
-        // When
-        AuditionPost result = auditionIntegrationClient.getPostByIdWithComments("1");
+        // When - the upstream goes down
+        StaleResponses.Tracked<List<AuditionPost>> posts = StaleResponses.track(
+                () -> auditionIntegrationClient.getPostsFallback(new RuntimeException("Circuit open")));
+        StaleResponses.Tracked<AuditionPost> post = StaleResponses.track(
+                () -> auditionIntegrationClient.getPostByIdFallback("1", new RuntimeException("Circuit open")));
 
         // Then
-        assertNotNull(result);
-        assertEquals(1, result.getId());
-        assertNotNull(result.getComments());
-        assertEquals(1, result.getComments().size());
-        assertEquals("Great post!", result.getComments().get(0).getBody());
+        assertEquals(2, posts.value().size());
+        assertTrue(posts.isStale());
+        assertEquals("Sample Post", post.value().getTitle());
+        assertTrue(post.isStale());
+        SystemException unknown = assertThrows(SystemException.class,
+                () -> auditionIntegrationClient.getPostByIdFallback("2", new RuntimeException("Circuit open")));
+        assertEquals(503, unknown.getStatusCode());
+    }
+
+    @Test
+    void testFallbacksPassNotFoundThrough() {
+        // Given
+        SystemException notFound = new SystemException("Cannot find a Post with id 999", "Resource Not Found", 404);
+
+        // When & Then - a missing post is not an outage
+        SystemException thrown = assertThrows(SystemException.class,
+                () -> auditionIntegrationClient.getPostByIdFallback("999", notFound));
+        assertSame(notFound, thrown);
+        assertTrue(auditionIntegrationClient.getCommentsForPostFallback("999", notFound).isEmpty());
     }
-}
\ No newline at end of file
+}
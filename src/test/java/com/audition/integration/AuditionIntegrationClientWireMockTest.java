@@ -0,0 +1,250 @@
+package com.audition.integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.common.cache.CacheOutcomes;
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.AsyncConfiguration;
+import com.audition.configuration.CachingProperties;
+import com.audition.configuration.JsonPlaceholderProperties;
+import com.audition.configuration.WebServiceConfiguration;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionService;
+import com.audition.service.BulkComments;
+import com.audition.service.NotFoundCache;
+import com.audition.service.SerializedResponses;
+import com.audition.service.snapshot.PostSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Exercises AuditionIntegrationClient, and the AuditionService composition on top of it, over real HTTP
+ * against a WireMock stand-in for JSONPlaceholder.
+ */
+class AuditionIntegrationClientWireMockTest {
+
+    private static final int UPSTREAM_DELAY_MILLIS = 750;
+
+    private static final String POST_JSON = "{\"userId\":1,\"id\":1,\"title\":\"Sample Post\",\"body\":\"Body\"}";
+    private static final String COMMENTS_JSON = "[{\"postId\":1,\"id\":1,\"name\":\"John Doe\","
+            + "\"email\":\"john@example.com\",\"body\":\"Great post!\"}]";
+
+    private WireMockServer wireMockServer;
+    private ThreadPoolTaskExecutor upstreamExecutor;
+    private RequestCoalescer requestCoalescer;
+    private LastKnownGoodStore lastKnownGoodStore;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditionIntegrationClient auditionIntegrationClient;
+    private AuditionService auditionService;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+
+        AuditionLogger auditionLogger = new AuditionLogger();
+        WebServiceConfiguration webServiceConfiguration = new WebServiceConfiguration();
+        ReflectionTestUtils.setField(webServiceConfiguration, "auditionLogger", auditionLogger);
+
+        upstreamExecutor = new AsyncConfiguration().upstreamExecutor(new JsonPlaceholderProperties());
+        upstreamExecutor.initialize();
+
+        requestCoalescer = new RequestCoalescer();
+        lastKnownGoodStore = new LastKnownGoodStore(new CachingProperties());
+        meterRegistry = new SimpleMeterRegistry();
+        lastKnownGoodStore.bindTo(meterRegistry);
+        auditionIntegrationClient = new AuditionIntegrationClient();
+        ReflectionTestUtils.setField(auditionIntegrationClient, "baseUrl", "http://localhost:" + wireMockServer.port());
+        ReflectionTestUtils.setField(auditionIntegrationClient, "restTemplate", webServiceConfiguration.restTemplate(new JsonPlaceholderProperties()));
+        ReflectionTestUtils.setField(auditionIntegrationClient, "auditionLogger", auditionLogger);
+        ReflectionTestUtils.setField(auditionIntegrationClient, "requestCoalescer", requestCoalescer);
+        ReflectionTestUtils.setField(auditionIntegrationClient, "upstreamExecutor", upstreamExecutor);
+        ReflectionTestUtils.setField(auditionIntegrationClient, "lastKnownGoodStore", lastKnownGoodStore);
+
+        CachingProperties cachingProperties = new CachingProperties();
+        auditionService = new AuditionService(auditionIntegrationClient, new NotFoundCache(cachingProperties),
+                new SerializedResponses(cachingProperties, new ObjectMapper()),
+                new BulkComments(auditionIntegrationClient, cachingProperties), meterRegistry, cachingProperties,
+                upstreamExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        upstreamExecutor.shutdown();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testPostAndCommentsAreFetchedConcurrently() {
+        // Given - both upstream calls take UPSTREAM_DELAY_MILLIS
+        stubPost(200, POST_JSON);
+        stubComments(200, COMMENTS_JSON);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When
+        long start = System.nanoTime();
+        AuditionPost result = auditionService.getPostByIdWithComments("1");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then - the second call reached the upstream while the first was in flight
+        assertEquals("Sample Post", result.getTitle());
+        assertEquals(1, result.getComments().size());
+        assertTrue(elapsedMillis >= UPSTREAM_DELAY_MILLIS, "took " + elapsedMillis + "ms");
+        List<Long> received = wireMockServer.getAllServeEvents().stream()
+                .map(event -> event.getRequest().getLoggedDate().getTime())
+                .toList();
+        assertEquals(2, received.size());
+        assertTrue(Math.abs(received.get(0) - received.get(1)) < UPSTREAM_DELAY_MILLIS,
+                "calls did not overlap, received " + received);
+        // Both lookups ran on upstream threads and recorded on the caller's request
+        assertEquals(CacheOutcomes.Outcome.MISS, CacheOutcomes.of(request.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE)));
+        assertNotNull(auditionService.etagOf(result));
+    }
+
+    @Test
+    void testPostNotFoundWins() {
+        // Given
+        stubPost(404, "{}");
+        stubComments(200, COMMENTS_JSON);
+
+        // When & Then
+        SystemException exception = assertThrows(SystemException.class,
+                () -> auditionService.getPostByIdWithComments("1"));
+        assertEquals(404, exception.getStatusCode());
+    }
+
+    @Test
+    void testCommentsFailureDegradesGracefully() {
+        // Given
+        stubPost(200, POST_JSON);
+        stubComments(500, "{}");
+
+        // When
+        AuditionPost result = auditionService.getPostByIdWithComments("1");
+
+        // Then - the post without comments, with no ETag a complete response could match
+        assertEquals(1, result.getId());
+        assertTrue(result.getComments().isEmpty());
+        assertNull(auditionService.etagOf(result));
+    }
+
+    @Test
+    void testCancellingGetPostsAsyncAbortsHttpRequest() throws InterruptedException {
+        // Given - the upstream would hold the connection for several seconds
+        wireMockServer.stubFor(get(urlEqualTo("/posts"))
+                .willReturn(aResponse().withStatus(200).withFixedDelay(5_000)
+                        .withHeader("Content-Type", "application/json").withBody("[]")));
+        CompletableFuture<List<AuditionPost>> future = auditionIntegrationClient.getPostsAsync();
+        awaitInFlight(1);
+
+        // When
+        assertTrue(future.cancel(true));
+
+        // Then - the exchange is aborted long before the upstream answers
+        awaitInFlight(0);
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void testPostsAreStreamedIntoIndexedSnapshot() {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo("/posts"))
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader("Content-Type", "application/json").withBody("[" + POST_JSON + "]")));
+
+        // When
+        List<AuditionPost> posts = auditionIntegrationClient.getPosts();
+
+        // Then
+        PostSnapshot snapshot = assertInstanceOf(PostSnapshot.class, posts);
+        assertEquals("Sample Post", snapshot.filter(1, "sample").get(0).getTitle());
+    }
+
+    @Test
+    void testRefreshIsRevalidatedWithConditionalGet() {
+        // Given - the upstream answers 304 when the client presents the current ETag
+        wireMockServer.stubFor(get(urlEqualTo("/posts/1"))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"")
+                        .withHeader("Content-Type", "application/json").withBody(POST_JSON)));
+        wireMockServer.stubFor(get(urlEqualTo("/posts/1")).withHeader("If-None-Match", equalTo("\"v1\""))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+        AuditionPost first = auditionIntegrationClient.getPostById("1");
+
+        // When
+        AuditionPost refreshed = auditionIntegrationClient.getPostById("1");
+
+        // Then - the retained instance is reused, nothing was downloaded twice
+        assertSame(first, refreshed);
+        wireMockServer.verify(getRequestedFor(urlEqualTo("/posts/1")).withHeader("If-None-Match", absent()));
+        wireMockServer.verify(getRequestedFor(urlEqualTo("/posts/1")).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertEquals(1.0, refreshes("revalidated"));
+        assertEquals(0.0, refreshes("downloaded"));
+    }
+
+    @Test
+    void testChangedResourceIsDownloadedAgain() {
+        // Given - the upstream ignores the validators and always sends the full body
+        wireMockServer.stubFor(get(urlEqualTo("/posts/1"))
+                .willReturn(aResponse().withStatus(200).withHeader("Last-Modified", "Wed, 21 Oct 2026 07:28:00 GMT")
+                        .withHeader("Content-Type", "application/json").withBody(POST_JSON)));
+        AuditionPost first = auditionIntegrationClient.getPostById("1");
+
+        // When
+        AuditionPost refreshed = auditionIntegrationClient.getPostById("1");
+
+        // Then
+        assertNotSame(first, refreshed);
+        wireMockServer.verify(getRequestedFor(urlEqualTo("/posts/1"))
+                .withHeader("If-Modified-Since", equalTo("Wed, 21 Oct 2026 07:28:00 GMT")));
+        assertEquals(0.0, refreshes("revalidated"));
+        assertEquals(1.0, refreshes("downloaded"));
+    }
+
+    private double refreshes(final String result) {
+        return meterRegistry.get("audition.upstream.refreshes").tag("result", result).functionCounter().count();
+    }
+
+    private void awaitInFlight(final int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (requestCoalescer.getInFlightCount() != expected) {
+            assertTrue(System.nanoTime() < deadline, "in-flight calls never reached " + expected);
+            Thread.sleep(10);
+        }
+    }
+
+    private void stubPost(final int status, final String body) {
+        wireMockServer.stubFor(get(urlEqualTo("/posts/1"))
+                .willReturn(aResponse().withStatus(status).withFixedDelay(UPSTREAM_DELAY_MILLIS)
+                        .withHeader("Content-Type", "application/json").withBody(body)));
+    }
+
+    private void stubComments(final int status, final String body) {
+        wireMockServer.stubFor(get(urlEqualTo("/comments?postId=1"))
+                .willReturn(aResponse().withStatus(status).withFixedDelay(UPSTREAM_DELAY_MILLIS)
+                        .withHeader("Content-Type", "application/json").withBody(body)));
+    }
+}
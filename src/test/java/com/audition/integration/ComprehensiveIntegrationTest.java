@@ -6,16 +6,20 @@ import static org.mockito.Mockito.*;
 
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.CachingProperties;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.PostSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
@@ -36,10 +40,19 @@ class ComprehensiveIntegrationTest {
     @Mock
     private AuditionLogger auditionLogger;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Spy
+    private SyncTaskExecutor upstreamExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private LastKnownGoodStore lastKnownGoodStore = new LastKnownGoodStore(new CachingProperties());
+
     @InjectMocks
     private AuditionIntegrationClient auditionIntegrationClient;
 
-    private AuditionPost[] samplePostsArray;
+    private PostSnapshot samplePosts;
     private AuditionPost samplePost;
     private AuditionComment[] sampleCommentsArray;
 
@@ -49,33 +62,37 @@ class ComprehensiveIntegrationTest {
         ReflectionTestUtils.setField(auditionIntegrationClient, "baseUrl", "https://jsonplaceholder.typicode.com");
 
         // Setup test data
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Sample Post");
-        samplePost.setBody("This is a sample post");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(2);
-        post2.setUserId(2);
-        post2.setTitle("Another Post");
-        post2.setBody("This is another post");
-
-        samplePostsArray = new AuditionPost[]{samplePost, post2};
-
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("John Doe");
-        comment1.setEmail("john@example.com");
-        comment1.setBody("Great post!");
-
-        AuditionComment comment2 = new AuditionComment();
-        comment2.setId(2);
-        comment2.setPostId(1);
-        comment2.setName("Jane Smith");
-        comment2.setEmail("jane@example.com");
-        comment2.setBody("Very informative!");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Another Post")
+                .body("This is another post")
+                .build();
+
+        samplePosts = PostSnapshot.of(List.of(samplePost, post2));
+
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("John Doe")
+                .email("john@example.com")
+                .body("Great post!")
+                .build();
+
+        AuditionComment comment2 = AuditionComment.builder()
+                .id(2)
+                .postId(1)
+                .name("Jane Smith")
+                .email("jane@example.com")
+                .body("Very informative!")
+                .build();
 
         sampleCommentsArray = new AuditionComment[]{comment1, comment2};
     }
@@ -83,8 +100,8 @@ class ComprehensiveIntegrationTest {
     @Test
     void testGetPostsAsync() throws ExecutionException, InterruptedException {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
-                .thenReturn(samplePostsArray);
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
+                .thenReturn(samplePosts);
 
         // When
         CompletableFuture<List<AuditionPost>> future = auditionIntegrationClient.getPostsAsync();
@@ -100,7 +117,7 @@ class ComprehensiveIntegrationTest {
     @Test
     void testGetPostsWithNullResponse() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
                 .thenReturn(null);
 
         // When
@@ -114,7 +131,7 @@ class ComprehensiveIntegrationTest {
     @Test
     void testGetPostsWithNetworkException() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
                 .thenThrow(new ResourceAccessException("Network timeout"));
 
         // When & Then
@@ -171,26 +188,6 @@ class ComprehensiveIntegrationTest {
         assertEquals(500, exception.getStatusCode());
     }
 
-    @Test
-    void testGetPostByIdWithCommentsSuccess() {
-        // Given
-        when(restTemplate.getForObject(eq("https://jsonplaceholder.typicode.com/posts/{id}"), eq(AuditionPost.class), eq("1")))
-                .thenReturn(samplePost);
-        when(restTemplate.getForObject(eq("https://jsonplaceholder.typicode.com/posts/{postId}/comments"), eq(AuditionComment[].class), eq("1")))
-                .thenReturn(sampleCommentsArray);
-
-        // When
-        AuditionPost result = auditionIntegrationClient.getPostByIdWithComments("1");
-
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.getId());
-        assertEquals("Sample Post", result.getTitle());
-        assertNotNull(result.getComments());
-        assertEquals(2, result.getComments().size());
-        assertEquals("Great post!", result.getComments().get(0).getBody());
-    }
-
     @Test
     void testGetCommentsForPostNotFound() {
         // Given
@@ -284,38 +281,6 @@ class ComprehensiveIntegrationTest {
         assertEquals(404, exception.getStatusCode());
     }
 
-    @Test
-    void testGetPostByIdWithCommentsWhenPostNotFound() {
-        // Given
-        when(restTemplate.getForObject(eq("https://jsonplaceholder.typicode.com/posts/{id}"), eq(AuditionPost.class), eq("999")))
-                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
-
-        // When & Then
-        SystemException exception = assertThrows(SystemException.class,
-                () -> auditionIntegrationClient.getPostByIdWithComments("999"));
-
-        assertEquals("Cannot find a Post with id 999", exception.getMessage());
-        assertEquals("Resource Not Found", exception.getTitle());
-        assertEquals(404, exception.getStatusCode());
-    }
-
-    @Test
-    void testGetPostByIdWithCommentsWhenCommentsNotFound() {
-        // Given
-        when(restTemplate.getForObject(eq("https://jsonplaceholder.typicode.com/posts/{id}"), eq(AuditionPost.class), eq("1")))
-                .thenReturn(samplePost);
-        when(restTemplate.getForObject(eq("https://jsonplaceholder.typicode.com/posts/{postId}/comments"), eq(AuditionComment[].class), eq("1")))
-                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
-
-        // When & Then
-        SystemException exception = assertThrows(SystemException.class,
-                () -> auditionIntegrationClient.getPostByIdWithComments("1"));
-
-        assertEquals("Cannot find comments for Post with id 1", exception.getMessage());
-        assertEquals("Resource Not Found", exception.getTitle());
-        assertEquals(404, exception.getStatusCode());
-    }
-
     @Test
     void testFallbackMethods() {
         // Test getPosts fallback
@@ -338,12 +303,6 @@ class ComprehensiveIntegrationTest {
                 () -> auditionIntegrationClient.getPostByIdFallback("1", new RuntimeException("Test")));
         assertEquals("Service temporarily unavailable for post 1", postException.getMessage());
         assertEquals(503, postException.getStatusCode());
-
-        // Test getPostByIdWithComments fallback
-        SystemException postWithCommentsException = assertThrows(SystemException.class,
-                () -> auditionIntegrationClient.getPostByIdWithCommentsFallback("1", new RuntimeException("Test")));
-        assertEquals("Service temporarily unavailable for post with comments 1", postWithCommentsException.getMessage());
-        assertEquals(503, postWithCommentsException.getStatusCode());
     }
 
     @Test
@@ -358,8 +317,8 @@ class ComprehensiveIntegrationTest {
     @Test
     void testLoggingCalls() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
-                .thenReturn(samplePostsArray);
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
+                .thenReturn(samplePosts);
 
         // When
         auditionIntegrationClient.getPosts();
@@ -382,14 +341,14 @@ class ComprehensiveIntegrationTest {
         // by verifying the correct URLs are called
 
         // Given
-        when(restTemplate.getForObject(anyString(), eq(AuditionPost[].class)))
-                .thenReturn(samplePostsArray);
+        when(restTemplate.getForObject(anyString(), eq(PostSnapshot.class)))
+                .thenReturn(samplePosts);
 
         // When
         auditionIntegrationClient.getPosts();
 
         // Then
-        verify(restTemplate).getForObject(eq("https://jsonplaceholder.typicode.com/posts"), eq(AuditionPost[].class));
+        verify(restTemplate).getForObject(eq("https://jsonplaceholder.typicode.com/posts"), eq(PostSnapshot.class));
     }
 
     @Test
@@ -0,0 +1,111 @@
+package com.audition.integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.JsonPlaceholderProperties;
+import com.audition.configuration.ReactiveWebConfiguration;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+/**
+ * Exercises ReactiveAuditionIntegrationClient over real HTTP against a WireMock stand-in for JSONPlaceholder.
+ */
+class ReactiveAuditionIntegrationClientTest {
+
+    private static final String POST_JSON = "{\"userId\":1,\"id\":1,\"title\":\"Sample Post\",\"body\":\"Body\"}";
+    private static final String POSTS_JSON = "[" + POST_JSON + ",{\"userId\":2,\"id\":2,\"title\":\"Other\"}]";
+    private static final String COMMENTS_JSON = "[{\"postId\":1,\"id\":1,\"name\":\"John Doe\","
+            + "\"email\":\"john@example.com\",\"body\":\"Great post!\"}]";
+
+    private WireMockServer wireMockServer;
+    private ReactiveAuditionIntegrationClient client;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+
+        client = new ReactiveAuditionIntegrationClient();
+        ReflectionTestUtils.setField(client, "baseUrl", "http://localhost:" + wireMockServer.port());
+        ReflectionTestUtils.setField(client, "webClient", new ReactiveWebConfiguration()
+                .webClient(WebClient.builder(), new JsonPlaceholderProperties()));
+        ReflectionTestUtils.setField(client, "auditionLogger", new AuditionLogger());
+        ReflectionTestUtils.setField(client, "circuitBreakerRegistry", CircuitBreakerRegistry.ofDefaults());
+        ReflectionTestUtils.setField(client, "retryRegistry",
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()));
+        ReflectionTestUtils.setField(client, "timeLimiterRegistry", TimeLimiterRegistry.ofDefaults());
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testGetPosts() {
+        stub("/posts", 200, POSTS_JSON);
+
+        StepVerifier.create(client.getPosts())
+                .assertNext(post -> assertEquals("Sample Post", post.getTitle()))
+                .assertNext(post -> assertEquals(2, post.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetPostsFallsBackToEmptyOnServerError() {
+        stub("/posts", 500, "{}");
+
+        StepVerifier.create(client.getPosts()).verifyComplete();
+    }
+
+    @Test
+    void testGetPostByIdNotFound() {
+        stub("/posts/1", 404, "{}");
+
+        StepVerifier.create(client.getPostById("1"))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(SystemException.class, e);
+                    assertEquals(404, ((SystemException) e).getStatusCode());
+                })
+                .verify();
+    }
+
+    @Test
+    void testGetPostByIdUnreachableUpstreamFallsBackTo503() {
+        wireMockServer.stop();
+
+        StepVerifier.create(client.getPostById("1"))
+                .expectErrorSatisfies(e -> assertEquals(503, ((SystemException) e).getStatusCode()))
+                .verify();
+    }
+
+    @Test
+    void testGetCommentsByPostId() {
+        stub("/comments?postId=1", 200, COMMENTS_JSON);
+
+        StepVerifier.create(client.getCommentsByPostId("1"))
+                .assertNext(comment -> assertEquals("John Doe", comment.getName()))
+                .verifyComplete();
+    }
+
+    private void stub(final String url, final int status, final String body) {
+        wireMockServer.stubFor(get(urlEqualTo(url))
+                .willReturn(aResponse().withStatus(status)
+                        .withHeader("Content-Type", "application/json").withBody(body)));
+    }
+}
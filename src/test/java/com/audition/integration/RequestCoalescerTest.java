@@ -0,0 +1,146 @@
+package com.audition.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        requestCoalescer = new RequestCoalescer();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareSingleCall() throws Exception {
+        // Given
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        String key = RequestCoalescer.key("https://example.com/posts");
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute(key, () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return "posts";
+        }));
+        waitForInFlight();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> requestCoalescer.execute(key, () -> {
+                upstreamCalls.incrementAndGet();
+                return "unexpected";
+            })));
+        }
+        waitForCoalesced(CALLERS - 1);
+        release.countDown();
+
+        // Then
+        assertEquals("posts", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> result : results) {
+            assertEquals("posts", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, requestCoalescer.getIssuedCount());
+        assertEquals(CALLERS - 1, requestCoalescer.getCoalescedCount());
+        assertEquals(0, requestCoalescer.getInFlightCount());
+    }
+
+    @Test
+    void testConcurrentCallersShareError() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        String key = RequestCoalescer.key("https://example.com/posts/{id}", "1");
+
+        // When
+        Future<String> leader = executor.submit(() -> requestCoalescer.execute(key, () -> {
+            await(release);
+            throw new IllegalStateException("upstream down");
+        }));
+        waitForInFlight();
+        Future<String> follower = executor.submit(() -> requestCoalescer.execute(key, () -> "unexpected"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        // Then
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(leaderError.getCause() instanceof IllegalStateException);
+        assertSame(leaderError.getCause(), followerError.getCause());
+        assertEquals(0, requestCoalescer.getInFlightCount());
+    }
+
+    @Test
+    void testDifferentKeysAreNotCoalesced() {
+        // When
+        String first = requestCoalescer.execute(RequestCoalescer.key("/posts/{id}", "1"), () -> "one");
+        String second = requestCoalescer.execute(RequestCoalescer.key("/posts/{id}", "2"), () -> "two");
+        String again = requestCoalescer.execute(RequestCoalescer.key("/posts/{id}", "1"), () -> "one again");
+
+        // Then
+        assertEquals("one", first);
+        assertEquals("two", second);
+        assertEquals("one again", again);
+        assertEquals(3, requestCoalescer.getIssuedCount());
+        assertEquals(0, requestCoalescer.getCoalescedCount());
+    }
+
+    @Test
+    void testMetricsAreBound() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        requestCoalescer.bindTo(registry);
+
+        // When
+        requestCoalescer.execute(RequestCoalescer.key("/posts"), () -> "posts");
+
+        // Then
+        assertEquals(1.0, registry.get("audition.upstream.calls").tag("outcome", "issued").functionCounter().count());
+        assertEquals(0.0, registry.get("audition.upstream.calls").tag("outcome", "coalesced").functionCounter().count());
+        assertEquals(0.0, registry.get("audition.upstream.calls.in-flight").gauge().value());
+    }
+
+    private void waitForInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestCoalescer.getInFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void waitForCoalesced(final long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestCoalescer.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.audition.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -8,30 +10,33 @@ import static org.junit.jupiter.api.Assertions.*;
 class AuditionModelTest {
 
     @Test
-    void testAuditionPostGettersAndSetters() {
+    void testAuditionPostBuilder() {
         // Given
-        AuditionPost post = new AuditionPost();
         int userId = 1;
         int id = 123;
         String title = "Test Post Title";
         String body = "Test post body content";
 
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setBody("First comment");
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .body("First comment")
+                .build();
 
-        AuditionComment comment2 = new AuditionComment();
-        comment2.setId(2);
-        comment2.setBody("Second comment");
+        AuditionComment comment2 = AuditionComment.builder()
+                .id(2)
+                .body("Second comment")
+                .build();
 
         List<AuditionComment> comments = Arrays.asList(comment1, comment2);
 
         // When
-        post.setUserId(userId);
-        post.setId(id);
-        post.setTitle(title);
-        post.setBody(body);
-        post.setComments(comments);
+        AuditionPost post = AuditionPost.builder()
+                .userId(userId)
+                .id(id)
+                .title(title)
+                .body(body)
+                .comments(comments)
+                .build();
 
         // Then
         assertEquals(userId, post.getUserId());
@@ -45,9 +50,8 @@ class AuditionModelTest {
     }
 
     @Test
-    void testAuditionCommentGettersAndSetters() {
+    void testAuditionCommentBuilder() {
         // Given
-        AuditionComment comment = new AuditionComment();
         int postId = 456;
         int id = 789;
         String name = "John Doe";
@@ -55,11 +59,13 @@ class AuditionModelTest {
         String body = "This is a test comment";
 
         // When
-        comment.setPostId(postId);
-        comment.setId(id);
-        comment.setName(name);
-        comment.setEmail(email);
-        comment.setBody(body);
+        AuditionComment comment = AuditionComment.builder()
+                .postId(postId)
+                .id(id)
+                .name(name)
+                .email(email)
+                .body(body)
+                .build();
 
         // Then
         assertEquals(postId, comment.getPostId());
@@ -71,13 +77,12 @@ class AuditionModelTest {
 
     @Test
     void testAuditionPostWithNullValues() {
-        // Given
-        AuditionPost post = new AuditionPost();
-
-        // When - setting null values
-        post.setTitle(null);
-        post.setBody(null);
-        post.setComments(null);
+        // Given & When - null values
+        AuditionPost post = AuditionPost.builder()
+                .title(null)
+                .body(null)
+                .comments(null)
+                .build();
 
         // Then
         assertNull(post.getTitle());
@@ -89,13 +94,12 @@ class AuditionModelTest {
 
     @Test
     void testAuditionCommentWithNullValues() {
-        // Given
-        AuditionComment comment = new AuditionComment();
-
-        // When - setting null values
-        comment.setName(null);
-        comment.setEmail(null);
-        comment.setBody(null);
+        // Given & When - null values
+        AuditionComment comment = AuditionComment.builder()
+                .name(null)
+                .email(null)
+                .body(null)
+                .build();
 
         // Then
         assertNull(comment.getName());
@@ -108,11 +112,10 @@ class AuditionModelTest {
     @Test
     void testAuditionPostWithEmptyCommentsList() {
         // Given
-        AuditionPost post = new AuditionPost();
         List<AuditionComment> emptyComments = Arrays.asList();
 
         // When
-        post.setComments(emptyComments);
+        AuditionPost post = AuditionPost.builder().comments(emptyComments).build();
 
         // Then
         assertNotNull(post.getComments());
@@ -122,13 +125,12 @@ class AuditionModelTest {
 
     @Test
     void testAuditionCommentWithEmptyStrings() {
-        // Given
-        AuditionComment comment = new AuditionComment();
-
-        // When
-        comment.setName("");
-        comment.setEmail("");
-        comment.setBody("");
+        // Given & When
+        AuditionComment comment = AuditionComment.builder()
+                .name("")
+                .email("")
+                .body("")
+                .build();
 
         // Then
         assertEquals("", comment.getName());
@@ -138,12 +140,11 @@ class AuditionModelTest {
 
     @Test
     void testAuditionPostWithEmptyStrings() {
-        // Given
-        AuditionPost post = new AuditionPost();
-
-        // When
-        post.setTitle("");
-        post.setBody("");
+        // Given & When
+        AuditionPost post = AuditionPost.builder()
+                .title("")
+                .body("")
+                .build();
 
         // Then
         assertEquals("", post.getTitle());
@@ -153,8 +154,8 @@ class AuditionModelTest {
     @Test
     void testObjectCreationWithDefaultValues() {
         // Given & When
-        AuditionPost post = new AuditionPost();
-        AuditionComment comment = new AuditionComment();
+        AuditionPost post = AuditionPost.builder().build();
+        AuditionComment comment = AuditionComment.builder().build();
 
         // Then - verify default values
         assertEquals(0, post.getUserId());
@@ -169,4 +170,70 @@ class AuditionModelTest {
         assertNull(comment.getEmail());
         assertNull(comment.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCommentsAreCopiedIntoAnImmutableList() {
+        // Given
+        List<AuditionComment> comments = new ArrayList<>();
+        comments.add(AuditionComment.builder().id(1).build());
+        AuditionPost post = AuditionPost.builder().id(1).comments(comments).build();
+
+        // When - the caller's list changes afterwards
+        comments.add(AuditionComment.builder().id(2).build());
+
+        // Then
+        assertEquals(1, post.getComments().size());
+        assertThrows(UnsupportedOperationException.class,
+                () -> post.getComments().add(AuditionComment.builder().build()));
+    }
+
+    @Test
+    void testNullCommentsInTheUpstreamArrayAreDropped() throws Exception {
+        // Given
+        String json = "{\"userId\":1,\"id\":7,\"comments\":[null,{\"postId\":7,\"id\":1},null]}";
+
+        // When
+        AuditionPost post = new ObjectMapper().readValue(json, AuditionPost.class);
+
+        // Then
+        assertEquals(List.of(AuditionComment.builder().postId(7).id(1).build()), post.getComments());
+        assertEquals(1, AuditionPost.builder().comments(Arrays.asList(null, null,
+                AuditionComment.builder().build())).build().getComments().size());
+    }
+
+    @Test
+    void testWithCommentsLeavesTheOriginalUnchanged() {
+        // Given
+        AuditionPost post = AuditionPost.builder().id(1).userId(2).title("Title").body("Body").build();
+        List<AuditionComment> comments = List.of(AuditionComment.builder().id(1).postId(1).build());
+
+        // When
+        AuditionPost withComments = post.withComments(comments);
+
+        // Then
+        assertNull(post.getComments());
+        assertEquals(comments, withComments.getComments());
+        assertEquals(post, withComments.toBuilder().comments(null).build());
+    }
+
+    @Test
+    void testJsonRoundTripDeduplicatesCommenterStrings() throws Exception {
+        // Given
+        ObjectMapper mapper = new ObjectMapper();
+        String json = "{\"userId\":1,\"id\":7,\"title\":\"Shared title\",\"body\":\"Shared body\","
+                + "\"comments\":[{\"postId\":7,\"id\":1,\"name\":\"Jo\",\"email\":\"jo@example.com\","
+                + "\"body\":\"Hi\"}]}";
+
+        // When - parsed twice, as for the posts snapshot and the posts cache
+        AuditionPost first = mapper.readValue(json, AuditionPost.class);
+        AuditionPost second = mapper.readValue(json, AuditionPost.class);
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(7, first.getId());
+        assertEquals("jo@example.com", first.getComments().get(0).getEmail());
+        assertSame(first.getComments().get(0).getName(), second.getComments().get(0).getName());
+        assertSame(first.getComments().get(0).getEmail(), second.getComments().get(0).getEmail());
+        assertEquals(mapper.readTree(json), mapper.readTree(mapper.writeValueAsString(first)));
+    }
+}
@@ -2,19 +2,39 @@ package com.audition.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.audition.common.cache.CacheOutcomes;
+import com.audition.common.cache.StaleResponses;
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.configuration.CachingProperties;
 import com.audition.integration.AuditionIntegrationClient;
+import com.audition.integration.LastKnownGoodStore;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.CommentSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @ExtendWith(MockitoExtension.class)
 class AuditionServiceTest {
@@ -30,39 +50,35 @@ class AuditionServiceTest {
 
     @BeforeEach
     void setUp() {
-        // Create AuditionService with SimpleMeterRegistry for testing
-        auditionService = new AuditionService(new SimpleMeterRegistry());
-
-        // Use reflection to inject the mock auditionIntegrationClient
-        try {
-            java.lang.reflect.Field field = AuditionService.class.getDeclaredField("auditionIntegrationClient");
-            field.setAccessible(true);
-            field.set(auditionService, auditionIntegrationClient);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to inject mock", e);
-        }
+        // Create AuditionService with the mock client and default settings
+        CachingProperties properties = new CachingProperties();
+        auditionService = newService(properties, new BulkComments(auditionIntegrationClient, properties),
+                new SerializedResponses(properties, new ObjectMapper()));
 
         // Setup test data
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Sample Post");
-        samplePost.setBody("This is a sample post");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(2);
-        post2.setUserId(2);
-        post2.setTitle("Another Post");
-        post2.setBody("This is another post");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Another Post")
+                .body("This is another post")
+                .build();
 
         samplePosts = Arrays.asList(samplePost, post2);
 
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("John Doe");
-        comment1.setEmail("john@example.com");
-        comment1.setBody("Great post!");
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("John Doe")
+                .email("john@example.com")
+                .body("Great post!")
+                .build();
 
         sampleComments = Arrays.asList(comment1);
     }
@@ -81,6 +97,23 @@ class AuditionServiceTest {
         assertEquals("Sample Post", result.get(0).getTitle());
     }
 
+    @Test
+    void testGetPostsIsServedFromSnapshotUntilEvicted() {
+        // Given
+        when(auditionIntegrationClient.getPosts()).thenReturn(samplePosts);
+
+        // When
+        auditionService.getPosts();
+        auditionService.getPostsWithFilter("1", null);
+        auditionService.clearCache();
+        auditionService.getPosts();
+        auditionService.evictAllPostsCache();
+        auditionService.getPosts();
+
+        // Then - the scheduled clear leaves the snapshot, an explicit eviction reloads it
+        verify(auditionIntegrationClient, times(2)).getPosts();
+    }
+
     @Test
     void testGetPostsWithUserIdFilter() {
         // Given
@@ -136,20 +169,134 @@ class AuditionServiceTest {
         assertEquals("Sample Post", result.getTitle());
     }
 
+    @Test
+    void testGetPostByIdIsAnsweredFromLoadedSnapshot() {
+        // Given
+        AuditionPost newer = AuditionPost.builder().id(3).userId(1).title("Newer").build();
+        when(auditionIntegrationClient.getPosts()).thenReturn(samplePosts);
+        when(auditionIntegrationClient.getPostById("3")).thenReturn(newer);
+        auditionService.getPosts();
+
+        // When
+        AuditionPost fromSnapshot = auditionService.getPostById("2");
+        AuditionPost notInSnapshot = auditionService.getPostById("3");
+
+        // Then - only the post missing from the snapshot goes to the upstream
+        assertSame(samplePosts.get(1), fromSnapshot);
+        assertSame(newer, notInSnapshot);
+        verify(auditionIntegrationClient).getPosts();
+        verify(auditionIntegrationClient).getPostById("3");
+        verifyNoMoreInteractions(auditionIntegrationClient);
+    }
+
+    @Test
+    void testCommentsAreAnsweredFromBulkIndex() {
+        // Given
+        CachingProperties cachingProperties = new CachingProperties();
+        cachingProperties.getComments().setStrategy(CachingProperties.CommentsStrategy.BULK);
+        BulkComments bulkComments = new BulkComments(auditionIntegrationClient, cachingProperties);
+        auditionService = newService(cachingProperties, bulkComments,
+                new SerializedResponses(cachingProperties, new ObjectMapper()));
+        when(auditionIntegrationClient.getAllComments()).thenReturn(CommentSnapshot.of(sampleComments));
+        bulkComments.refresh();
+
+        // When
+        List<AuditionComment> first = auditionService.getCommentsForPost("1");
+        List<AuditionComment> other = auditionService.getCommentsForPost("2");
+
+        // Then - one bulk download, no per-post calls
+        assertEquals(sampleComments, first);
+        assertTrue(other.isEmpty());
+        verify(auditionIntegrationClient).getAllComments();
+        verifyNoMoreInteractions(auditionIntegrationClient);
+    }
+
+    @Test
+    void testBulkServedCommentsBypassThePerPostCache() {
+        // Given - a mock stands in for the caching proxy
+        CachingProperties cachingProperties = new CachingProperties();
+        cachingProperties.getComments().setStrategy(CachingProperties.CommentsStrategy.BULK);
+        BulkComments bulkComments = new BulkComments(auditionIntegrationClient, cachingProperties);
+        auditionService = newService(cachingProperties, bulkComments,
+                new SerializedResponses(cachingProperties, new ObjectMapper()));
+        AuditionService proxy = mock(AuditionService.class);
+        ReflectionTestUtils.setField(auditionService, "self", proxy);
+        when(proxy.loadCommentsForPost("1")).thenReturn(sampleComments);
+
+        // When - before and after the bulk download
+        List<AuditionComment> loaded = auditionService.getCommentsForPost("1");
+        when(auditionIntegrationClient.getAllComments()).thenReturn(CommentSnapshot.of(sampleComments));
+        bulkComments.refresh();
+        List<AuditionComment> indexed = auditionService.getCommentsForPost("1");
+
+        // Then - only the per-post load went through the cache
+        assertEquals(sampleComments, loaded);
+        assertEquals(sampleComments, indexed);
+        verify(proxy).loadCommentsForPost("1");
+        verifyNoMoreInteractions(proxy);
+    }
+
     @Test
     void testGetPostByIdWithComments() {
         // Given
-        samplePost.setComments(sampleComments);
-        when(auditionIntegrationClient.getPostByIdWithComments(anyString())).thenReturn(samplePost);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenReturn(sampleComments);
 
         // When
         AuditionPost result = auditionService.getPostByIdWithComments("1");
 
-        // Then
+        // Then - composed from the post and its comments; the post itself is left as is
         assertNotNull(result);
         assertEquals(1, result.getId());
         assertNotNull(result.getComments());
         assertEquals(1, result.getComments().size());
+        assertNull(samplePost.getComments());
+    }
+
+    @Test
+    void testCommentsFailureServesThePostWithoutComments() {
+        // Given
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenThrow(
+                new SystemException("Failed to fetch comments", "External Service Error", 500));
+
+        // When
+        AuditionPost result = auditionService.getPostByIdWithComments("1");
+
+        // Then - no ETag, a complete response must not match it later
+        assertEquals(1, result.getId());
+        assertTrue(result.getComments().isEmpty());
+        assertNull(auditionService.etagOf(result));
+    }
+
+    @Test
+    void testPostFailureSkipsCommentsLookupNotYetStarted() {
+        // Given - the post lookup runs, the comments lookup waits in the queue
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger submitted = new AtomicInteger();
+        CachingProperties properties = new CachingProperties();
+        auditionService = new AuditionService(auditionIntegrationClient, new NotFoundCache(properties),
+                new SerializedResponses(properties, new ObjectMapper()),
+                new BulkComments(auditionIntegrationClient, properties), new SimpleMeterRegistry(), properties,
+                task -> {
+                    if (submitted.getAndIncrement() == 0) {
+                        task.run();
+                    } else {
+                        queued.add(task);
+                    }
+                });
+        when(auditionIntegrationClient.getPostById("1")).thenThrow(
+                new SystemException("Service temporarily unavailable for post 1", "Service Unavailable", 503));
+
+        // When
+        SystemException exception = assertThrows(SystemException.class,
+                () -> auditionService.getPostByIdWithComments("1"));
+        queued.forEach(Runnable::run);
+
+        // Then - the post's failure as-is; the comments were never fetched
+        assertEquals(503, exception.getStatusCode());
+        verify(auditionIntegrationClient).getPostById("1");
+        verifyNoMoreInteractions(auditionIntegrationClient);
     }
 
     @Test
@@ -165,4 +312,151 @@ class AuditionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Great post!", result.get(0).getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMissingPostIsAnsweredFromNegativeCache() {
+        // Given
+        when(auditionIntegrationClient.getPostById("999")).thenThrow(
+                new SystemException("Cannot find a Post with id 999", "Resource Not Found", 404));
+
+        // When
+        assertThrows(SystemException.class, () -> auditionService.getPostById("999"));
+        SystemException cached = assertThrows(SystemException.class, () -> auditionService.getPostById("999"));
+        SystemException withComments = assertThrows(SystemException.class,
+                () -> auditionService.getPostByIdWithComments("999"));
+
+        // Then - one upstream call; later lookups are 404s without a stack trace
+        verify(auditionIntegrationClient, times(1)).getPostById("999");
+        verifyNoMoreInteractions(auditionIntegrationClient);
+        assertEquals(404, cached.getStatusCode());
+        assertEquals(0, cached.getStackTrace().length);
+        assertEquals(404, withComments.getStatusCode());
+        assertTrue(auditionService.getCommentsForPost("999").isEmpty());
+    }
+
+    @Test
+    void testOutageIsNotNegativelyCached() {
+        // Given
+        when(auditionIntegrationClient.getPostById("1"))
+                .thenThrow(new SystemException("Service temporarily unavailable for post 1", "Service Unavailable", 503))
+                .thenReturn(samplePost);
+
+        // When & Then
+        assertThrows(SystemException.class, () -> auditionService.getPostById("1"));
+        assertEquals(1, auditionService.getPostById("1").getId());
+    }
+
+    @Test
+    void testCacheOutcomeIsRecordedOnTheRequest() {
+        // Given
+        when(auditionIntegrationClient.getPosts()).thenReturn(samplePosts);
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+
+        try {
+            // When - the first request loads the snapshot, the second is served from it
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(first));
+            auditionService.getPosts();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(second));
+            auditionService.getPosts();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // Then
+        assertEquals(CacheOutcomes.Outcome.MISS, CacheOutcomes.of(first.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE)));
+        assertEquals(CacheOutcomes.Outcome.HIT, CacheOutcomes.of(second.getAttribute(CacheOutcomes.REQUEST_ATTRIBUTE)));
+    }
+
+    @Test
+    void testOnlyFreshResultsAreRegisteredForSerializedResponses() throws Exception {
+        // Given
+        CachingProperties properties = new CachingProperties();
+        properties.getResponses().setEnabled(true);
+        SerializedResponses serializedResponses = new SerializedResponses(properties, new ObjectMapper());
+        auditionService = newService(properties, new BulkComments(auditionIntegrationClient, properties),
+                serializedResponses);
+        AuditionPost stalePost = AuditionPost.builder().id(2).build();
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getPostById("2")).thenAnswer(invocation -> {
+            StaleResponses.record(Duration.ofMinutes(5));
+            return stalePost;
+        });
+
+        try {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            auditionService.getPostById("1");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            auditionService.getPostById("2");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // Then - last-known-good data is never written from stored bytes
+        assertNotNull(serializedResponses.get(samplePost));
+        assertNull(serializedResponses.get(stalePost));
+        assertNull(auditionService.etagOf(stalePost));
+
+        // When - the caches are cleared
+        auditionService.clearCache();
+
+        // Then
+        assertNull(serializedResponses.get(samplePost));
+    }
+
+    @Test
+    void testETagsFollowTheCachedParts() {
+        // Given
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenReturn(sampleComments);
+        AuditionPost post = auditionService.getPostById("1");
+        AuditionPost withComments = auditionService.getPostByIdWithComments("1");
+
+        // When
+        String postETag = auditionService.etagOf(post);
+        String withCommentsETag = auditionService.etagOf(withComments);
+
+        // Then - strong, stable, distinct; a per-request result has none
+        assertTrue(postETag.matches("\"[0-9a-f]{16}\""));
+        assertEquals(postETag, auditionService.etagOf(post));
+        assertNotNull(withCommentsETag);
+        assertNotEquals(postETag, withCommentsETag);
+        assertNull(auditionService.etagOf(List.of(samplePost)));
+
+        // When - the comments change upstream and are loaded again
+        AuditionComment edited = sampleComments.get(0).toBuilder().body("Edited").build();
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenReturn(List.of(edited));
+
+        // Then
+        assertNotEquals(withCommentsETag, auditionService.etagOf(auditionService.getPostByIdWithComments("1")));
+    }
+
+    @Test
+    void testFallbackCommentsLeaveTheCompositeWithoutETag() {
+        // Given - the comments call falls back with no last-known-good data
+        CachingProperties properties = new CachingProperties();
+        AuditionIntegrationClient fallbackClient = new AuditionIntegrationClient();
+        ReflectionTestUtils.setField(fallbackClient, "auditionLogger", new AuditionLogger());
+        ReflectionTestUtils.setField(fallbackClient, "lastKnownGoodStore", new LastKnownGoodStore(properties));
+        ReflectionTestUtils.setField(fallbackClient, "baseUrl", "http://upstream");
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenAnswer(invocation ->
+                fallbackClient.getCommentsByPostIdFallback("1", new SystemException("Connection refused", 503)));
+
+        // When
+        AuditionPost result = auditionService.getPostByIdWithComments("1");
+
+        // Then - degraded, so no strong ETag; nor for the shared empty list
+        assertTrue(result.getComments().isEmpty());
+        assertNotNull(auditionService.etagOf(samplePost));
+        assertNull(auditionService.etagOf(result));
+        assertNull(auditionService.etagOf(Collections.emptyList()));
+    }
+
+    // Background snapshot reloads run on the calling thread
+    private AuditionService newService(final CachingProperties properties, final BulkComments bulkComments,
+                                       final SerializedResponses serializedResponses) {
+        return new AuditionService(auditionIntegrationClient, new NotFoundCache(properties), serializedResponses,
+                bulkComments, new SimpleMeterRegistry(), properties, Runnable::run);
+    }
+}
@@ -0,0 +1,144 @@
+package com.audition.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.cache.StaleResponses;
+import com.audition.configuration.CachingProperties;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.service.snapshot.CommentSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCommentsTest {
+
+    @Mock
+    private AuditionIntegrationClient auditionIntegrationClient;
+
+    private CachingProperties cachingProperties;
+    private CommentSnapshot comments;
+
+    @BeforeEach
+    void setUp() {
+        cachingProperties = new CachingProperties();
+        cachingProperties.getComments().setStrategy(CachingProperties.CommentsStrategy.BULK);
+        comments = CommentSnapshot.of(List.of(comment(1, 1), comment(2, 1), comment(3, 2)));
+    }
+
+    @Test
+    void testLookupsAreAnsweredAfterTheFirstDownload() {
+        // Given
+        BulkComments bulkComments = bulkComments();
+        when(auditionIntegrationClient.getAllComments()).thenReturn(comments);
+        assertTrue(bulkComments.forPost("1").isEmpty());
+
+        // When
+        assertTrue(bulkComments.refresh());
+
+        // Then
+        assertEquals(2, bulkComments.forPost("1").orElseThrow().size());
+        assertEquals(List.of(), bulkComments.forPost("99").orElseThrow());
+        assertTrue(bulkComments.forPost("abc").isEmpty());
+    }
+
+    @Test
+    void testFailedOrStaleRefreshKeepsTheSnapshot() {
+        // Given
+        BulkComments bulkComments = bulkComments();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkComments.bindTo(registry);
+        when(auditionIntegrationClient.getAllComments())
+                .thenReturn(comments)
+                .thenThrow(new IllegalStateException("down"))
+                .thenAnswer(invocation -> {
+                    StaleResponses.record(Duration.ofMinutes(3));
+                    return CommentSnapshot.of(List.of(comment(9, 1)));
+                });
+
+        // When
+        bulkComments.refresh();
+        bulkComments.refresh();
+        bulkComments.refresh();
+
+        // Then
+        assertEquals(2, bulkComments.forPost("1").orElseThrow().size());
+        assertEquals(1.0, registry.get("audition.comments.bulk.refreshes").tag("outcome", "success")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("audition.comments.bulk.refreshes").tag("outcome", "failure")
+                .functionCounter().count());
+        assertEquals(3.0, registry.get("audition.comments.bulk.size").gauge().value());
+    }
+
+    @Test
+    void testOversizedDownloadSwitchesToPerPost() {
+        // Given
+        cachingProperties.getComments().setBulkMaxSize(2);
+        BulkComments bulkComments = bulkComments();
+        when(auditionIntegrationClient.getAllComments()).thenReturn(comments);
+
+        // When
+        assertFalse(bulkComments.refresh());
+        assertFalse(bulkComments.refresh());
+
+        // Then - dropped, and not downloaded again
+        assertTrue(bulkComments.forPost("1").isEmpty());
+        verify(auditionIntegrationClient, times(1)).getAllComments();
+    }
+
+    @Test
+    void testPerPostStrategySchedulesNothing() {
+        // Given
+        ScheduledTaskRegistrar bulkRegistrar = new ScheduledTaskRegistrar();
+        ScheduledTaskRegistrar perPostRegistrar = new ScheduledTaskRegistrar();
+        BulkComments perPost = new BulkComments(auditionIntegrationClient, new CachingProperties());
+
+        // When
+        bulkComments().configureTasks(bulkRegistrar);
+        perPost.configureTasks(perPostRegistrar);
+
+        // Then
+        assertEquals(1, bulkRegistrar.getFixedDelayTaskList().size());
+        assertEquals(Duration.ZERO, bulkRegistrar.getFixedDelayTaskList().get(0).getInitialDelayDuration());
+        assertTrue(perPostRegistrar.getFixedDelayTaskList().isEmpty());
+        assertFalse(perPost.refresh());
+        verify(auditionIntegrationClient, never()).getAllComments();
+    }
+
+    @Test
+    void testFirstScheduledDownloadWaitsWhenWarmupLoadsComments() {
+        // Given
+        cachingProperties.getWarmup().setEnabled(true);
+        cachingProperties.getWarmup().setComments(true);
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+        // When
+        bulkComments().configureTasks(registrar);
+
+        // Then
+        assertEquals(Duration.ofMinutes(5), registrar.getFixedDelayTaskList().get(0).getInitialDelayDuration());
+    }
+
+    private BulkComments bulkComments() {
+        return new BulkComments(auditionIntegrationClient, cachingProperties);
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        return AuditionComment.builder()
+                .id(id)
+                .postId(postId)
+                .body("comment " + id)
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+package com.audition.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.configuration.CachingProperties;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupTest {
+
+    @Mock
+    private AuditionService auditionService;
+
+    @Mock
+    private BulkComments bulkComments;
+
+    private CachingProperties cachingProperties;
+    private List<AuditionPost> posts;
+
+    @BeforeEach
+    void setUp() {
+        cachingProperties = new CachingProperties();
+        cachingProperties.getWarmup().setEnabled(true);
+        posts = List.of(post(1), post(2), post(3));
+    }
+
+    @Test
+    void testNotReadyUntilPostsAreLoaded() {
+        // Given
+        CacheWarmup warmup = warmup();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        warmup.bindTo(registry);
+        when(auditionService.getPosts()).thenReturn(posts);
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+        assertTrue(Double.isNaN(registry.get("audition.cache.warmup.duration").gauge().value()));
+
+        // When
+        warmup.start().join();
+
+        // Then
+        assertEquals(Status.UP, warmup.health().getStatus());
+        assertEquals("completed", warmup.health().getDetails().get("state"));
+        assertEquals(3.0, registry.get("audition.cache.warmup.items").tag("cache", "posts")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("audition.cache.warmup.items").tag("cache", "comments")
+                .functionCounter().count());
+        assertFalse(Double.isNaN(registry.get("audition.cache.warmup.duration").gauge().value()));
+        verify(auditionService, never()).getCommentsForPost(anyString());
+    }
+
+    @Test
+    void testCommentsOfEveryPostAreLoadedInParallel() {
+        // Given - three posts on two threads, one comments load failing
+        cachingProperties.getWarmup().setComments(true);
+        cachingProperties.getWarmup().setParallelism(2);
+        CacheWarmup warmup = warmup();
+        when(auditionService.getPosts()).thenReturn(posts);
+        when(auditionService.getCommentsForPost("1")).thenReturn(List.of(comment(1), comment(1)));
+        when(auditionService.getCommentsForPost("2")).thenThrow(new IllegalStateException("down"));
+        when(auditionService.getCommentsForPost("3")).thenReturn(List.of(comment(3)));
+
+        // When
+        warmup.start().join();
+
+        // Then
+        assertEquals("completed", warmup.health().getDetails().get("state"));
+        assertEquals(3L, warmup.health().getDetails().get("comments"));
+        verify(auditionService, times(3)).getCommentsForPost(anyString());
+    }
+
+    @Test
+    void testBulkStrategyLoadsCommentsInOneDownload() {
+        // Given
+        cachingProperties.getWarmup().setComments(true);
+        cachingProperties.getComments().setStrategy(CachingProperties.CommentsStrategy.BULK);
+        CacheWarmup warmup = warmup();
+        when(auditionService.getPosts()).thenReturn(posts);
+        when(bulkComments.refresh()).thenReturn(true);
+        when(bulkComments.size()).thenReturn(500);
+
+        // When
+        warmup.start().join();
+
+        // Then
+        assertEquals(500L, warmup.health().getDetails().get("comments"));
+        verify(auditionService, never()).getCommentsForPost(anyString());
+    }
+
+    @Test
+    void testReadyAfterTimeoutOrFailure() throws Exception {
+        // Given - a posts load that never finishes
+        cachingProperties.getWarmup().setTimeout(Duration.ofMillis(100));
+        CacheWarmup slow = warmup();
+        CountDownLatch never = new CountDownLatch(1);
+        when(auditionService.getPosts()).thenAnswer(invocation -> {
+            never.await();
+            return posts;
+        });
+
+        // When
+        slow.start().join();
+
+        // Then
+        assertEquals(Status.UP, slow.health().getStatus());
+        assertEquals("timed-out", slow.health().getDetails().get("state"));
+
+        // Given - a posts load that fails
+        CacheWarmup failing = warmup();
+        doThrow(new IllegalStateException("down")).when(auditionService).getPosts();
+
+        // When
+        failing.start().join();
+
+        // Then
+        assertEquals(Status.UP, failing.health().getStatus());
+        assertEquals("failed", failing.health().getDetails().get("state"));
+    }
+
+    @Test
+    void testStartingAgainWhileRunningDoesNotLoadTwice() throws Exception {
+        // Given - a warm-up held in its posts load
+        CacheWarmup warmup = warmup();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditionService.getPosts()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return posts;
+        });
+        CompletableFuture<Void> first = warmup.start();
+        loading.await();
+
+        // When
+        CompletableFuture<Void> second = warmup.start();
+
+        // Then
+        assertTrue(second.isDone());
+        assertEquals("running", warmup.health().getDetails().get("state"));
+        release.countDown();
+        first.join();
+        assertEquals("completed", warmup.health().getDetails().get("state"));
+        verify(auditionService, times(1)).getPosts();
+    }
+
+    @Test
+    void testDisabledWarmupIsReadyAndLoadsNothing() {
+        // Given
+        cachingProperties.getWarmup().setEnabled(false);
+        CacheWarmup warmup = warmup();
+
+        // When
+        warmup.start().join();
+
+        // Then
+        assertEquals(Status.UP, warmup.health().getStatus());
+        assertEquals("disabled", warmup.health().getDetails().get("state"));
+        verify(auditionService, never()).getPosts();
+    }
+
+    private CacheWarmup warmup() {
+        return new CacheWarmup(auditionService, bulkComments, cachingProperties);
+    }
+
+    private static AuditionPost post(final int id) {
+        return AuditionPost.builder().id(id).userId(1).title("title " + id).build();
+    }
+
+    private static AuditionComment comment(final int postId) {
+        return AuditionComment.builder().id(postId).postId(postId).build();
+    }
+}
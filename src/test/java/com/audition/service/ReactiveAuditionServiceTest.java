@@ -0,0 +1,116 @@
+package com.audition.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.configuration.CachingProperties;
+import com.audition.integration.ReactiveAuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAuditionServiceTest {
+
+    @Mock
+    private ReactiveAuditionIntegrationClient reactiveAuditionIntegrationClient;
+
+    private ReactiveAuditionService reactiveAuditionService;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditionPost post1;
+    private AuditionPost post2;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reactiveAuditionService = new ReactiveAuditionService(reactiveAuditionIntegrationClient, meterRegistry,
+                new CachingProperties());
+
+        post1 = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("First Post")
+                .build();
+        post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Second Post")
+                .build();
+    }
+
+    @Test
+    void testGetPostsIsCached() {
+        when(reactiveAuditionIntegrationClient.getPosts()).thenReturn(Flux.just(post1, post2));
+
+        StepVerifier.create(reactiveAuditionService.getPosts()).expectNext(post1, post2).verifyComplete();
+        StepVerifier.create(reactiveAuditionService.getPosts()).expectNext(post1, post2).verifyComplete();
+
+        verify(reactiveAuditionIntegrationClient, times(1)).getPosts();
+    }
+
+    @Test
+    void testEmptyPostsAreNotCached() {
+        when(reactiveAuditionIntegrationClient.getPosts()).thenReturn(Flux.empty())
+                .thenReturn(Flux.just(post1));
+
+        StepVerifier.create(reactiveAuditionService.getPosts()).verifyComplete();
+        StepVerifier.create(reactiveAuditionService.getPosts()).expectNext(post1).verifyComplete();
+
+        verify(reactiveAuditionIntegrationClient, times(2)).getPosts();
+    }
+
+    @Test
+    void testGetPostsWithFilter() {
+        when(reactiveAuditionIntegrationClient.getPosts()).thenReturn(Flux.just(post1, post2));
+
+        StepVerifier.create(reactiveAuditionService.getPostsWithFilter("2", "second"))
+                .expectNext(post2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        when(reactiveAuditionIntegrationClient.getPostById("1"))
+                .thenReturn(Mono.error(new IllegalStateException("boom")))
+                .thenReturn(Mono.just(post1));
+
+        StepVerifier.create(reactiveAuditionService.getPostById("1")).verifyError(IllegalStateException.class);
+        StepVerifier.create(reactiveAuditionService.getPostById("1")).expectNext(post1).verifyComplete();
+    }
+
+    @Test
+    void testClearCache() {
+        AuditionComment comment = AuditionComment.builder().build();
+        when(reactiveAuditionIntegrationClient.getCommentsByPostId("1")).thenReturn(Flux.just(comment));
+        when(reactiveAuditionIntegrationClient.getPostById("1")).thenReturn(Mono.just(post1));
+
+        StepVerifier.create(reactiveAuditionService.getCommentsForPost("1")).expectNext(comment).verifyComplete();
+        StepVerifier.create(reactiveAuditionService.getPostByIdWithComments("1"))
+                .assertNext(post -> assertEquals(List.of(comment), post.getComments()))
+                .verifyComplete();
+        reactiveAuditionService.clearCache();
+        StepVerifier.create(reactiveAuditionService.getCommentsForPost("1")).expectNext(comment).verifyComplete();
+
+        verify(reactiveAuditionIntegrationClient, times(2)).getCommentsByPostId("1");
+    }
+
+    @Test
+    void testCachesAreTaggedWithTheServletCacheNames() {
+        for (final String cache : List.of("posts", "comments")) {
+            assertNotNull(meterRegistry.find("cache.size").tags("cache", cache, "cacheManager", "reactive").gauge(),
+                    cache);
+        }
+    }
+}
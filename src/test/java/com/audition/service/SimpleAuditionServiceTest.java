@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import com.audition.configuration.CachingProperties;
 import com.audition.integration.AuditionIntegrationClient;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -35,51 +37,47 @@ class SimpleAuditionServiceTest {
     @BeforeEach
     void setUp() {
         meterRegistry = new SimpleMeterRegistry();
-        auditionService = new AuditionService(meterRegistry);
-
-        // Inject the mock using reflection
-        try {
-            java.lang.reflect.Field field = AuditionService.class.getDeclaredField("auditionIntegrationClient");
-            field.setAccessible(true);
-            field.set(auditionService, auditionIntegrationClient);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to inject mock", e);
-        }
+        auditionService = newService(meterRegistry);
 
         // Setup test data
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Sample Post");
-        samplePost.setBody("This is a sample post");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(2);
-        post2.setUserId(2);
-        post2.setTitle("Another Post");
-        post2.setBody("This is another post");
-
-        AuditionPost post3 = new AuditionPost();
-        post3.setId(3);
-        post3.setUserId(1);
-        post3.setTitle("Third Post by User 1");
-        post3.setBody("This is a third post");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Another Post")
+                .body("This is another post")
+                .build();
+
+        AuditionPost post3 = AuditionPost.builder()
+                .id(3)
+                .userId(1)
+                .title("Third Post by User 1")
+                .body("This is a third post")
+                .build();
 
         samplePosts = Arrays.asList(samplePost, post2, post3);
 
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("John Doe");
-        comment1.setEmail("john@example.com");
-        comment1.setBody("Great post!");
-
-        AuditionComment comment2 = new AuditionComment();
-        comment2.setId(2);
-        comment2.setPostId(1);
-        comment2.setName("Jane Smith");
-        comment2.setEmail("jane@example.com");
-        comment2.setBody("Very informative!");
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("John Doe")
+                .email("john@example.com")
+                .body("Great post!")
+                .build();
+
+        AuditionComment comment2 = AuditionComment.builder()
+                .id(2)
+                .postId(1)
+                .name("Jane Smith")
+                .email("jane@example.com")
+                .body("Very informative!")
+                .build();
 
         sampleComments = Arrays.asList(comment1, comment2);
     }
@@ -232,11 +230,12 @@ class SimpleAuditionServiceTest {
     @Test
     void testGetPostsWithNullTitleInPost() {
         // Given
-        AuditionPost postWithNullTitle = new AuditionPost();
-        postWithNullTitle.setId(4);
-        postWithNullTitle.setUserId(1);
-        postWithNullTitle.setTitle(null);
-        postWithNullTitle.setBody("Post with null title");
+        AuditionPost postWithNullTitle = AuditionPost.builder()
+                .id(4)
+                .userId(1)
+                .title(null)
+                .body("Post with null title")
+                .build();
 
         List<AuditionPost> postsWithNullTitle = Arrays.asList(samplePost, postWithNullTitle);
         when(auditionIntegrationClient.getPosts()).thenReturn(postsWithNullTitle);
@@ -267,17 +266,18 @@ class SimpleAuditionServiceTest {
     @Test
     void testGetPostByIdWithComments() {
         // Given
-        samplePost.setComments(sampleComments);
-        when(auditionIntegrationClient.getPostByIdWithComments(anyString())).thenReturn(samplePost);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(samplePost);
+        when(auditionIntegrationClient.getCommentsByPostId("1")).thenReturn(sampleComments);
 
         // When
         AuditionPost result = auditionService.getPostByIdWithComments("1");
 
-        // Then
+        // Then - composed from the post and its comments; the post itself is left as is
         assertNotNull(result);
         assertEquals(1, result.getId());
         assertNotNull(result.getComments());
         assertEquals(2, result.getComments().size());
+        assertNull(samplePost.getComments());
     }
 
     @Test
@@ -384,10 +384,17 @@ class SimpleAuditionServiceTest {
         MeterRegistry testRegistry = new SimpleMeterRegistry();
 
         // When
-        AuditionService testService = new AuditionService(testRegistry);
+        AuditionService testService = newService(testRegistry);
 
         // Then
         assertNotNull(testRegistry.find("audition.posts.requests").counter());
         assertNotNull(testRegistry.find("audition.comments.requests").counter());
     }
-}
\ No newline at end of file
+
+    private AuditionService newService(final MeterRegistry registry) {
+        CachingProperties properties = new CachingProperties();
+        return new AuditionService(auditionIntegrationClient, new NotFoundCache(properties),
+                new SerializedResponses(properties, new ObjectMapper()),
+                new BulkComments(auditionIntegrationClient, properties), registry, properties, Runnable::run);
+    }
+}
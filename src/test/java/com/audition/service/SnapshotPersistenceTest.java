@@ -0,0 +1,118 @@
+package com.audition.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.cache.StaleResponses;
+import com.audition.configuration.CachingProperties;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.snapshot.CommentSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotPersistenceTest {
+
+    @Mock
+    private AuditionIntegrationClient auditionIntegrationClient;
+
+    @TempDir
+    Path directory;
+
+    private CachingProperties cachingProperties;
+    private List<AuditionPost> posts;
+    private List<AuditionComment> comments;
+
+    @BeforeEach
+    void setUp() {
+        cachingProperties = new CachingProperties();
+        cachingProperties.getPersistence().setEnabled(true);
+        cachingProperties.getPersistence().setFile(directory.resolve("snapshot.bin"));
+        cachingProperties.getComments().setStrategy(CachingProperties.CommentsStrategy.BULK);
+        posts = List.of(
+                AuditionPost.builder().id(1).userId(1).title("first").body("body 1").build(),
+                AuditionPost.builder().id(2).userId(1).title("second").body("body 2").build());
+        comments = List.of(AuditionComment.builder().id(1).postId(1).name("n").email("e@x").body("b").build());
+    }
+
+    @Test
+    void testRestartServesSavedSnapshotsWhileUpstreamIsDown() throws Exception {
+        // Given - a run that loaded fresh data and saved it
+        when(auditionIntegrationClient.getPosts()).thenReturn(posts);
+        when(auditionIntegrationClient.getAllComments()).thenReturn(CommentSnapshot.of(comments));
+        Run first = new Run();
+        first.service.getPosts();
+        first.bulkComments.refresh();
+        assertTrue(first.persistence.save());
+        assertFalse(first.persistence.save()); // Unchanged since the last write
+        assertTrue(Files.size(cachingProperties.getPersistence().getFile()) > 0);
+
+        // When - the next run starts while the upstream is down
+        when(auditionIntegrationClient.getPosts()).thenThrow(new IllegalStateException("upstream down"));
+        Run second = new Run();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        second.persistence.bindTo(registry);
+        second.persistence.afterSingletonsInstantiated();
+
+        // Then - both snapshots are served at once, marked stale; the reload was tried
+        StaleResponses.Tracked<List<AuditionPost>> served = StaleResponses.track(second.service::getPosts);
+        assertEquals(posts, served.value());
+        assertTrue(served.isStale());
+        StaleResponses.Tracked<List<AuditionComment>> servedComments =
+                StaleResponses.track(() -> second.service.getCommentsForPost("1"));
+        assertEquals(comments, servedComments.value());
+        assertTrue(servedComments.isStale());
+        verify(auditionIntegrationClient, times(2)).getPosts();
+        assertEquals(2.0, registry.get("audition.snapshot.file.restored").tag("cache", "posts")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("audition.snapshot.file.restored").tag("cache", "comments")
+                .functionCounter().count());
+
+        // Stale data is not written back over the file
+        assertFalse(second.persistence.save());
+    }
+
+    @Test
+    void testDisabledPersistenceDoesNothing() {
+        // Given
+        cachingProperties.getPersistence().setEnabled(false);
+        Run run = new Run();
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+        // When
+        run.persistence.afterSingletonsInstantiated();
+        run.persistence.configureTasks(registrar);
+
+        // Then
+        assertFalse(run.persistence.save());
+        assertTrue(registrar.getFixedDelayTaskList().isEmpty());
+        assertFalse(Files.exists(cachingProperties.getPersistence().getFile()));
+    }
+
+    /**
+     * The beans of one application run, wired by hand; reloads run on the calling thread.
+     */
+    private final class Run {
+
+        private final BulkComments bulkComments = new BulkComments(auditionIntegrationClient, cachingProperties);
+        private final AuditionService service = new AuditionService(auditionIntegrationClient,
+                new NotFoundCache(cachingProperties), new SerializedResponses(cachingProperties, new ObjectMapper()),
+                bulkComments, new SimpleMeterRegistry(), cachingProperties, Runnable::run);
+        private final SnapshotPersistence persistence =
+                new SnapshotPersistence(service, bulkComments, cachingProperties);
+    }
+}
@@ -0,0 +1,77 @@
+package com.audition.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.model.AuditionComment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class CommentSnapshotTest {
+
+    @Test
+    void testCommentsAreGroupedByPostInUpstreamOrder() {
+        // Given - enough posts to grow the table, comments of a post spread over the input
+        Random random = new Random(11);
+        List<AuditionComment> comments = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            comments.add(comment(i, random.nextInt(400) - 50));
+        }
+
+        // When
+        CommentSnapshot snapshot = CommentSnapshot.of(comments);
+
+        // Then
+        assertEquals(3_000, snapshot.size());
+        for (int postId = -50; postId < 350; postId++) {
+            final int expectedPost = postId;
+            List<AuditionComment> expected = comments.stream()
+                    .filter(comment -> comment.getPostId() == expectedPost)
+                    .collect(Collectors.toList());
+            assertEquals(expected, snapshot.forPost(postId), "postId " + postId);
+        }
+        assertSame(snapshot.forPost(7), snapshot.forPost(7));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.forPost(7).add(comment(0, 7)));
+    }
+
+    @Test
+    void testEmptyAndNullInput() {
+        assertTrue(CommentSnapshot.of(null).isEmpty());
+        assertSame(CommentSnapshot.empty(), CommentSnapshot.of(List.of()));
+        assertTrue(CommentSnapshot.of(List.of()).forPost(1).isEmpty());
+        assertEquals(1, CommentSnapshot.of(Arrays.asList(null, comment(1, 1))).size());
+    }
+
+    @Test
+    void testJsonArrayIsReadIntoGroups() throws Exception {
+        // Given
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        String json = "[{\"postId\":1,\"id\":1,\"name\":\"a\"},null,{\"postId\":2,\"id\":2,\"extra\":{}},"
+                + "{\"postId\":1,\"id\":3}]";
+
+        // When
+        CommentSnapshot snapshot = mapper.readValue(json, CommentSnapshot.class);
+
+        // Then
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of(1, 3), snapshot.forPost(1).stream().map(AuditionComment::getId)
+                .collect(Collectors.toList()));
+        assertEquals(1, snapshot.forPost(2).size());
+        assertTrue(snapshot.forPost(3).isEmpty());
+        assertThrows(JsonProcessingException.class, () -> mapper.readValue("[{\"postId\":1}", CommentSnapshot.class));
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        return AuditionComment.builder()
+                .id(id)
+                .postId(postId)
+                .name("name")
+                .build();
+    }
+}
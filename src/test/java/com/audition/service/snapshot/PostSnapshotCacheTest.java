@@ -0,0 +1,174 @@
+package com.audition.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PostSnapshotCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Deque<CompletableFuture<PostSnapshotCache.Fetch>> responses = new ArrayDeque<>();
+    private PostSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PostSnapshotCache(() -> {
+            loads.incrementAndGet();
+            return responses.removeFirst();
+        }, Duration.ofMinutes(1), Duration.ofMinutes(10), Runnable::run, Tags.empty(), nanos::get);
+    }
+
+    @Test
+    void testServesStaleWhileOneBackgroundReloadRuns() {
+        // Given
+        respond(post(1));
+        assertEquals(1, cache.join().get(0).getId());
+        CompletableFuture<PostSnapshotCache.Fetch> reload = new CompletableFuture<>();
+        responses.add(reload);
+
+        // When - past the soft TTL the reload starts but is still in flight
+        advance(Duration.ofMinutes(2));
+        assertEquals(1, cache.join().get(0).getId());
+        assertEquals(1, cache.join().get(0).getId());
+
+        // Then - one reload for all readers, new data once it completes
+        assertEquals(2, loads.get());
+        reload.complete(PostSnapshotCache.Fetch.fresh(List.of(post(2))));
+        assertEquals(2, cache.join().get(0).getId());
+        assertEquals(0.0, cache.ageSeconds(), 0.001);
+    }
+
+    @Test
+    void testFailedReloadKeepsServingUntilHardTtl() {
+        // Given
+        respond(post(1));
+        cache.join();
+        responses.add(CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+        respond();
+
+        // When - a failed and an empty reload
+        advance(Duration.ofMinutes(2));
+        assertEquals(1, cache.join().get(0).getId());
+        advance(Duration.ofMinutes(2));
+        assertEquals(1, cache.join().get(0).getId());
+
+        // Then - still the original data, aged from its load; dropped at the hard TTL
+        assertEquals(240.0, cache.ageSeconds(), 0.001);
+        advance(Duration.ofMinutes(7));
+        assertTrue(Double.isNaN(cache.ageSeconds()));
+        respond(post(3));
+        assertEquals(3, cache.join().get(0).getId());
+    }
+
+    @Test
+    void testEmptyOrFailedFirstLoadIsNotKept() {
+        // Given
+        respond();
+        responses.add(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+        respond(post(1));
+
+        // Then
+        assertTrue(cache.join().isEmpty());
+        IllegalStateException error = assertThrows(IllegalStateException.class, cache::join);
+        assertEquals("boom", error.getMessage());
+        assertEquals(1, cache.join().size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testLastKnownGoodFetches() {
+        // Given - the first load is answered from the last-known-good store
+        respondStale(Duration.ofHours(2), post(1));
+        respondStale(Duration.ofHours(2), post(1));
+        respond(post(2));
+
+        // Then - served with its real age, and a stale reload does not count as fresh data
+        assertEquals(1, cache.join().get(0).getId());
+        assertEquals(Duration.ofHours(2), cache.lastKnownGoodAge().orElseThrow());
+        advance(Duration.ofMinutes(2));
+        assertEquals(1, cache.join().get(0).getId());
+        assertEquals(Duration.ofHours(2).plusMinutes(2), cache.lastKnownGoodAge().orElseThrow());
+        advance(Duration.ofMinutes(2));
+        assertEquals(2, cache.join().get(0).getId());
+        assertTrue(cache.lastKnownGoodAge().isEmpty());
+    }
+
+    @Test
+    void testSeededSnapshotIsServedUntilRefreshReplacesIt() {
+        // Given - posts restored from a file saved an hour ago
+        assertTrue(cache.seed(new PostSnapshotCache.Fetch(List.of(post(1)), Duration.ofHours(1))));
+        assertFalse(cache.seed(PostSnapshotCache.Fetch.fresh(List.of(post(9)))));
+        responses.add(CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+        respond(post(2));
+
+        // When - a refresh while the upstream is down, then one that succeeds
+        assertEquals(1, cache.join().get(0).getId());
+        assertEquals(Duration.ofHours(1), cache.lastKnownGoodAge().orElseThrow());
+        cache.refresh();
+        assertEquals(1, cache.join().get(0).getId());
+        cache.refresh();
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.ifLoaded().orElseThrow().get(0).getId());
+        assertTrue(cache.lastKnownGoodAge().isEmpty());
+    }
+
+    @Test
+    void testInvalidateAndMeters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        respond(post(1));
+        respond(post(2));
+        respond(post(3));
+
+        // When
+        cache.join();
+        cache.invalidate();
+        advance(Duration.ofSeconds(90));
+        assertTrue(Double.isNaN(registry.get("audition.posts.snapshot.age").gauge().value()));
+        cache.join();
+        advance(Duration.ofSeconds(90));
+        cache.join();
+
+        // Then
+        assertEquals(3, cache.join().get(0).getId());
+        assertEquals(1.0, registry.get("audition.posts.snapshot.refreshes").tag("outcome", "success")
+                .functionCounter().count(), 0.001);
+        assertEquals(0.0, registry.get("audition.posts.snapshot.age").gauge().value(), 0.001);
+    }
+
+    private void respond(final AuditionPost... posts) {
+        responses.add(CompletableFuture.completedFuture(PostSnapshotCache.Fetch.fresh(List.of(posts))));
+    }
+
+    private void respondStale(final Duration age, final AuditionPost... posts) {
+        responses.add(CompletableFuture.completedFuture(new PostSnapshotCache.Fetch(List.of(posts), age)));
+    }
+
+    private void advance(final Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static AuditionPost post(final int id) {
+        AuditionPost post = AuditionPost.builder()
+                .id(id)
+                .userId(1)
+                .title("post " + id)
+                .build();
+        return post;
+    }
+}
@@ -0,0 +1,177 @@
+package com.audition.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.model.AuditionPost;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PostSnapshotTest {
+
+    @Test
+    void testSnapshotIsListOfPostsInOrder() {
+        // Given
+        List<AuditionPost> posts = Arrays.asList(post(1, 1, "a"), post(2, 2, "b"), post(3, 1, "c"));
+
+        // When
+        PostSnapshot snapshot = PostSnapshot.of(posts);
+
+        // Then
+        assertEquals(posts, snapshot);
+        assertSame(snapshot, PostSnapshot.of(snapshot));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(post(4, 4, "d")));
+    }
+
+    @Test
+    void testFilterByUserIdUsesSnapshotOrder() {
+        // Given
+        PostSnapshot snapshot = PostSnapshot.of(Arrays.asList(
+                post(1, 7, "a"), post(2, 0, "b"), post(3, 7, "c"), post(4, -5, "d")));
+
+        // Then
+        assertEquals(List.of(1, 3), ids(snapshot.filter(7, null)));
+        assertEquals(List.of(2), ids(snapshot.filter(0, null)));
+        assertEquals(List.of(4), ids(snapshot.filter(-5, null)));
+        assertTrue(snapshot.filter(42, null).isEmpty());
+        assertEquals(3, snapshot.distinctUsers());
+    }
+
+    @Test
+    void testFilterByUserIdAndTitle() {
+        // Given
+        PostSnapshot snapshot = PostSnapshot.of(Arrays.asList(
+                post(1, 1, "Hello World"), post(2, 1, "Other"), post(3, 2, "hello again"), post(4, 1, null)));
+
+        // Then
+        assertEquals(List.of(1), ids(snapshot.filter(1, "HELLO")));
+        assertEquals(List.of(1, 3), ids(snapshot.filter(null, "hello")));
+        assertSame(snapshot, snapshot.filter(null, " "));
+    }
+
+    @Test
+    void testLookupById() {
+        // Given - enough posts to grow the id table, plus a repeated id
+        List<AuditionPost> posts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            posts.add(post(i * 7 - 300, i % 10, "t" + i));
+        }
+        AuditionPost duplicate = post(-300, 99, "duplicate");
+        posts.add(duplicate);
+        PostSnapshot snapshot = PostSnapshot.of(posts);
+
+        // Then
+        for (AuditionPost post : posts.subList(0, 1_000)) {
+            assertSame(post, snapshot.byId(post.getId()));
+        }
+        assertNotSame(duplicate, snapshot.byId(-300));
+        assertNull(snapshot.byId(2));
+        assertNull(PostSnapshot.of(null).byId(0));
+    }
+
+    @Test
+    void testEmptyAndNullInput() {
+        assertTrue(PostSnapshot.of(null).isEmpty());
+        assertTrue(PostSnapshot.of(List.of()).filter(1, "x").isEmpty());
+        assertEquals(1, PostSnapshot.of(Arrays.asList(null, post(1, 1, "a"))).size());
+    }
+
+    @Test
+    void testIndexMatchesLinearScan() {
+        // Given - enough users to force probing collisions
+        Random random = new Random(42);
+        List<AuditionPost> posts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            posts.add(post(i, random.nextInt(700) - 100, "t" + i));
+        }
+        PostSnapshot snapshot = PostSnapshot.of(posts);
+
+        // Then
+        for (int userId = -100; userId < 600; userId++) {
+            final int expectedUser = userId;
+            List<AuditionPost> expected = posts.stream()
+                    .filter(post -> post.getUserId() == expectedUser)
+                    .collect(Collectors.toList());
+            assertEquals(expected, snapshot.filter(userId, null), "userId " + userId);
+        }
+    }
+
+    @Test
+    void testTitleIndexMatchesLinearScan() {
+        // Given - titles drawn from a small vocabulary so trigrams are shared across many posts
+        String[] words = {"Lorem", "ipsum", "DOLOR", "sit", "amet", "aaaa", "qui", "est", "Sunt", "in", "culpa"};
+        Random random = new Random(7);
+        List<AuditionPost> posts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = random.nextInt(5); w >= 0; w--) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            posts.add(post(i, random.nextInt(20), i % 97 == 0 ? null : title.toString().trim()));
+        }
+        PostSnapshot snapshot = PostSnapshot.of(posts);
+        List<String> needles = List.of("a", "Ip", "aaa", "aaaa", "aaaaa", "lorem ipsum", "sum dol", "m a",
+                "CULPA", "t am", "zzz", "lorem lorem lorem");
+
+        // Then
+        for (String needle : needles) {
+            for (Integer userId : Arrays.asList(null, 3, 19, 99)) {
+                List<AuditionPost> expected = posts.stream()
+                        .filter(post -> userId == null || post.getUserId() == userId)
+                        .filter(post -> post.getTitle() != null
+                                && post.getTitle().toLowerCase().contains(needle.toLowerCase()))
+                        .collect(Collectors.toList());
+                assertEquals(expected, snapshot.filter(userId, needle), needle + " / " + userId);
+            }
+        }
+    }
+
+    @Test
+    void testJsonArrayIsReadIntoIndexedSnapshot() throws Exception {
+        // Given
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        String json = "[{\"userId\":7,\"id\":1,\"title\":\"Hello World\",\"extra\":[1,{\"a\":2}]},"
+                + "null,{\"userId\":8,\"id\":2,\"title\":\"hello again\"},{\"userId\":7,\"id\":3,\"title\":\"x\"}]";
+
+        // When
+        PostSnapshot snapshot = mapper.readValue(json, PostSnapshot.class);
+
+        // Then
+        assertEquals(List.of(1, 2, 3), ids(snapshot));
+        assertEquals(List.of(1, 3), ids(snapshot.filter(7, null)));
+        assertEquals(List.of(1, 2), ids(snapshot.filter(null, "HELLO")));
+        assertTrue(mapper.readValue("[]", PostSnapshot.class).isEmpty());
+        assertNull(mapper.readValue("null", PostSnapshot.class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readValue("{\"id\":1}", PostSnapshot.class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readValue("[{\"id\":1}", PostSnapshot.class));
+    }
+
+    @Test
+    void testIntersectGallopsThroughLongerList() {
+        int[] large = new int[1_000];
+        Arrays.setAll(large, i -> i * 2);
+
+        assertArrayEquals(new int[] {0, 500, 1998}, TitleIndex.intersect(new int[] {0, 1, 500, 1998, 1999}, large));
+        assertArrayEquals(new int[0], TitleIndex.intersect(new int[] {2001, 3000}, large));
+        assertArrayEquals(new int[0], TitleIndex.intersect(new int[0], large));
+    }
+
+    private static List<Integer> ids(final List<AuditionPost> posts) {
+        return posts.stream().map(AuditionPost::getId).collect(Collectors.toList());
+    }
+
+    private static AuditionPost post(final int id, final int userId, final String title) {
+        AuditionPost post = AuditionPost.builder()
+                .id(id)
+                .userId(userId)
+                .title(title)
+                .build();
+        return post;
+    }
+}
@@ -0,0 +1,100 @@
+package com.audition.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+
+    private static final Instant SAVED_AT = Instant.parse("2026-01-02T03:04:05.678Z");
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private PostSnapshot posts;
+    private CommentSnapshot comments;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("nested").resolve("snapshot.bin");
+        List<AuditionPost> postList = new ArrayList<>();
+        List<AuditionComment> commentList = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            postList.add(AuditionPost.builder().id(id).userId(id % 7).title("tïtle " + id)
+                    .body(id % 5 == 0 ? null : "body\n" + id).build());
+            commentList.add(AuditionComment.builder().postId(id).id(id * 10).name("name " + id)
+                    .email(id % 3 == 0 ? null : "user" + id + "@example.com").body("✓ " + id).build());
+        }
+        posts = PostSnapshot.of(postList);
+        comments = CommentSnapshot.of(commentList);
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        // When
+        long size = SnapshotFile.write(file, posts, comments, SAVED_AT);
+        SnapshotFile.Contents contents = SnapshotFile.read(file).orElseThrow();
+
+        // Then
+        assertEquals(Files.size(file), size);
+        assertFalse(Files.exists(file.resolveSibling("snapshot.bin.tmp")));
+        assertEquals(SAVED_AT, contents.savedAt());
+        assertEquals(posts, contents.posts());
+        assertEquals(posts.get(9), contents.posts().byId(10));
+        assertEquals(50, contents.comments().size());
+        assertEquals(comments.forPost(3), contents.comments().forPost(3));
+        assertNull(contents.comments().forPost(3).get(0).getEmail());
+    }
+
+    @Test
+    void testEmptySnapshotsRoundTrip() throws Exception {
+        SnapshotFile.write(file, PostSnapshot.of(null), CommentSnapshot.empty(), SAVED_AT);
+
+        SnapshotFile.Contents contents = SnapshotFile.read(file).orElseThrow();
+        assertTrue(contents.posts().isEmpty());
+        assertTrue(contents.comments().isEmpty());
+    }
+
+    @Test
+    void testInvalidFilesAreIgnored() throws Exception {
+        // Missing
+        assertTrue(SnapshotFile.read(file).isEmpty());
+
+        SnapshotFile.write(file, posts, comments, SAVED_AT);
+        byte[] valid = Files.readAllBytes(file);
+
+        // A flipped payload byte fails the checksum
+        byte[] corrupt = valid.clone();
+        corrupt[SnapshotFile.HEADER_SIZE + 40] ^= 1;
+        Files.write(file, corrupt);
+        assertTrue(SnapshotFile.read(file).isEmpty());
+
+        // Truncated
+        Files.write(file, Arrays.copyOf(valid, valid.length - 1));
+        assertTrue(SnapshotFile.read(file).isEmpty());
+        Files.write(file, Arrays.copyOf(valid, 10));
+        assertTrue(SnapshotFile.read(file).isEmpty());
+
+        // Another format version
+        byte[] otherVersion = valid.clone();
+        ByteBuffer.wrap(otherVersion).putInt(4, SnapshotFile.VERSION + 1);
+        Files.write(file, otherVersion);
+        assertTrue(SnapshotFile.read(file).isEmpty());
+
+        // Not a snapshot
+        Files.writeString(file, "x".repeat(100));
+        assertTrue(SnapshotFile.read(file).isEmpty());
+    }
+}
@@ -4,14 +4,18 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.audition.common.cache.StaleResponses;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
 import com.audition.service.AuditionService;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,26 +51,29 @@ class AuditionControllerTest {
 
     @BeforeEach
     void setUp() {
-        samplePost = new AuditionPost();
-        samplePost.setId(1);
-        samplePost.setUserId(1);
-        samplePost.setTitle("Sample Post");
-        samplePost.setBody("This is a sample post");
-
-        AuditionPost post2 = new AuditionPost();
-        post2.setId(2);
-        post2.setUserId(2);
-        post2.setTitle("Another Post");
-        post2.setBody("This is another post");
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+
+        AuditionPost post2 = AuditionPost.builder()
+                .id(2)
+                .userId(2)
+                .title("Another Post")
+                .body("This is another post")
+                .build();
 
         samplePosts = Arrays.asList(samplePost, post2);
 
-        AuditionComment comment1 = new AuditionComment();
-        comment1.setId(1);
-        comment1.setPostId(1);
-        comment1.setName("John Doe");
-        comment1.setEmail("john@example.com");
-        comment1.setBody("Great post!");
+        AuditionComment comment1 = AuditionComment.builder()
+                .id(1)
+                .postId(1)
+                .name("John Doe")
+                .email("john@example.com")
+                .body("Great post!")
+                .build();
 
         sampleComments = Arrays.asList(comment1);
     }
@@ -111,6 +119,73 @@ class AuditionControllerTest {
                 .andExpect(jsonPath("$.title").value("Sample Post"));
     }
 
+    @Test
+    void testGetPostByIdServedStaleCarriesWarningAndAge() throws Exception {
+        // Given - the service answers from the last-known-good store
+        when(auditionService.getPostById("1")).thenAnswer(invocation -> {
+            StaleResponses.record(Duration.ofSeconds(90));
+            return samplePost;
+        });
+
+        // When & Then
+        mockMvc.perform(get("/posts/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, "110 - \"Response is Stale\""))
+                .andExpect(header().string(HttpHeaders.AGE, "90"))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void testGetPostByIdFreshHasNoWarning() throws Exception {
+        // Given
+        when(auditionService.getPostById("1")).thenReturn(samplePost);
+
+        // When & Then
+        mockMvc.perform(get("/posts/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING))
+                .andExpect(header().doesNotExist(HttpHeaders.AGE));
+    }
+
+    @Test
+    void testCachedPostCarriesETagAndMatchingIfNoneMatchGets304() throws Exception {
+        // Given
+        when(auditionService.getPostById("1")).thenReturn(samplePost);
+        when(auditionService.etagOf(samplePost)).thenReturn("\"00000000cafebabe\"");
+
+        // When & Then
+        mockMvc.perform(get("/posts/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"00000000cafebabe\""))
+                .andExpect(jsonPath("$.id").value(1));
+        mockMvc.perform(get("/posts/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"00000000cafebabe\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"00000000cafebabe\""))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/posts/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0000000000000000\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testFilteredPostsHaveNoETag() throws Exception {
+        // Given
+        when(auditionService.getPostsWithFilter("1", null)).thenReturn(Arrays.asList(samplePost));
+
+        // When & Then
+        mockMvc.perform(get("/posts")
+                        .param("userId", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     void testGetPostByIdWithInvalidId() throws Exception {
         // When & Then
@@ -152,7 +227,7 @@ class AuditionControllerTest {
     @Test
     void testGetPostWithComments() throws Exception {
         // Given
-        samplePost.setComments(sampleComments);
+        samplePost = samplePost.withComments(sampleComments);
         when(auditionService.getPostByIdWithComments("1")).thenReturn(samplePost);
 
         // When & Then
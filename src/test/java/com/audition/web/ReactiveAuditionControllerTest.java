@@ -0,0 +1,115 @@
+package com.audition.web;
+
+import static org.mockito.Mockito.when;
+
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.model.AuditionPost;
+import com.audition.service.ReactiveAuditionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveAuditionController.class)
+@TestPropertySource(properties = {
+        "spring.sleuth.enabled=false",
+        "management.tracing.enabled=false"
+})
+class ReactiveAuditionControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveAuditionService reactiveAuditionService;
+
+    @MockBean
+    private AuditionLogger auditionLogger;
+
+    private AuditionPost samplePost;
+
+    @BeforeEach
+    void setUp() {
+        samplePost = AuditionPost.builder()
+                .id(1)
+                .userId(1)
+                .title("Sample Post")
+                .body("This is a sample post")
+                .build();
+    }
+
+    @Test
+    void testGetPosts() {
+        when(reactiveAuditionService.getPosts()).thenReturn(Flux.just(samplePost));
+
+        webTestClient.get().uri("/posts").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Sample Post");
+    }
+
+    @Test
+    void testGetPostsWithFilter() {
+        when(reactiveAuditionService.getPostsWithFilter("1", "sample")).thenReturn(Flux.just(samplePost));
+
+        webTestClient.get().uri("/posts?userId=1&title=sample").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    void testGetPostById() {
+        when(reactiveAuditionService.getPostById("1")).thenReturn(Mono.just(samplePost));
+
+        webTestClient.get().uri("/posts/1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Sample Post");
+    }
+
+    @Test
+    void testGetPostByIdNotFound() {
+        when(reactiveAuditionService.getPostById("999"))
+                .thenReturn(Mono.error(new SystemException("Cannot find a Post with id 999", "Resource Not Found", 404)));
+
+        webTestClient.get().uri("/posts/999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.title").isEqualTo("Resource Not Found");
+    }
+
+    @Test
+    void testGetPostByIdValidationFailure() {
+        webTestClient.get().uri("/posts/0").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetPostByIdInvalidFormat() {
+        webTestClient.get().uri("/posts/abc").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetPostWithComments() {
+        when(reactiveAuditionService.getPostByIdWithComments("1")).thenReturn(Mono.just(samplePost));
+
+        webTestClient.get().uri("/posts/1/comments").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    void testGetCommentsByPostId() {
+        when(reactiveAuditionService.getCommentsForPost("1")).thenReturn(Flux.empty());
+
+        webTestClient.get().uri("/comments?postId=1").exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+}
@@ -0,0 +1,160 @@
+package com.audition.web.converter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.configuration.CachingProperties;
+import com.audition.model.AuditionPost;
+import com.audition.service.SerializedResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class SerializedJsonHttpMessageConverterTest {
+
+    private final AtomicInteger serializations = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper() {
+        @Override
+        public byte[] writeValueAsBytes(final Object value) throws com.fasterxml.jackson.core.JsonProcessingException {
+            serializations.incrementAndGet();
+            return super.writeValueAsBytes(value);
+        }
+    };
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+    private List<AuditionPost> posts;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        posts = List.of(AuditionPost.builder().id(1).userId(1).title("Title").body("x".repeat(4096)).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testRegisteredValueIsSerializedOnce() throws Exception {
+        // Given
+        SerializedJsonHttpMessageConverter converter = converter(responses(true, false));
+
+        // When
+        MockHttpOutputMessage first = write(converter, posts);
+        MockHttpOutputMessage second = write(converter, posts);
+
+        // Then
+        assertEquals(1, serializations.get());
+        assertEquals(objectMapper.readTree(first.getBodyAsString(StandardCharsets.UTF_8)),
+                objectMapper.readTree(second.getBodyAsString(StandardCharsets.UTF_8)));
+        assertEquals(second.getBodyAsBytes().length, second.getHeaders().getContentLength());
+        assertNull(second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testUnregisteredValueGoesThroughJackson() throws Exception {
+        // Given - e.g. a filtered list, new per request
+        SerializedJsonHttpMessageConverter converter = new SerializedJsonHttpMessageConverter(objectMapper,
+                responses(true, false));
+
+        // When
+        MockHttpOutputMessage message = write(converter, posts);
+
+        // Then
+        assertEquals(0, serializations.get());
+        assertTrue(message.getBodyAsString(StandardCharsets.UTF_8).contains("\"title\":\"Title\""));
+    }
+
+    @Test
+    void testGzippedCopyIsServedOnlyToClientsAcceptingIt() throws Exception {
+        // Given
+        SerializedJsonHttpMessageConverter converter = converter(responses(true, true));
+
+        // When
+        MockHttpOutputMessage plain = write(converter, posts);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8");
+        MockHttpOutputMessage gzipped = write(converter, posts);
+
+        // Then
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, plain.getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBodyAsBytes().length < plain.getBodyAsBytes().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBodyAsBytes()))) {
+            assertArrayEquals(plain.getBodyAsBytes(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testGzipRefusedWithZeroQuality() throws Exception {
+        // Given
+        SerializedJsonHttpMessageConverter converter = converter(responses(true, true));
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+
+        // When
+        MockHttpOutputMessage message = write(converter, posts);
+
+        // Then
+        assertNull(message.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testDisabledResponsesAreNotRegistered() throws Exception {
+        // Given
+        SerializedJsonHttpMessageConverter converter = converter(responses(false, false));
+
+        // When
+        write(converter, posts);
+
+        // Then
+        assertEquals(0, serializations.get());
+    }
+
+    @Test
+    void testInvalidateAllForgetsStoredBytes() throws Exception {
+        // Given
+        SerializedResponses responses = responses(true, false);
+        SerializedJsonHttpMessageConverter converter = converter(responses);
+        write(converter, posts);
+
+        // When
+        responses.invalidateAll();
+        write(converter, posts);
+
+        // Then - no longer registered, written by Jackson
+        assertEquals(1, serializations.get());
+    }
+
+    private SerializedJsonHttpMessageConverter converter(final SerializedResponses responses) {
+        responses.register(posts);
+        return new SerializedJsonHttpMessageConverter(objectMapper, responses);
+    }
+
+    private SerializedResponses responses(final boolean enabled, final boolean gzip) {
+        CachingProperties properties = new CachingProperties();
+        properties.getResponses().setEnabled(enabled);
+        properties.getResponses().setGzip(gzip);
+        properties.getResponses().setGzipMinSize(DataSize.ofKilobytes(1));
+        properties.getResponses().setEtag(false);
+        return new SerializedResponses(properties, objectMapper);
+    }
+
+    private static MockHttpOutputMessage write(final SerializedJsonHttpMessageConverter converter,
+                                               final Object body) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(body, List.class, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+}
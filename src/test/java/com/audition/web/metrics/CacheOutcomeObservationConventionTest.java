@@ -0,0 +1,59 @@
+package com.audition.web.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.audition.common.cache.CacheOutcomes;
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class CacheOutcomeObservationConventionTest {
+
+    private final CacheOutcomeObservationConvention convention = new CacheOutcomeObservationConvention();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/1");
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testRequestWithoutCacheLookupIsTaggedNone() {
+        assertEquals("none", cacheTag());
+    }
+
+    @Test
+    void testAnyMissMakesTheRequestAMiss() {
+        // Given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When & Then
+        CacheOutcomes.hit();
+        assertEquals("hit", cacheTag());
+        CacheOutcomes.miss();
+        CacheOutcomes.hit();
+        assertEquals("miss", cacheTag());
+    }
+
+    @Test
+    void testKeepsDefaultTags() {
+        assertTrue(convention.getLowCardinalityKeyValues(context()).stream()
+                .anyMatch(keyValue -> "method".equals(keyValue.getKey()) && "GET".equals(keyValue.getValue())));
+    }
+
+    private String cacheTag() {
+        return convention.getLowCardinalityKeyValues(context()).stream()
+                .filter(keyValue -> CacheOutcomeObservationConvention.CACHE_KEY.equals(keyValue.getKey()))
+                .map(KeyValue::getValue)
+                .findFirst().orElseThrow();
+    }
+
+    private ServerRequestObservationContext context() {
+        return new ServerRequestObservationContext(request, new MockHttpServletResponse());
+    }
+}